@@ -0,0 +1,89 @@
+#!/usr/bin/env bash
+#
+# Measures each startup variant: time from process start to the first
+# successful GET /movies/all, and the resident set size (RSS) at that moment.
+#
+# Build the variants first:
+#   ./mvnw package -DskipTests                  -> jar
+#   ./mvnw package -DskipTests -Paot,cds        -> extracted, aot, cds, aot-cds
+#   ./mvnw -Pnative native:compile -DskipTests  -> native (GraalVM)
+# An aot build also serves the jar variant (AOT code is only used with -Dspring.aot.enabled=true).
+#
+# Usage: scripts/measure-startup.sh [variant...]   (default: every variant that is built)
+# Environment:
+#   RUNS             runs per variant, the median is reported [5]
+#   PORT             HTTP port [18080]
+#   APP_ARGS         extra application arguments, e.g. --spring.datasource.url=...
+#   CLASSPATH_EXTRA  jars appended to the JVM classpath, e.g. another JDBC driver
+#   JAVA             java executable [$JAVA_HOME/bin/java]
+
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+JAVA=${JAVA:-${JAVA_HOME:+$JAVA_HOME/bin/}java}
+APP_ARGS=${APP_ARGS:-}
+JAR=$(ls target/popcorn-palace-*.jar 2>/dev/null | grep -v original | head -1 || true)
+EXTRACTED=$(ls target/cds/popcorn-palace-*.jar 2>/dev/null | head -1 || true)
+MAIN=com.att.tdp.popcorn_palace.PopcornPalaceApplication
+
+classpath() {
+    echo "$1${CLASSPATH_EXTRA:+:$CLASSPATH_EXTRA}"
+}
+
+# Prints the command line of a variant, or nothing if it is not built
+command_for() {
+    case "$1" in
+        jar)     [[ -n "$JAR" ]] && echo "$JAVA -cp $(classpath "$JAR") org.springframework.boot.loader.launch.JarLauncher" ;;
+        extracted) [[ -n "$EXTRACTED" ]] && echo "$JAVA -cp $(classpath "$EXTRACTED") $MAIN" ;;
+        aot)     [[ -n "$EXTRACTED" ]] && echo "$JAVA -Dspring.aot.enabled=true -cp $(classpath "$EXTRACTED") $MAIN" ;;
+        cds)     [[ -f target/cds/application.jsa ]] && echo "$JAVA -XX:SharedArchiveFile=target/cds/application.jsa -Xlog:cds=error -cp $(classpath "$EXTRACTED") $MAIN" ;;
+        aot-cds) [[ -f target/cds/application.jsa ]] && echo "$JAVA -XX:SharedArchiveFile=target/cds/application.jsa -Xlog:cds=error -Dspring.aot.enabled=true -cp $(classpath "$EXTRACTED") $MAIN" ;;
+        native)  [[ -x target/popcorn-palace ]] && echo "target/popcorn-palace" ;;
+    esac
+    return 0
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+# One run: prints "<millis to first request> <rss KiB>"
+measure() {
+    local start pid rss
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    $1 --server.port="$PORT" $APP_ARGS > target/measure-startup.log 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/movies/all"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited, see target/measure-startup.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    echo "$(( $(now_ms) - start )) $(ps -o rss= -p "$pid" | tr -d ' ')"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+variants=("$@")
+[[ ${#variants[@]} -eq 0 ]] && variants=(jar extracted aot cds aot-cds native)
+
+printf '%-10s %20s %12s\n' variant "first request (ms)" "RSS (MiB)"
+for variant in "${variants[@]}"; do
+    cmd=$(command_for "$variant")
+    if [[ -z "$cmd" ]]; then
+        printf '%-10s %20s\n' "$variant" "not built"
+        continue
+    fi
+    results=$(for _ in $(seq "$RUNS"); do measure "$cmd"; done)
+    millis=$(cut -d' ' -f1 <<< "$results" | median)
+    rss=$(cut -d' ' -f2 <<< "$results" | median)
+    printf '%-10s %20s %12s\n' "$variant" "$millis" "$(( rss / 1024 ))"
+done
@@ -0,0 +1,28 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import com.att.tdp.popcorn_palace.PopcornPalaceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application (no web server) against the in-memory H2 database
+ * in PostgreSQL mode from the "test" profile. JMH forks a JVM per benchmark,
+ * so each benchmark gets a fresh context and database.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(PopcornPalaceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "logging.level.root=WARN",
+                        "spring.jpa.show-sql=false")
+                .properties(properties)
+                .run();
+    }
+}
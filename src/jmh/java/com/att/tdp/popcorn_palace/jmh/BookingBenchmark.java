@@ -0,0 +1,79 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import com.att.tdp.popcorn_palace.controller.BookingController;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The POST /bookings path: showtime lookup and the insert-if-free statement.
+ *
+ * "book" always takes a free seat, "conflict" retries a taken seat, and
+ * "contended" is a flash sale: CONTENDERS threads race for every seat, so
+ * one attempt wins and the others lose the race.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final int CONTENDERS = 4;
+    // Seats of the contended benchmark, away from the ones "book" takes
+    private static final int CONTENDED_SEATS = 1_000_000;
+
+    private ConfigurableApplicationContext context;
+    private BookingController bookingController;
+    private long showtimeId;
+    private final AtomicInteger nextSeat = new AtomicInteger(1);
+    private final AtomicInteger contendedAttempts = new AtomicInteger();
+    private final String userId = UUID.randomUUID().toString();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        // Controllers only register in a servlet context, the benchmark one has no web server
+        bookingController = context.getAutowireCapableBeanFactory().createBean(BookingController.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Booking Benchmark', 'Drama', 120, 7.0, 2020)");
+        jdbc.update("INSERT INTO showtimes (movie_id, theater, start_time, end_time, price) "
+                + "VALUES ((SELECT id FROM movies WHERE title = 'Booking Benchmark'), 'Benchmark Hall', "
+                + "TIMESTAMP '2030-01-01 20:00:00', TIMESTAMP '2030-01-01 22:00:00', 10.00)");
+        showtimeId = jdbc.queryForObject("SELECT id FROM showtimes WHERE theater = 'Benchmark Hall'", Long.class);
+
+        // Seat 1 stays taken for the conflict benchmark
+        bookingController.bookTicket(new BookingRequest(showtimeId, nextSeat.getAndIncrement(), userId));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> book() {
+        return bookingController.bookTicket(new BookingRequest(showtimeId, nextSeat.getAndIncrement(), userId));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> conflict() {
+        return bookingController.bookTicket(new BookingRequest(showtimeId, 1, userId));
+    }
+
+    @Benchmark
+    @Threads(CONTENDERS)
+    public ResponseEntity<?> contended() {
+        int seat = CONTENDED_SEATS + contendedAttempts.getAndIncrement() / CONTENDERS;
+        return bookingController.bookTicket(new BookingRequest(showtimeId, seat, userId));
+    }
+}
@@ -0,0 +1,120 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.logging.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one booking request, with the output discarded so only the
+ * in-process work is measured:
+ *  - "sync": the old setup, a synchronous text console appender, concatenated
+ *    messages, and show-sql printing three statements to stdout
+ *  - "async": the current setup, async JSON appender, parameterized messages
+ *    and SAMPLED per-request logs at the default 1 in 100
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String SQL = "select s1_0.id from showtimes s1_0 where s1_0.id=? fetch first ? rows only";
+
+    @Param({ "sync", "async" })
+    public String setup;
+
+    private LoggerContext context;
+    private Logger logger;
+    private PrintStream sqlOut;
+    private final long showtimeId = 42;
+    private final String userId = UUID.randomUUID().toString();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(context);
+        console.setOutputStream(OutputStream.nullOutputStream());
+
+        Appender<ILoggingEvent> root;
+        if (setup.equals("sync")) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(context);
+            encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n");
+            encoder.start();
+            console.setEncoder(encoder);
+            console.start();
+            root = console;
+            sqlOut = new PrintStream(OutputStream.nullOutputStream(), true);
+        } else {
+            StructuredLogEncoder encoder = new StructuredLogEncoder();
+            encoder.setContext(context);
+            encoder.setFormat("ecs");
+            encoder.start();
+            console.setEncoder(encoder);
+            console.start();
+
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(console);
+            async.start();
+            root = async;
+
+            SamplingTurboFilter sampling = new SamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.setRate(100);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        rootLogger.addAppender(root);
+        logger = context.getLogger("com.att.tdp.popcorn_palace.controller.BookingController");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void bookingRequest() {
+        int seat = (int) (Thread.currentThread().threadId() & 0xff);
+        UUID bookingId = UUID.randomUUID();
+        if (setup.equals("sync")) {
+            logger.info("Booking ticket for showtime=" + showtimeId + ", seat=" + seat + ", user=" + userId);
+            sqlOut.println("Hibernate: " + SQL);
+            sqlOut.println("Hibernate: " + SQL);
+            sqlOut.println("Hibernate: insert into bookings (booking_time,seat_number,showtime_id,user_id,id) "
+                    + "values (?,?,?,?,?)");
+            logger.info("Booking confirmed! Your booking ID is: " + bookingId);
+        } else {
+            logger.info(LogSampling.SAMPLED, "Booking ticket for showtime={}, seat={}, user={}",
+                    showtimeId, seat, userId);
+            logger.info(LogSampling.SAMPLED, "Booking confirmed! Your booking ID is: {}", bookingId);
+        }
+    }
+}
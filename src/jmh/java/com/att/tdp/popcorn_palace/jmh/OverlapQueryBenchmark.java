@@ -0,0 +1,74 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShowtimeRepository.findOverlappingShowtimes with the showtimes table at
+ * several sizes, spread over THEATERS theaters with one show every three hours.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapQueryBenchmark {
+
+    private static final int THEATERS = 20;
+    private static final LocalDateTime FIRST_SHOW = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Param({ "1000", "10000", "100000" })
+    public int showtimes;
+
+    private ConfigurableApplicationContext context;
+    private ShowtimeRepository showtimeRepository;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        showtimeRepository = context.getBean(ShowtimeRepository.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Overlap Benchmark', 'Drama', 150, 7.0, 2020)");
+        Long movieId = jdbc.queryForObject("SELECT id FROM movies WHERE title = 'Overlap Benchmark'", Long.class);
+
+        List<Object[]> rows = new ArrayList<>(showtimes);
+        for (int i = 0; i < showtimes; i++) {
+            LocalDateTime start = FIRST_SHOW.plusHours(3L * (i / THEATERS));
+            rows.add(new Object[] { movieId, theater(i % THEATERS), Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusMinutes(150)), 12.50 });
+        }
+        jdbc.batchUpdate("INSERT INTO showtimes (movie_id, theater, start_time, end_time, price) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Showtime> findOverlapping() {
+        int slots = showtimes / THEATERS;
+        LocalDateTime start = FIRST_SHOW.plusHours(3L * random.nextInt(slots)).plusMinutes(90);
+        return showtimeRepository.findOverlappingShowtimes(theater(random.nextInt(THEATERS)), start,
+                start.plusMinutes(120), -1L);
+    }
+
+    private static String theater(int index) {
+        return "Hall " + index;
+    }
+}
@@ -0,0 +1,77 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import com.att.tdp.popcorn_palace.pricing.PricingEngine;
+import com.att.tdp.popcorn_palace.pricing.PricingProperties;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The seat price quote: the rule tables alone, and together with the
+ * in-memory occupancy read from the sales rollups. Both should stay well
+ * under a microsecond; the rule tables alone allocate nothing (see
+ * gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final int SHOWTIMES = 1024;
+    private static final int CAPACITY = 200;
+
+    private PricingEngine engine;
+    private SalesRollups salesRollups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PricingProperties properties = new PricingProperties();
+        properties.setCapacity(CAPACITY);
+        properties.setOccupancy(List.of(occupancy(50, 5), occupancy(70, 10), occupancy(90, 25)));
+        properties.setLeadTime(List.of(leadTime(Duration.ofDays(7), -10), leadTime(Duration.ofDays(1), 0),
+                leadTime(Duration.ofHours(2), 5), leadTime(Duration.ofMinutes(15), 15)));
+        engine = new PricingEngine(properties);
+
+        // No transaction is active, so the bookings are counted right away
+        salesRollups = new SalesRollups();
+        for (int showtimeId = 0; showtimeId < SHOWTIMES; showtimeId++) {
+            for (int seat = 0; seat < showtimeId % CAPACITY; seat++) {
+                salesRollups.recordBooking(showtimeId, 1, 1250, LocalDate.of(2030, 1, 1));
+            }
+        }
+    }
+
+    @Benchmark
+    public long quoteFromRules() {
+        int i = next++ & (SHOWTIMES - 1);
+        return engine.quoteCents(1250, i % CAPACITY, CAPACITY, i * 600L);
+    }
+
+    @Benchmark
+    public long quoteWithOccupancyRead() {
+        int i = next++ & (SHOWTIMES - 1);
+        return engine.quoteCents(1250, salesRollups.seatsSold(i), CAPACITY, i * 600L);
+    }
+
+    private static PricingProperties.OccupancyRule occupancy(int fromPercent, int adjustPercent) {
+        PricingProperties.OccupancyRule rule = new PricingProperties.OccupancyRule();
+        rule.setFromPercent(fromPercent);
+        rule.setAdjustPercent(adjustPercent);
+        return rule;
+    }
+
+    private static PricingProperties.LeadTimeRule leadTime(Duration within, int adjustPercent) {
+        PricingProperties.LeadTimeRule rule = new PricingProperties.LeadTimeRule();
+        rule.setWithin(within);
+        rule.setAdjustPercent(adjustPercent);
+        return rule;
+    }
+}
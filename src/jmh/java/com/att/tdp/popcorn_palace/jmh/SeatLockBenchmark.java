@@ -0,0 +1,76 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import com.att.tdp.popcorn_palace.model.booking.BookingOutcome;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A flash sale with and without seat locks (popcorn.seat-locks.mode):
+ * CONTENDERS threads race for every seat, so one booking wins and the others
+ * lose, either on the unique constraint or after waiting for the winner's
+ * lock. "uncontended" books distinct seats, which shows the lock's own cost.
+ *
+ * H2 has no advisory locks, so "advisory" needs PostgreSQL, e.g.
+ * -Djmh.args="SeatLockBenchmark -p mode=advisory -jvmArgs -Dspring.datasource.url=jdbc:postgresql://..."
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatLockBenchmark {
+
+    private static final int CONTENDERS = 8;
+    // Seats of the uncontended benchmark, away from the contended ones
+    private static final int UNCONTENDED_SEATS = 1_000_000;
+
+    @Param({ "none", "in-jvm" })
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private long showtimeId;
+    private final AtomicInteger contendedAttempts = new AtomicInteger();
+    private final AtomicInteger nextSeat = new AtomicInteger(UNCONTENDED_SEATS);
+    private final String userId = UUID.randomUUID().toString();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("popcorn.seat-locks.mode=" + mode);
+        bookingService = context.getBean(BookingService.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Seat Lock Benchmark', 'Drama', 120, 7.0, 2020)");
+        jdbc.update("INSERT INTO showtimes (movie_id, theater, start_time, end_time, price) "
+                + "VALUES ((SELECT id FROM movies WHERE title = 'Seat Lock Benchmark'), 'Lock Hall', "
+                + "TIMESTAMP '2030-01-01 20:00:00', TIMESTAMP '2030-01-01 22:00:00', 10.00)");
+        showtimeId = jdbc.queryForObject("SELECT id FROM showtimes WHERE theater = 'Lock Hall'", Long.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(CONTENDERS)
+    public BookingOutcome contended() {
+        int seat = 1 + contendedAttempts.getAndIncrement() / CONTENDERS;
+        return bookingService.book(new BookingRequest(showtimeId, seat, userId));
+    }
+
+    @Benchmark
+    @Threads(CONTENDERS)
+    public BookingOutcome uncontended() {
+        return bookingService.book(new BookingRequest(showtimeId, nextSeat.getAndIncrement(), userId));
+    }
+}
@@ -0,0 +1,85 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of Movie/Showtime lists, as returned by GET /movies/all and
+ * the showtime endpoints, in each response format:
+ *  - json: Jackson as configured by Boot (the default response format)
+ *  - json-blackbird: JSON with the Blackbird module, for comparison
+ *  - smile, cbor: the binary formats offered through content negotiation
+ *
+ * Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "1000" })
+    public int size;
+
+    @Param({ "json", "json-blackbird", "smile", "cbor" })
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private List<Movie> movies;
+    private List<Showtime> showtimes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("json-blackbird")) {
+            builder.modulesToInstall(new BlackbirdModule());
+        } else if (format.equals("smile")) {
+            builder.factory(new SmileFactory());
+        } else if (format.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder.build();
+
+        movies = new ArrayList<>(size);
+        showtimes = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        for (int i = 0; i < size; i++) {
+            Movie movie = new Movie("Movie number " + i, "Drama", 90 + i % 60, 5.0 + i % 5, 1990 + i % 35);
+            movie.setId((long) i + 1);
+            movies.add(movie);
+
+            Showtime showtime = new Showtime((long) i + 1, "Hall " + i % 12, start.plusHours(3L * i),
+                    start.plusHours(3L * i).plusMinutes(150), new BigDecimal("12.50"));
+            showtime.setId((long) i + 1);
+            showtimes.add(showtime);
+        }
+
+        System.out.printf("[SerializationBenchmark] format=%s size=%d movies=%d bytes showtimes=%d bytes%n",
+                format, size, movies().length, showtimes().length);
+    }
+
+    @Benchmark
+    public byte[] movies() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public byte[] showtimes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(showtimes);
+    }
+}
@@ -0,0 +1,69 @@
+package com.att.tdp.popcorn_palace.jmh;
+
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.model.showtime.ShowtimeRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of the booking and showtime request DTOs, for valid
+ * requests and for requests that fail every constraint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private final BookingRequest validBooking =
+            new BookingRequest(1L, 15, "84438967-f68f-4fa0-b620-0f08217e76af");
+    private final BookingRequest invalidBooking = new BookingRequest(null, 0, " ");
+    private final ShowtimeRequest validShowtime = new ShowtimeRequest(1L, "Hall 1",
+            LocalDateTime.of(2030, 1, 1, 20, 0), LocalDateTime.of(2030, 1, 1, 22, 0), new BigDecimal("12.50"));
+    private final ShowtimeRequest invalidShowtime = new ShowtimeRequest(null, "", null, null,
+            new BigDecimal("-1"));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookingRequest>> validBooking() {
+        return validator.validate(validBooking);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookingRequest>> invalidBooking() {
+        return validator.validate(invalidBooking);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ShowtimeRequest>> validShowtime() {
+        return validator.validate(validShowtime);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ShowtimeRequest>> invalidShowtime() {
+        return validator.validate(invalidShowtime);
+    }
+}
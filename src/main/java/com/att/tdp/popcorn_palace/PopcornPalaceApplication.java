@@ -2,8 +2,13 @@ package com.att.tdp.popcorn_palace;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive profile, which builds its own pool
+// (see reactive.ReactiveConfig); Boot's would need a URL in every deployment
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
 public class PopcornPalaceApplication {
 
 	public static void main(String[] args) {
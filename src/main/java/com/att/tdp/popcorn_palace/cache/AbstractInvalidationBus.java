@@ -0,0 +1,139 @@
+package com.att.tdp.popcorn_palace.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioning, local delivery and metrics shared by the buses; subclasses
+ * only carry messages to the other nodes ({@link #transmit}) and hand over
+ * what arrives ({@link #receive}).
+ *
+ * A message is versioned after its write committed, so a lower version of
+ * the same origin means an earlier committed write. A node drops a message
+ * older than one it already applied for the same key: every entry it holds
+ * for that key was loaded after the newer one, so it already sees the older
+ * write, and a late message never evicts a fresher entry. Caches do not
+ * store a load that overlapped an invalidation of its key, so reordering
+ * cannot resurrect a stale entry either.
+ *
+ * popcorn.cache.invalidation.lag records, per bus, the time from sending to
+ * delivery of messages from other nodes (by the origin's clock, so skew
+ * between nodes shows up in it); popcorn.cache.invalidation.dropped counts
+ * out-of-order messages.
+ */
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    // Applied versions tracked per key before the map is cleared; a cleared key just applies every message
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<String, List<InvalidationListener>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, Long> applied = new ConcurrentHashMap<>();
+    private final Timer lag;
+    private final Counter dropped;
+
+    protected AbstractInvalidationBus(String name, MeterRegistry meterRegistry) {
+        this.lag = Timer.builder("popcorn.cache.invalidation.lag")
+                .description("Time from publishing a cache invalidation on one node to applying it on another")
+                .tag("bus", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        this.dropped = Counter.builder("popcorn.cache.invalidation.dropped")
+                .description("Cache invalidations older than one already applied for the same key")
+                .tag("bus", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String cache, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(cache, key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(cache, key);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(String cache, InvalidationListener listener) {
+        listeners.computeIfAbsent(cache, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Carry a message of this node to the other nodes.
+     */
+    protected abstract void transmit(Invalidation invalidation);
+
+    /**
+     * A message arrived from the transport, possibly this node's own.
+     */
+    protected void receive(Invalidation invalidation) {
+        if (invalidation.origin().equals(nodeId)) {
+            return; // Delivered locally when sent
+        }
+        if (!apply(invalidation)) {
+            dropped.increment();
+            return;
+        }
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - invalidation.sentAtMillis())));
+        deliver(invalidation);
+    }
+
+    /**
+     * Messages may have been lost: every subscriber drops everything.
+     */
+    protected void invalidateAll() {
+        applied.clear();
+        listeners.values().forEach(list -> list.forEach(InvalidationListener::invalidateAll));
+    }
+
+    private void send(String cache, String key) {
+        Invalidation invalidation = new Invalidation(cache, key, nodeId, versions.incrementAndGet(),
+                System.currentTimeMillis());
+        deliver(invalidation);
+        transmit(invalidation);
+    }
+
+    /**
+     * @return false if a newer message of the same origin was already
+     *         applied for the key.
+     */
+    private boolean apply(Invalidation invalidation) {
+        if (applied.size() > MAX_TRACKED_KEYS) {
+            applied.clear();
+        }
+        String trackingKey = invalidation.origin() + '/' + invalidation.cache() + '/' + invalidation.key();
+        long version = invalidation.version();
+        return applied.merge(trackingKey, version, Math::max) == version;
+    }
+
+    private void deliver(Invalidation invalidation) {
+        List<InvalidationListener> subscribers = listeners.get(invalidation.cache());
+        if (subscribers != null) {
+            subscribers.forEach(listener -> listener.invalidate(invalidation));
+        }
+    }
+}
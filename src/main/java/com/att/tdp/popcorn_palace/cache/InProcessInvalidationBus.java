@@ -0,0 +1,17 @@
+package com.att.tdp.popcorn_palace.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A single node: invalidations only go to this instance's caches.
+ */
+public class InProcessInvalidationBus extends AbstractInvalidationBus {
+
+    public InProcessInvalidationBus(MeterRegistry meterRegistry) {
+        super("in-process", meterRegistry);
+    }
+
+    @Override
+    protected void transmit(Invalidation invalidation) {
+    }
+}
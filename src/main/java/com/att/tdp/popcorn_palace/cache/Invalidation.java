@@ -0,0 +1,9 @@
+package com.att.tdp.popcorn_palace.cache;
+
+/**
+ * One key of one cache is stale on every node. {@code version} grows with
+ * every message of the {@code origin} node and is assigned after the write
+ * committed; {@code sentAtMillis} is the origin's wall clock at sending.
+ */
+public record Invalidation(String cache, String key, String origin, long version, long sentAtMillis) {
+}
@@ -0,0 +1,25 @@
+package com.att.tdp.popcorn_palace.cache;
+
+/**
+ * Tells the caches of every node that an entry went stale, so a write on one
+ * node does not leave the others serving the old value. Implementations:
+ * {@link InProcessInvalidationBus} (one node), {@link PostgresInvalidationBus}
+ * (LISTEN/NOTIFY) and {@link LoopbackInvalidationBus} (several nodes in one
+ * JVM, for tests); popcorn.cache.invalidation.bus picks one.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Invalidate {@code key} of {@code cache} on all nodes once the current
+     * transaction commits (right away without one). Nothing is sent if it
+     * rolls back.
+     */
+    void publish(String cache, String key);
+
+    void subscribe(String cache, InvalidationListener listener);
+
+    /**
+     * This node's ID, the {@link Invalidation#origin()} of its messages.
+     */
+    String nodeId();
+}
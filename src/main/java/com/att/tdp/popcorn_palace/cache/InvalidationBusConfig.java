@@ -0,0 +1,31 @@
+package com.att.tdp.popcorn_palace.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The {@link InvalidationBus} named by popcorn.cache.invalidation.bus:
+ * in-process (the default, one node) or postgres.
+ */
+@Configuration
+public class InvalidationBusConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "popcorn.cache.invalidation", name = "bus", havingValue = "postgres")
+    public InvalidationBus postgresInvalidationBus(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        return new PostgresInvalidationBus(jdbcTemplate, objectMapper, dataSourceProperties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "popcorn.cache.invalidation", name = "bus", havingValue = "in-process",
+            matchIfMissing = true)
+    public InvalidationBus inProcessInvalidationBus(MeterRegistry meterRegistry) {
+        return new InProcessInvalidationBus(meterRegistry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.att.tdp.popcorn_palace.cache;
+
+/**
+ * A cache subscribed to an {@link InvalidationBus}.
+ */
+public interface InvalidationListener {
+
+    /**
+     * Drop the entry. Called for every node's writes, this one's included
+     * (right after its commit).
+     */
+    void invalidate(Invalidation invalidation);
+
+    /**
+     * Messages may have been lost (e.g. the bus reconnected): drop or
+     * reload everything.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,78 @@
+package com.att.tdp.popcorn_palace.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+/**
+ * Several nodes in one JVM, for multi-node tests: every bus joined to the
+ * same {@link Network} receives the others' messages. The network can hold
+ * messages back and release them in any order, to test delays and
+ * reordering.
+ */
+public class LoopbackInvalidationBus extends AbstractInvalidationBus {
+
+    /**
+     * The nodes' shared transport.
+     */
+    public static class Network {
+
+        private final List<LoopbackInvalidationBus> nodes = new CopyOnWriteArrayList<>();
+        private final List<Invalidation> held = new ArrayList<>();
+        private boolean holding;
+
+        /**
+         * Keep messages until {@link #release} instead of delivering them.
+         */
+        public synchronized void hold() {
+            holding = true;
+        }
+
+        /**
+         * Deliver the held messages in the given order (e.g. reversed) and go
+         * back to delivering right away.
+         *
+         * @return the messages that were held, in sending order.
+         */
+        public List<Invalidation> release(UnaryOperator<List<Invalidation>> order) {
+            List<Invalidation> messages;
+            synchronized (this) {
+                holding = false;
+                messages = List.copyOf(held);
+                held.clear();
+            }
+            order.apply(new ArrayList<>(messages)).forEach(this::broadcast);
+            return messages;
+        }
+
+        void send(Invalidation invalidation) {
+            synchronized (this) {
+                if (holding) {
+                    held.add(invalidation);
+                    return;
+                }
+            }
+            broadcast(invalidation);
+        }
+
+        private void broadcast(Invalidation invalidation) {
+            nodes.forEach(node -> node.receive(invalidation));
+        }
+    }
+
+    private final Network network;
+
+    public LoopbackInvalidationBus(Network network, MeterRegistry meterRegistry) {
+        super("loopback", meterRegistry);
+        this.network = network;
+        network.nodes.add(this);
+    }
+
+    @Override
+    protected void transmit(Invalidation invalidation) {
+        network.send(invalidation);
+    }
+}
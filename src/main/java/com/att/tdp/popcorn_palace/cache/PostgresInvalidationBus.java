@@ -0,0 +1,146 @@
+package com.att.tdp.popcorn_palace.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Invalidations over PostgreSQL LISTEN/NOTIFY on the main database.
+ *
+ * Publishing only queues the message: a sender thread sends what has queued
+ * up with one pg_notify statement, so the request that wrote never waits for
+ * it. A listener thread keeps its own connection (outside the pool) on
+ * LISTEN. If that connection breaks, notifications sent meanwhile are lost,
+ * so after reconnecting every subscriber drops everything.
+ */
+public class PostgresInvalidationBus extends AbstractInvalidationBus implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    static final String CHANNEL = "popcorn_cache_invalidation";
+    private static final int POLL_MILLIS = 500;
+    private static final long RETRY_MILLIS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final BlockingQueue<Invalidation> outgoing = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+    private Thread sender;
+    private Thread listener;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        super("postgres", meterRegistry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        sender = Thread.ofPlatform().name("invalidation-sender").daemon().start(this::sendLoop);
+        listener = Thread.ofPlatform().name("invalidation-listener").daemon().start(this::listenLoop);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        sender.interrupt();
+        listener.interrupt();
+        sender.join(RETRY_MILLIS);
+        listener.join(RETRY_MILLIS);
+    }
+
+    @Override
+    protected void transmit(Invalidation invalidation) {
+        outgoing.add(invalidation);
+    }
+
+    private void sendLoop() {
+        List<Invalidation> batch = new ArrayList<>();
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    batch.add(outgoing.take());
+                    outgoing.drainTo(batch);
+                }
+                String[] payloads = new String[batch.size()];
+                for (int i = 0; i < payloads.length; i++) {
+                    payloads[i] = objectMapper.writeValueAsString(batch.get(i));
+                }
+                jdbcTemplate.query("SELECT pg_notify('" + CHANNEL + "', payload) FROM unnest(?) AS payload",
+                        ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", payloads)), rs -> null);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                logger.warn("[PostgresInvalidationBus] WARN - Sending {} invalidations failed, retrying: {}",
+                        batch.size(), e.toString());
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void listenLoop() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    logger.info("[PostgresInvalidationBus] INFO - Listening again, dropping all cached entries.");
+                    invalidateAll();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(objectMapper.readValue(notification.getParameter(), Invalidation.class));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("[PostgresInvalidationBus] WARN - Lost the LISTEN connection, reconnecting: {}",
+                        e.toString());
+                reconnect = true;
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(RETRY_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
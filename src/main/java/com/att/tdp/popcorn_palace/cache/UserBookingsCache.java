@@ -0,0 +1,120 @@
+package com.att.tdp.popcorn_palace.cache;
+
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.model.booking.UserBooking;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The most recent bookings of each user (the first page of their history),
+ * so repeated visits to "my tickets" do not query the DB.
+ *
+ * A user's entry is dropped when they book or cancel, on every node through
+ * the {@link InvalidationBus} (after the commit). A load that overlaps an
+ * invalidation is not cached: the loader parks a marker first and only
+ * replaces that exact marker, which an invalidation removes. Entries also
+ * expire after popcorn.bookings.history-cache.ttl, which bounds staleness
+ * for writes no node publishes (manual SQL) and lost messages.
+ *
+ * At most popcorn.bookings.history-cache.max-users users are kept; when
+ * full, an arbitrary entry is evicted.
+ */
+@Component
+public class UserBookingsCache implements InvalidationListener {
+
+    static final String NAME = "user-bookings";
+
+    private sealed interface Slot {
+    }
+
+    private record Loading() implements Slot {
+    }
+
+    private record Cached(List<UserBooking> bookings, long expiresAtNanos) implements Slot {
+    }
+
+    private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+
+    @Value("${popcorn.bookings.history-cache.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${popcorn.bookings.history-cache.ttl:5m}")
+    private Duration ttl;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(NAME, this);
+    }
+
+    /**
+     * The cached recent bookings of {@code userId}, or the result of
+     * {@code loader} (which is cached unless the user is invalidated while
+     * it runs).
+     */
+    public List<UserBooking> get(UUID userId, Supplier<List<UserBooking>> loader) {
+        Slot slot = slots.get(userId);
+        if (slot instanceof Cached cached && System.nanoTime() - cached.expiresAtNanos() < 0) {
+            return cached.bookings();
+        }
+
+        Loading marker = new Loading();
+        boolean owner = slot == null ? slots.putIfAbsent(userId, marker) == null : slots.replace(userId, slot, marker);
+        List<UserBooking> bookings = loader.get();
+        if (owner) {
+            if (slots.size() > maxUsers) {
+                evictOne(userId);
+            }
+            slots.replace(userId, marker, new Cached(List.copyOf(bookings), System.nanoTime() + ttl.toNanos()));
+        }
+        return bookings;
+    }
+
+    /**
+     * Drop the user's entry once the surrounding transaction (if any)
+     * commits, e.g. because they booked or cancelled.
+     */
+    public void invalidate(UUID userId) {
+        slots.remove(userId);
+        // Again after the commit, here too: a load that ran in between saw the old rows
+        invalidationBus.publish(NAME, userId.toString());
+    }
+
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        slots.remove(UUID.fromString(invalidation.key()));
+    }
+
+    @Override
+    public void invalidateAll() {
+        slots.clear();
+    }
+
+    @EventListener
+    public void onSeatReleased(SeatReleased released) {
+        invalidate(released.userId());
+    }
+
+    private void evictOne(UUID keep) {
+        Iterator<UUID> users = slots.keySet().iterator();
+        while (users.hasNext()) {
+            if (!users.next().equals(keep)) {
+                users.remove();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.logging.SamplingTurboFilter;
+import com.att.tdp.popcorn_palace.model.PooledSequenceGenerator;
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.movie.MovieImportResult;
+import com.att.tdp.popcorn_palace.model.movie.MovieRequest;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.model.showtime.ShowtimeRequest;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the native image (./mvnw -Pnative native:compile).
+ *
+ * Spring's AOT processing covers beans, JPA entity registration and
+ * repositories; this adds what is only reached reflectively at runtime:
+ * Jackson binding of the entities and DTOs, the Hibernate ID generator,
+ * the logback turbo filter named in logback-spring.xml, and the shard schema.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({ Movie.class, MovieRequest.class, MovieImportResult.class, Showtime.class,
+        ShowtimeRequest.class, Booking.class, BookingRequest.class })
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Instantiated by Hibernate through @PooledSequence (@IdGeneratorType)
+            hints.reflection().registerType(PooledSequenceGenerator.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            // Instantiated and configured by logback from logback-spring.xml
+            hints.reflection().registerType(SamplingTurboFilter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.resources().registerPattern("shard-schema.sql");
+        }
+    }
+}
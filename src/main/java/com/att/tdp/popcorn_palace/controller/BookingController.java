@@ -1,33 +1,33 @@
 package com.att.tdp.popcorn_palace.controller;
 
-import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.model.booking.BookingOutcome;
 import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
-import com.att.tdp.popcorn_palace.repository.BookingRepository;
-import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.model.booking.CancellationOutcome;
+import com.att.tdp.popcorn_palace.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
-import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Handles booking tickets according to the README:
  * POST /bookings -> Book a ticket
+ * DELETE /bookings/{bookingId}?userId=... -> Cancel your booking
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/bookings")
 public class BookingController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
 
     @Autowired
-    private BookingRepository bookingRepository;
-
-    @Autowired
-    private ShowtimeRepository showtimeRepository;
+    private BookingService bookingService;
 
     /**
      * POST /bookings
@@ -41,38 +41,44 @@ public class BookingController {
      */
     @PostMapping
     public ResponseEntity<?> bookTicket(@Valid @RequestBody BookingRequest request) {
-        logger.info("Booking ticket for showtime={}, seat={}, user={}",
+        logger.info(LogSampling.SAMPLED, "Booking ticket for showtime={}, seat={}, user={}",
                 request.getShowtimeId(), request.getSeatNumber(), request.getUserId());
 
-        // Check if showtime exists
-        if (!showtimeRepository.existsById(request.getShowtimeId())) {
-            return ResponseEntity.badRequest().body("No showtime found with id=" + request.getShowtimeId());
-        }
-
-        // Check if seat is taken
-        boolean seatTaken = bookingRepository.existsByShowtimeIdAndSeatNumber(
-                request.getShowtimeId(), request.getSeatNumber());
-        if (seatTaken) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body("Seat " + request.getSeatNumber() + " is already booked for showtime "
-                            + request.getShowtimeId());
-        }
-
-        // Convert userId from String -> UUID
-        UUID userUuid;
-        try {
-            userUuid = UUID.fromString(request.getUserId());
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body("Invalid userId: must be a valid UUID");
-        }
+        return switch (bookingService.book(request)) {
+            case BookingOutcome.Booked booked -> {
+                logger.info(LogSampling.SAMPLED, "Booking confirmed! Your booking ID is: {}", booked.bookingId());
+                yield ResponseEntity.ok("Booking confirmed! Your booking ID is: " + booked.bookingId());
+            }
+            case BookingOutcome.SeatTaken taken -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Seat " + taken.seatNumber() + " is already booked for showtime " + taken.showtimeId());
+            case BookingOutcome.ShowtimeNotFound notFound ->
+                ResponseEntity.badRequest().body("No showtime found with id=" + notFound.showtimeId());
+            case BookingOutcome.InvalidUserId invalid ->
+                ResponseEntity.badRequest().body("Invalid userId: must be a valid UUID");
+        };
+    }
 
-        // Create & save booking
-        Booking booking = new Booking(request.getShowtimeId(), userUuid, request.getSeatNumber());
-        booking = bookingRepository.save(booking);
+    /**
+     * DELETE /bookings/{bookingId}?userId=84438967-f68f-4fa0-b620-0f08217e76af
+     * Response: 200 OK, the seat can be booked again right away
+     * 404 if there is no such booking, 403 if it belongs to another user
+     */
+    @DeleteMapping("/{bookingId}")
+    public ResponseEntity<String> cancelBooking(@PathVariable String bookingId, @RequestParam String userId) {
+        logger.info("Cancelling booking {} for user={}", bookingId, userId);
 
-        // Return booking ID
-        logger.info("Booking confirmed! Your booking ID is: {}", booking.getId());
-        String msg = "Booking confirmed! Your booking ID is: " + booking.getId();
-        return ResponseEntity.ok(msg);
+        return switch (bookingService.cancel(bookingId, userId)) {
+            case CancellationOutcome.Cancelled cancelled -> ResponseEntity.ok("Booking " + bookingId
+                    + " cancelled. Seat " + cancelled.released().seatNumber() + " of showtime "
+                    + cancelled.released().showtimeId() + " is available again.");
+            case CancellationOutcome.BookingNotFound notFound -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No booking found with id=" + notFound.bookingId());
+            case CancellationOutcome.NotOwner notOwner -> ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Booking " + notOwner.bookingId() + " belongs to another user");
+            case CancellationOutcome.InvalidBookingId invalid ->
+                ResponseEntity.badRequest().body("Invalid bookingId: must be a valid UUID");
+            case CancellationOutcome.InvalidUserId invalid ->
+                ResponseEntity.badRequest().body("Invalid userId: must be a valid UUID");
+        };
     }
 }
@@ -1,15 +1,33 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.index.MovieSearchIndex;
+import com.att.tdp.popcorn_palace.index.MovieTitleIndex;
 import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.movie.MovieImportResult;
 import com.att.tdp.popcorn_palace.model.movie.MovieRequest;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.service.MovieImportService;
+import com.att.tdp.popcorn_palace.service.ShowtimeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +36,7 @@ import org.slf4j.LoggerFactory;
  * Controller for handling all movie-related API endpoints.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/movies")
 public class MovieController {
 
@@ -26,6 +45,20 @@ public class MovieController {
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private MovieTitleIndex titleIndex;
+
+    @Autowired
+    private MovieSearchIndex searchIndex;
+
+    @Autowired
+    private MovieImportService importService;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     /**
      * Endpoint: GET /movies/all
      * 
@@ -35,10 +68,43 @@ public class MovieController {
      */
     @GetMapping("/all")
     public ResponseEntity<List<Movie>> getAllMovies() {
-        logger.info("[MovieController] INFO - Request to fetch all movies.");
+        logger.info(LogSampling.SAMPLED, "[MovieController] INFO - Request to fetch all movies.");
         List<Movie> movies = movieRepository.findAll();
 
-        logger.info("[MovieController] INFO - Returning " + movies.size() + " movies.");
+        logger.info(LogSampling.SAMPLED, "[MovieController] INFO - Returning {} movies.", movies.size());
+        return ResponseEntity.ok(movies);
+    }
+
+    /**
+     * Endpoint: GET /movies/search?q={text}&limit={n}
+     * 
+     * Full-text search over title and genre with typo tolerance, served from
+     * the in-memory search index.
+     * 
+     * @param q     The search text, e.g. "dark knigt".
+     * @param limit Maximum number of results (1-100, default 20).
+     * @return 200 OK with the matching movies, best match first,
+     *         or 400 Bad Request if the query is blank.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchMovies(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("Search query 'q' must not be blank.");
+        }
+
+        List<MovieSearchIndex.Hit> hits = searchIndex.search(q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        if (hits.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        // One PK lookup for the page, then restore the ranking order
+        List<Long> ids = hits.stream().map(MovieSearchIndex.Hit::movieId).toList();
+        Map<Long, Movie> byId = movieRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        List<Movie> movies = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        logger.info(LogSampling.SAMPLED, "[MovieController] INFO - Search '{}' returned {} movies.", q, movies.size());
         return ResponseEntity.ok(movies);
     }
 
@@ -56,27 +122,56 @@ public class MovieController {
      */
     @PostMapping
     public ResponseEntity<String> addMovie(@Valid @RequestBody MovieRequest movieDto) {
-        logger.info("[MovieController] INFO - Request to create a new movie: " + movieDto.getTitle());
+        logger.info("[MovieController] INFO - Request to create a new movie: {}", movieDto.getTitle());
 
-        // Check if a movie with the same title already exists
-        if (movieRepository.existsByTitle(movieDto.getTitle())) {
-            logger.warn("[MovieController] WARN - Movie with title '" + movieDto.getTitle() + "' already exists.");
+        // Check if a movie with the same title already exists (in memory, the DB
+        // unique constraint only backs this up for concurrent creates)
+        if (titleIndex.isTitleTaken(movieDto.getTitle(), null)) {
+            logger.warn("[MovieController] WARN - Movie with title '{}' already exists.", movieDto.getTitle());
             return ResponseEntity
                     .status(HttpStatus.CONFLICT)
                     .body("Another movie already has the title '" + movieDto.getTitle()
                             + "'. Please pick a unique title.");
         }
 
-        Movie savedMovie = movieRepository.save(mapToEntity(movieDto));
+        // Flush right away so the new movie is indexed before the response
+        Movie savedMovie = movieRepository.saveAndFlush(mapToEntity(movieDto));
 
         // Log success and return the saved movie
         String successMsg = "Successfully created the movie: '" + savedMovie.getTitle() + "with id: "
                 + savedMovie.getId() + "'.";
-        logger.info("[MovieController] SUCCESS - " + successMsg);
+        logger.info("[MovieController] SUCCESS - {}", successMsg);
         return ResponseEntity.ok(successMsg);
 
     }
 
+    /**
+     * Endpoint: POST /movies/import
+     * 
+     * Bulk import, streamed from the request body without buffering it.
+     * 
+     * Content-Type application/x-ndjson: one MovieRequest JSON object per line.
+     * Content-Type text/csv: title,genre,duration,rating,releaseYear per line
+     * (an optional header row is skipped).
+     * 
+     * Rows are validated like POST /movies; invalid rows and duplicate titles
+     * are skipped and reported, the rest are inserted in JDBC batches.
+     * 
+     * @return 200 OK with per-row errors and throughput stats.
+     */
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<MovieImportResult> importMovies(HttpServletRequest request) throws IOException {
+        MovieImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? MovieImportService.Format.CSV
+                : MovieImportService.Format.NDJSON;
+        logger.info("[MovieController] INFO - Bulk import started ({}).", format);
+
+        MovieImportResult result = importService.importMovies(
+                new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)),
+                format);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Endpoint: POST /movies/update/{movieTitle}
      * 
@@ -92,38 +187,32 @@ public class MovieController {
     public ResponseEntity<String> updateMovieByTitle(
             @PathVariable String movieTitle,
             @Valid @RequestBody MovieRequest updatedData) {
-        return movieRepository.findByTitle(movieTitle).map(existingMovie -> {
-            logger.info("[MovieController] INFO - Updating movie: '" + movieTitle + "'");
-
-            boolean wantsToRename = !movieTitle.equals(updatedData.getTitle());
-            boolean newTitleTaken = movieRepository.existsByTitle(updatedData.getTitle());
-
-            // If the new title is taken, return a conflict
-            if (wantsToRename && newTitleTaken) {
-                logger.warn("[MovieController] WARN - New title '" + updatedData.getTitle() + "' is already taken.");
-                return ResponseEntity
-                        .status(HttpStatus.CONFLICT)
-                        .body("Sorry, the title '" + updatedData.getTitle() + "' is already used by another movie.");
-            }
-
-            // Update the movie details
-            existingMovie.setTitle(updatedData.getTitle());
-            existingMovie.setGenre(updatedData.getGenre());
-            existingMovie.setDuration(updatedData.getDuration());
-            existingMovie.setRating(updatedData.getRating());
-            existingMovie.setReleaseYear(updatedData.getReleaseYear());
-
-            Movie saved = movieRepository.save(existingMovie);
-
-            // Log success and return the updated movie
-            String successMsg = "Movie '" + movieTitle + "' was updated successfully. New title is '"
-                    + saved.getTitle() + "'.";
-            logger.info("[MovieController] SUCCESS - " + successMsg);
-            return ResponseEntity.ok(successMsg);
+        return titleIndex.resolve(movieTitle)
+                .map(existingMovie -> updateMovie(existingMovie, updatedData))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Movie with title '" + movieTitle + "' was not found. Update failed."));
 
-        }).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body("Movie with title '" + movieTitle + "' was not found. Update failed."));
+    }
 
+    /**
+     * Endpoint: POST /movies/update/id/{movieId}
+     * 
+     * Update an existing movie by its primary key.
+     * 
+     * @param movieId     The ID of the movie to update.
+     * @param updatedData The new movie details from the client.
+     * @return 200 OK + updated movie info, or 404 if not found,
+     *         or 409 Conflict if the new title is taken,
+     *         or 400 if the request body fails validation.
+     */
+    @PostMapping("/update/id/{movieId}")
+    public ResponseEntity<String> updateMovieById(
+            @PathVariable Long movieId,
+            @Valid @RequestBody MovieRequest updatedData) {
+        return movieRepository.findById(movieId)
+                .map(existingMovie -> updateMovie(existingMovie, updatedData))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Movie with id=" + movieId + " was not found. Update failed."));
     }
 
     /**
@@ -137,32 +226,107 @@ public class MovieController {
      */
     @DeleteMapping("/{movieTitle}")
     public ResponseEntity<String> deleteMovieByTitle(@PathVariable String movieTitle) {
-        logger.info("[MovieController] INFO - Attempting to delete movie: '" + movieTitle + "'");
+        logger.info("[MovieController] INFO - Attempting to delete movie: '{}'", movieTitle);
 
-        // Check if there's a matching movie
-        boolean movieExists = movieRepository.existsByTitle(movieTitle);
-        if (!movieExists) {
-            logger.warn("[MovieController] WARN - Movie '" + movieTitle + "' does not exist for deletion.");
+        // Resolve the title to an ID, the delete itself goes by primary key
+        Optional<Movie> movie = titleIndex.resolve(movieTitle);
+        if (movie.isEmpty()) {
+            logger.warn("[MovieController] WARN - Movie '{}' does not exist for deletion.", movieTitle);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("No movie found with title '" + movieTitle + "'. Could not delete.");
         }
 
-        // Try performing the delete
+        return deleteMovie(movie.get().getId(), "'" + movieTitle + "'");
+    }
+
+    /**
+     * Endpoint: GET /movies/id/{movieId}
+     * 
+     * Fetch a single movie by its primary key.
+     * 
+     * @param movieId The ID of the movie.
+     * @return 200 OK with the movie JSON, or 404 if it doesn't exist.
+     */
+    @GetMapping("/id/{movieId}")
+    public ResponseEntity<?> getMovieById(@PathVariable Long movieId) {
+        Optional<Movie> movie = movieRepository.findById(movieId);
+        if (movie.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No movie found with id=" + movieId + ".");
+        }
+        return ResponseEntity.ok(movie.get());
+    }
+
+    /**
+     * Endpoint: DELETE /movies/id/{movieId}
+     * 
+     * Delete a movie by its primary key.
+     * 
+     * @param movieId The ID of the movie to be removed.
+     * @return 200 OK on success, 404 if the movie doesn't exist,
+     *         500 if there's a server or DB error.
+     */
+    @DeleteMapping("/id/{movieId}")
+    public ResponseEntity<String> deleteMovieById(@PathVariable Long movieId) {
+        logger.info("[MovieController] INFO - Attempting to delete movie id={}", movieId);
+
+        if (!movieRepository.existsById(movieId)) {
+            logger.warn("[MovieController] WARN - Movie id={} does not exist for deletion.", movieId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No movie found with id=" + movieId + ". Could not delete.");
+        }
+
+        return deleteMovie(movieId, "id=" + movieId);
+    }
+
+    /**
+     * Shared update logic for the title and ID routes.
+     */
+    private ResponseEntity<String> updateMovie(Movie existingMovie, MovieRequest updatedData) {
+        String oldTitle = existingMovie.getTitle();
+        logger.info("[MovieController] INFO - Updating movie: '{}'", oldTitle);
+
+        // Renames are checked against the in-memory index (a movie may keep its own title)
+        if (titleIndex.isTitleTaken(updatedData.getTitle(), existingMovie.getId())) {
+            logger.warn("[MovieController] WARN - New title '{}' is already taken.", updatedData.getTitle());
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body("Sorry, the title '" + updatedData.getTitle() + "' is already used by another movie.");
+        }
+
+        // Update the movie details
+        existingMovie.setTitle(updatedData.getTitle());
+        existingMovie.setGenre(updatedData.getGenre());
+        existingMovie.setDuration(updatedData.getDuration());
+        existingMovie.setRating(updatedData.getRating());
+        existingMovie.setReleaseYear(updatedData.getReleaseYear());
+
+        Movie saved = movieRepository.save(existingMovie);
+
+        // Log success and return the updated movie
+        String successMsg = "Movie '" + oldTitle + "' was updated successfully. New title is '"
+                + saved.getTitle() + "'.";
+        logger.info("[MovieController] SUCCESS - {}", successMsg);
+        return ResponseEntity.ok(successMsg);
+    }
+
+    /**
+     * Shared delete logic, always by primary key so the title index stays in sync.
+     */
+    private ResponseEntity<String> deleteMovie(Long movieId, String label) {
         try {
-            movieRepository.deleteByTitle(movieTitle);
+            showtimeService.deleteMovie(movieId); // Cancels the bookings of its showtimes too
 
-            String successMsg = "Movie '" + movieTitle + "' was removed successfully.";
-            logger.info("[MovieController] SUCCESS - " + successMsg);
+            String successMsg = "Movie " + label + " was removed successfully.";
+            logger.info("[MovieController] SUCCESS - {}", successMsg);
             return ResponseEntity.ok(successMsg);
 
         } catch (Exception e) {
-            e.printStackTrace();
-
-            logger.error("[MovieController] ERROR - Exception while deleting movie: " + e.getMessage());
+            logger.error("[MovieController] ERROR - Exception while deleting movie: {}", e.getMessage(), e);
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Something went wrong while deleting '" + movieTitle
-                            + "'. Please try again or contact support.");
+                    .body("Something went wrong while deleting " + label
+                            + ". Please try again or contact support.");
         }
     }
 
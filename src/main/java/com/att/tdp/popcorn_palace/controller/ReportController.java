@@ -0,0 +1,103 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.model.report.SalesTotals;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import com.att.tdp.popcorn_palace.service.BookingExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Sales reports for finance, read from the in-memory rollups (no query):
+ * GET /reports/sales/showtimes/{showtimeId}
+ * GET /reports/sales/movies/{movieId}
+ * GET /reports/sales/days/{day}  (ISO date, the day the seats were sold)
+ *
+ * Response: 200 OK { "seats": 3, "revenue": 37.50 }
+ *
+ * And the booking export, streamed from the DB:
+ * GET /reports/bookings/export?from={day}&to={day}
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/reports")
+public class ReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private BookingExportService exportService;
+
+    @GetMapping("/sales/showtimes/{showtimeId}")
+    public ResponseEntity<SalesTotals> showtimeSales(@PathVariable long showtimeId) {
+        return ResponseEntity.ok(salesRollups.forShowtime(showtimeId));
+    }
+
+    @GetMapping("/sales/movies/{movieId}")
+    public ResponseEntity<SalesTotals> movieSales(@PathVariable long movieId) {
+        return ResponseEntity.ok(salesRollups.forMovie(movieId));
+    }
+
+    @GetMapping("/sales/days/{day}")
+    public ResponseEntity<SalesTotals> daySales(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        return ResponseEntity.ok(salesRollups.forDay(day));
+    }
+
+    /**
+     * Endpoint: GET /reports/bookings/export?from={yyyy-MM-dd}&to={yyyy-MM-dd}
+     *
+     * Every booking made between the start of {@code from} and the end of
+     * {@code to}, with its showtime and movie. Accept application/x-ndjson
+     * for one JSON object per line, anything else gets CSV with a header row.
+     *
+     * Rows are written to the response as they are read from the DB, so the
+     * export is not held in memory (and is not retried or resumable: a
+     * failure mid-way ends the response early).
+     *
+     * @return 200 OK with the rows, or 400 if {@code to} is before {@code from}.
+     */
+    @GetMapping(value = "/bookings/export", produces = { CSV, NDJSON })
+    public void exportBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (to.isBefore(from)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType("text/plain");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("The export range ends (" + to + ") before it starts (" + from + ").");
+            return;
+        }
+
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        BookingExportService.Format format = accept != null && accept.contains(NDJSON)
+                ? BookingExportService.Format.NDJSON
+                : BookingExportService.Format.CSV;
+        logger.info("[ReportController] INFO - Booking export started ({} to {}, {}).", from, to, format);
+
+        response.setContentType(format == BookingExportService.Format.NDJSON ? NDJSON : CSV);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings-" + from + "-to-" + to
+                + (format == BookingExportService.Format.NDJSON ? ".ndjson" : ".csv") + "\"");
+        exportService.exportBookings(from, to, format, response.getOutputStream());
+    }
+}
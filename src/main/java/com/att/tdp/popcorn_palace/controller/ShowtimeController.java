@@ -1,23 +1,29 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.model.booking.BestAvailableOutcome;
+import com.att.tdp.popcorn_palace.model.showtime.ScheduleOutcome;
 import com.att.tdp.popcorn_palace.model.showtime.Showtime;
 import com.att.tdp.popcorn_palace.model.showtime.ShowtimeRequest;
-import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.seating.SeatLayout;
+import com.att.tdp.popcorn_palace.service.SeatingService;
+import com.att.tdp.popcorn_palace.service.ShowtimeService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.math.BigDecimal;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/showtimes")
 public class ShowtimeController {
 
@@ -27,7 +33,10 @@ public class ShowtimeController {
     private ShowtimeRepository showtimeRepository;
 
     @Autowired
-    private MovieRepository movieRepository;
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private SeatingService seatingService;
 
     /**
      * Endpoint: POST /showtimes
@@ -37,40 +46,21 @@ public class ShowtimeController {
     public ResponseEntity<String> createShowtime(@Valid @RequestBody ShowtimeRequest request) {
         logger.info("[ShowtimeController] INFO - Request to create a new showtime");
 
-        // Check if the movie exists
-        if (!movieRepository.existsById(request.getMovieId())) {
-            logger.warn("Movie with id={} not found", request.getMovieId());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("No movie found with id=" + request.getMovieId());
-        }
-
-        // Check if endTime > startTime
-        if (!request.getEndTime().isAfter(request.getStartTime())) {
-            logger.warn("endTime must be after startTime");
-            return ResponseEntity.badRequest().body("endTime must be after startTime");
-        }
-
-        // Check overlap with existing showtimes in the same theater
-        boolean overlap = !showtimeRepository.findOverlappingShowtimes(
-                request.getTheater(),
-                request.getStartTime(),
-                request.getEndTime(),
-                0L // ignoreId=0 for create
-        ).isEmpty();
-
-        if (overlap) {
-            logger.warn("Overlapping showtime in theater '{}'", request.getTheater());
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body("Another showtime overlaps in theater '" + request.getTheater() + "'.");
-        }
-
-        // Save to DB
-        Showtime showtime = mapRequestToEntity(request, null); // no existing ID yet
-        Showtime saved = showtimeRepository.save(showtime);
-
-        String msg = "Successfully created showtime with id: " + saved.getId();
-        logger.info("[ShowtimeController] INFO - " + msg);
-        return ResponseEntity.ok(msg);
+        return switch (showtimeService.create(request)) {
+            case ScheduleOutcome.Scheduled scheduled -> {
+                String msg = "Successfully created showtime with id: " + scheduled.showtimeId();
+                logger.info("[ShowtimeController] INFO - {}", msg);
+                yield ResponseEntity.ok(msg);
+            }
+            case ScheduleOutcome.Overlap overlap -> {
+                logger.warn("Overlapping showtime in theater '{}'", overlap.theater());
+                yield ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Another showtime overlaps in theater '" + overlap.theater() + "'.");
+            }
+            case ScheduleOutcome.Rejected rejected -> rejected(rejected);
+            case ScheduleOutcome.ShowtimeNotFound notFound ->
+                throw new IllegalStateException("Creating a showtime returned " + notFound);
+        };
     }
 
     /**
@@ -79,16 +69,16 @@ public class ShowtimeController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> getShowtime(@PathVariable Long id) {
-        logger.info("[ShowtimeController] INFO - Fetching showtime id={}", id);
+        logger.info(LogSampling.SAMPLED, "[ShowtimeController] INFO - Fetching showtime id={}", id);
 
         Optional<Showtime> found = showtimeRepository.findById(id);
         if (found.isEmpty()) {
             String msg = "Showtime with ID " + id + " not found.";
-            logger.warn("[ShowtimeController] WARN - " + msg);
+            logger.warn("[ShowtimeController] WARN - {}", msg);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(msg);
         }
 
-        logger.info("[ShowtimeController] SUCCESS - Found showtime id={}", id);
+        logger.info(LogSampling.SAMPLED, "[ShowtimeController] SUCCESS - Found showtime id={}", id);
         return ResponseEntity.ok(found.get());
     }
 
@@ -100,48 +90,24 @@ public class ShowtimeController {
     public ResponseEntity<String> updateShowtime(@PathVariable Long id, @Valid @RequestBody ShowtimeRequest request) {
         logger.info("[ShowtimeController] INFO - Request to update showtime id={}", id);
 
-        // Find existing
-        Optional<Showtime> existingOpt = showtimeRepository.findById(id);
-        if (existingOpt.isEmpty()) {
-            String msg = "Showtime with ID " + id + " not found. Update aborted.";
-            logger.warn("[ShowtimeController] WARN - " + msg);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(msg);
-        }
-
-        // Validate movie existence
-        if (!movieRepository.existsById(request.getMovieId())) {
-            logger.warn("Movie with id={} not found", request.getMovieId());
-            return ResponseEntity.badRequest().body("No movie found with id=" + request.getMovieId());
-        }
-
-        // Validate time range
-        if (!request.getEndTime().isAfter(request.getStartTime())) {
-            logger.warn("endTime must be after startTime");
-            return ResponseEntity.badRequest().body("endTime must be after startTime");
-        }
-
-        // Check overlap (exclude itself)
-        boolean overlap = !showtimeRepository.findOverlappingShowtimes(
-                request.getTheater(),
-                request.getStartTime(),
-                request.getEndTime(),
-                id).isEmpty();
-
-        if (overlap) {
-            logger.warn("Overlapping showtime in theater '{}'", request.getTheater());
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body("Overlapping showtime in theater '" + request.getTheater() + "'.");
-        }
-
-        // 5) Update & save
-        Showtime existing = existingOpt.get();
-        Showtime updatedEntity = mapRequestToEntity(request, existing.getId());
-
-        showtimeRepository.save(updatedEntity);
-
-        String msg = "Showtime id=" + id + " updated successfully.";
-        logger.info("[ShowtimeController] SUCCESS - " + msg);
-        return ResponseEntity.ok(msg);
+        return switch (showtimeService.update(id, request)) {
+            case ScheduleOutcome.Scheduled scheduled -> {
+                String msg = "Showtime id=" + id + " updated successfully.";
+                logger.info("[ShowtimeController] SUCCESS - {}", msg);
+                yield ResponseEntity.ok(msg);
+            }
+            case ScheduleOutcome.ShowtimeNotFound notFound -> {
+                String msg = "Showtime with ID " + id + " not found. Update aborted.";
+                logger.warn("[ShowtimeController] WARN - {}", msg);
+                yield ResponseEntity.status(HttpStatus.NOT_FOUND).body(msg);
+            }
+            case ScheduleOutcome.Overlap overlap -> {
+                logger.warn("Overlapping showtime in theater '{}'", overlap.theater());
+                yield ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Overlapping showtime in theater '" + overlap.theater() + "'.");
+            }
+            case ScheduleOutcome.Rejected rejected -> rejected(rejected);
+        };
     }
 
     /**
@@ -152,35 +118,60 @@ public class ShowtimeController {
     public ResponseEntity<String> deleteShowtime(@PathVariable Long id) {
         logger.info("[ShowtimeController] INFO - Deleting showtime id={}", id);
 
-        // Check if showtime exists
-        if (!showtimeRepository.existsById(id)) {
+        // Cancels its bookings too
+        if (!showtimeService.delete(id)) {
             String msg = "Showtime with ID " + id + " not found. Nothing to delete.";
-            logger.warn("[ShowtimeController] WARN - " + msg);
+            logger.warn("[ShowtimeController] WARN - {}", msg);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(msg);
         }
 
-        // Perform the delete
-        showtimeRepository.deleteById(id);
         String msg = "Showtime id=" + id + " was deleted successfully.";
-        logger.info("[ShowtimeController] SUCCESS - " + msg);
+        logger.info("[ShowtimeController] SUCCESS - {}", msg);
         return ResponseEntity.ok(msg);
     }
 
     /**
-     * Helper to map ShowtimeRequest -> Showtime entity.
-     * If existingId is null, we create new. If not, we set the ID for update.
+     * Endpoint: POST /showtimes/{id}/best-available?count=4&userId=...
+     * Book the best free block of count adjacent seats (one row, no aisle in
+     * between) for the user, all or nothing.
      */
-    private Showtime mapRequestToEntity(ShowtimeRequest req, Long existingId) {
-        Showtime s = new Showtime();
-        if (existingId != null) {
-            s.setId(existingId);
-        }
-        s.setMovieId(req.getMovieId());
-        s.setTheater(req.getTheater());
-        s.setStartTime(req.getStartTime());
-        s.setEndTime(req.getEndTime());
-        s.setPrice(req.getPrice() == null ? BigDecimal.ZERO : req.getPrice());
+    @PostMapping("/{id}/best-available")
+    public ResponseEntity<?> bookBestAvailable(@PathVariable Long id, @RequestParam int count,
+            @RequestParam String userId) {
+        logger.info(LogSampling.SAMPLED, "[ShowtimeController] INFO - Best {} seats for showtime id={}", count, id);
+
+        return switch (seatingService.bookBestAvailable(id, count, userId)) {
+            case BestAvailableOutcome.Booked booked -> {
+                logger.info(LogSampling.SAMPLED, "[ShowtimeController] SUCCESS - Booked seats {} of showtime id={}",
+                        booked.block().seatNumbers(), id);
+                yield ResponseEntity.ok(booked.block());
+            }
+            case BestAvailableOutcome.NoBlockAvailable none -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("No " + none.count() + " adjacent seats are free for showtime " + none.showtimeId());
+            case BestAvailableOutcome.ShowtimeNotFound notFound -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Showtime with ID " + notFound.showtimeId() + " not found.");
+            case BestAvailableOutcome.NoSeatLayout noLayout ->
+                ResponseEntity.badRequest().body("Theater '" + noLayout.theater() + "' has no seat layout");
+            case BestAvailableOutcome.InvalidCount invalid ->
+                ResponseEntity.badRequest().body("count must be between 1 and " + SeatLayout.MAX_BLOCK);
+            case BestAvailableOutcome.InvalidUserId invalid ->
+                ResponseEntity.badRequest().body("Invalid userId: must be a valid UUID");
+        };
+    }
 
-        return s;
+    /**
+     * Responses for the rejections that create and update share.
+     */
+    private static ResponseEntity<String> rejected(ScheduleOutcome.Rejected outcome) {
+        return switch (outcome) {
+            case ScheduleOutcome.MovieNotFound notFound -> {
+                logger.warn("Movie with id={} not found", notFound.movieId());
+                yield ResponseEntity.badRequest().body("No movie found with id=" + notFound.movieId());
+            }
+            case ScheduleOutcome.InvalidTimeRange invalid -> {
+                logger.warn("endTime must be after startTime");
+                yield ResponseEntity.badRequest().body("endTime must be after startTime");
+            }
+        };
     }
 }
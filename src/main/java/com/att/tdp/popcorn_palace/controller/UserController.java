@@ -0,0 +1,73 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.model.booking.UserBookingPage;
+import com.att.tdp.popcorn_palace.service.BookingHistoryService;
+import com.att.tdp.popcorn_palace.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * A user's own view of their tickets:
+ * GET /users/{userId}/bookings?limit={n}&cursor={nextCursor}
+ *
+ * Response: 200 OK
+ * {
+ * "bookings": [ { "bookingId": "...", "bookingTime": "...", "seatNumber": 15,
+ *                 "showtimeId": 1, "theater": "...", "startTime": "...", "endTime": "...",
+ *                 "price": 12.50, "movieId": 1, "movieTitle": "..." } ],
+ * "nextCursor": "..." (null on the last page)
+ * }
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/users")
+public class UserController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+
+    @Autowired
+    private BookingHistoryService historyService;
+
+    /**
+     * Endpoint: GET /users/{userId}/bookings
+     *
+     * The user's bookings, newest first, with showtime and movie details.
+     * Pass the previous page's nextCursor to get the next page.
+     *
+     * @param limit Page size, 1 to 100 (default 20).
+     * @return 200 OK with the page, or 400 for a malformed userId, limit or cursor.
+     */
+    @GetMapping("/{userId}/bookings")
+    public ResponseEntity<?> getBookings(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        UUID user = BookingService.parseUuid(userId);
+        if (user == null) {
+            return ResponseEntity.badRequest().body("Invalid userId: must be a valid UUID");
+        }
+        if (limit < 1 || limit > BookingHistoryService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body("limit must be between 1 and " + BookingHistoryService.MAX_PAGE_SIZE);
+        }
+        BookingHistoryService.Cursor after = null;
+        if (cursor != null) {
+            after = BookingHistoryService.decodeCursor(cursor);
+            if (after == null) {
+                return ResponseEntity.badRequest().body("Invalid cursor: pass nextCursor from the previous page");
+            }
+        }
+
+        UserBookingPage page = historyService.history(user, after, limit);
+        logger.info(LogSampling.SAMPLED, "[UserController] INFO - Returning {} bookings of user {}.",
+                page.bookings().size(), user);
+        return ResponseEntity.ok(page);
+    }
+}
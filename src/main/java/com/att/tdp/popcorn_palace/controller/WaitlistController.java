@@ -0,0 +1,91 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.model.waitlist.WaitlistOutcome;
+import com.att.tdp.popcorn_palace.service.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Waitlists for sold-out showtimes. A released seat is held for the first
+ * user in line for popcorn.waitlist.offer-ttl:
+ * POST /showtimes/{showtimeId}/waitlist?userId=... -> Join, 200 with the number of users ahead
+ * DELETE /showtimes/{showtimeId}/waitlist?userId=... -> Leave
+ * GET /showtimes/{showtimeId}/waitlist?userId=... -> WAITING, or OFFERED with the seat
+ * POST /showtimes/{showtimeId}/waitlist/accept?userId=... -> Book the offered seat
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/showtimes/{showtimeId}/waitlist")
+public class WaitlistController {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistController.class);
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<?> join(@PathVariable long showtimeId, @RequestParam String userId) {
+        logger.info(LogSampling.SAMPLED, "[WaitlistController] INFO - User {} joins the waitlist of showtime id={}",
+                userId, showtimeId);
+        return respond(waitlistService.join(showtimeId, userId));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> leave(@PathVariable long showtimeId, @RequestParam String userId) {
+        logger.info("[WaitlistController] INFO - User {} leaves the waitlist of showtime id={}", userId, showtimeId);
+        return respond(waitlistService.leave(showtimeId, userId));
+    }
+
+    @GetMapping
+    public ResponseEntity<?> lookup(@PathVariable long showtimeId, @RequestParam String userId) {
+        return respond(waitlistService.lookup(showtimeId, userId));
+    }
+
+    /**
+     * Response: 200 OK "Booking confirmed! Your booking ID is: ...",
+     * 404 if the user has no offer (or it expired), 409 if the seat was
+     * booked elsewhere meanwhile (the user stays first in line).
+     */
+    @PostMapping("/accept")
+    public ResponseEntity<?> accept(@PathVariable long showtimeId, @RequestParam String userId) {
+        logger.info("[WaitlistController] INFO - User {} accepts the offer for showtime id={}", userId, showtimeId);
+        return respond(waitlistService.accept(showtimeId, userId));
+    }
+
+    private static ResponseEntity<?> respond(WaitlistOutcome outcome) {
+        return switch (outcome) {
+            case WaitlistOutcome.Joined joined ->
+                ResponseEntity.ok(Map.of("status", "WAITING", "ahead", joined.ahead()));
+            case WaitlistOutcome.Waiting waiting -> ResponseEntity.ok(Map.of("status", "WAITING"));
+            case WaitlistOutcome.Offered offered -> ResponseEntity.ok(Map.of("status", "OFFERED",
+                    "seatNumber", offered.seatNumber(), "expiresAt", offered.expiresAt()));
+            case WaitlistOutcome.Left left ->
+                ResponseEntity.ok("Left the waitlist of showtime " + left.showtimeId());
+            case WaitlistOutcome.Accepted accepted -> {
+                logger.info("[WaitlistController] SUCCESS - Waitlist booking {} for seat {}",
+                        accepted.bookingId(), accepted.seatNumber());
+                yield ResponseEntity.ok("Booking confirmed! Your booking ID is: " + accepted.bookingId());
+            }
+            case WaitlistOutcome.AlreadyWaiting already -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Already on the waitlist of showtime " + already.showtimeId());
+            case WaitlistOutcome.OfferLost lost -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Seat " + lost.seatNumber() + " was booked meanwhile, you are first in line again");
+            case WaitlistOutcome.NotWaiting notWaiting -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Not on the waitlist of showtime " + notWaiting.showtimeId());
+            case WaitlistOutcome.NoOffer noOffer -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No seat is offered to you for showtime " + noOffer.showtimeId());
+            case WaitlistOutcome.ShowtimeNotFound notFound -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Showtime with ID " + notFound.showtimeId() + " not found.");
+            case WaitlistOutcome.InvalidUserId invalid ->
+                ResponseEntity.badRequest().body("Invalid userId: must be a valid UUID");
+        };
+    }
+}
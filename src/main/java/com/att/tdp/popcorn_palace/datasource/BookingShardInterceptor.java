@@ -0,0 +1,177 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Routes every BookingRepository call to a shard.
+ *
+ * The shard comes from the call itself: a Booking argument (or a batch of
+ * them, which must all be on the same shard) or a parameter named
+ * showtimeId. Calls that carry no showtime (findByUserId, findAll, count,
+ * deleteAll, ...) run on every shard in parallel and the results are merged.
+ *
+ * Installed as the outermost advice of the repository proxy, so the shard is
+ * chosen before the repository's own transaction starts. A call that joins
+ * a transaction that already ran a statement stays on that transaction's
+ * connection, so booking calls must not share a transaction with other tables.
+ */
+public class BookingShardInterceptor implements MethodInterceptor {
+
+    private static final String SHOWTIME_ID = "showtimeId";
+    private static final int NO_SHOWTIME_PARAMETER = -1;
+
+    private final ShardMap shardMap;
+    private final ExecutorService fanOutExecutor;
+    private final Map<Method, Integer> showtimeParameters = new ConcurrentHashMap<>();
+
+    public BookingShardInterceptor(ShardMap shardMap, ExecutorService fanOutExecutor) {
+        this.shardMap = shardMap;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ShardContext.current() != null || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Integer shard = resolveShard(invocation.getMethod(), invocation.getArguments());
+        if (shard != null) {
+            ShardContext.set(shard);
+            try {
+                return invocation.proceed();
+            } finally {
+                ShardContext.clear();
+            }
+        }
+        return fanOut((ProxyMethodInvocation) invocation);
+    }
+
+    private Integer resolveShard(Method method, Object[] arguments) {
+        int showtimeParameter = showtimeParameters.computeIfAbsent(method, BookingShardInterceptor::showtimeParameter);
+        if (showtimeParameter != NO_SHOWTIME_PARAMETER && arguments[showtimeParameter] instanceof Long showtimeId) {
+            return shardMap.shardFor(showtimeId);
+        }
+        Integer shard = null;
+        for (Object argument : arguments) {
+            if (argument instanceof Booking booking) {
+                shard = sameShard(shard, booking);
+            } else if (argument instanceof Iterable<?> iterable) {
+                for (Object element : iterable) {
+                    if (element instanceof Booking booking) {
+                        shard = sameShard(shard, booking);
+                    }
+                }
+            }
+        }
+        return shard;
+    }
+
+    private Integer sameShard(Integer shard, Booking booking) {
+        if (booking.getShowtimeId() == null) {
+            throw new IllegalArgumentException("Booking has no showtimeId, cannot choose a shard");
+        }
+        int bookingShard = shardMap.shardFor(booking.getShowtimeId());
+        if (shard != null && shard != bookingShard) {
+            throw new IllegalArgumentException("Bookings of showtimes on different shards cannot be saved together");
+        }
+        return bookingShard;
+    }
+
+    private static int showtimeParameter(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (SHOWTIME_ID.equals(parameters[i].getName())) {
+                return i;
+            }
+        }
+        return NO_SHOWTIME_PARAMETER;
+    }
+
+    private Object fanOut(ProxyMethodInvocation invocation) throws Throwable {
+        Class<?> returnType = invocation.getMethod().getReturnType();
+        if (!isMergeable(returnType)) {
+            throw new UnsupportedOperationException("BookingRepository." + invocation.getMethod().getName()
+                    + " spans all shards but its result (" + returnType.getSimpleName() + ") cannot be merged");
+        }
+
+        List<Future<Object>> results = new ArrayList<>(shardMap.shardCount());
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            int target = shard;
+            // Each clone may proceed once, on its own thread and transaction
+            MethodInvocation branch = invocation.invocableClone();
+            results.add(fanOutExecutor.submit(() -> {
+                ShardContext.set(target);
+                try {
+                    return branch.proceed();
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                } finally {
+                    ShardContext.clear();
+                }
+            }));
+        }
+
+        List<Object> perShard = new ArrayList<>(results.size());
+        try {
+            for (Future<Object> result : results) {
+                perShard.add(result.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            results.forEach(result -> result.cancel(true));
+        }
+        return merge(returnType, perShard);
+    }
+
+    private static boolean isMergeable(Class<?> type) {
+        return type == void.class || type == boolean.class || type == Boolean.class
+                || type == long.class || type == Long.class || type == Optional.class
+                || type == Booking.class || List.class.isAssignableFrom(type) || type == Iterable.class
+                || type == Collection.class;
+    }
+
+    private static Object merge(Class<?> type, List<Object> perShard) {
+        if (type == void.class) {
+            return null;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return perShard.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (type == long.class || type == Long.class) {
+            return perShard.stream().mapToLong(count -> (Long) count).sum();
+        }
+        if (type == Optional.class) {
+            return perShard.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (type == Booking.class) {
+            return perShard.stream().filter(result -> result != null).findFirst().orElse(null);
+        }
+        List<Object> merged = new ArrayList<>();
+        for (Object result : perShard) {
+            ((Iterable<?>) result).forEach(merged::add);
+        }
+        return merged;
+    }
+}
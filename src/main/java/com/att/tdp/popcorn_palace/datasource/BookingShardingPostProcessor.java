@@ -0,0 +1,115 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wires booking sharding into the context:
+ * - the main DataSource is wrapped in a {@link ShardRoutingDataSource} that
+ *   also knows the shard pools (before the metrics proxy wraps it, so shard
+ *   statements are counted too);
+ * - the BookingRepository proxy gets a {@link BookingShardInterceptor} as its
+ *   outermost advice.
+ */
+public class BookingShardingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingShardingPostProcessor.class);
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final Map<Object, Object> shards = new HashMap<>();
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ShardMap shardMap;
+    private final BookingShardInterceptor interceptor;
+
+    public BookingShardingPostProcessor(ShardProperties shardProperties) {
+        List<ShardProperties.Shard> configs = shardProperties.getShards();
+        for (int i = 0; i < configs.size(); i++) {
+            ShardProperties.Shard config = configs.get(i);
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(config.getUrl())
+                    .username(config.getUsername())
+                    .password(config.getPassword())
+                    .build();
+            shard.setPoolName("shard-" + i);
+            pools.add(shard);
+            shards.put(i, shard);
+
+            if (shardProperties.isInitializeSchema()) {
+                new ResourceDatabasePopulator(new ClassPathResource("shard-schema.sql")).execute(shard);
+            }
+        }
+        this.shardMap = new ShardMap(configs.size());
+        this.interceptor = new BookingShardInterceptor(shardMap, fanOutExecutor);
+        logger.info("[BookingShardingPostProcessor] INFO - Sharding bookings across {} shard(s).", configs.size());
+    }
+
+    public ShardMap shardMap() {
+        return shardMap;
+    }
+
+    /**
+     * Register the hikaricp_* metrics of the shard pools, which Boot does not
+     * see. Called once the registry exists, as this post-processor is created
+     * before it.
+     */
+    public void bindPoolMetrics(MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        pools.forEach(pool -> pool.setMetricsTrackerFactory(metricsTrackerFactory));
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // The repository proxy is built in afterPropertiesSet, so customize the factory before that
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                && factoryBean.getObjectType() == BookingRepository.class) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, interceptor)));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy proxy
+                && proxy.getTargetDataSource() instanceof ShardRoutingDataSource)) {
+            ShardRoutingDataSource routing = new ShardRoutingDataSource();
+            routing.setTargetDataSources(shards);
+            routing.setDefaultTargetDataSource(dataSource);
+            routing.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routing);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void destroy() {
+        fanOutExecutor.shutdownNow();
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,39 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs several booking statements in one transaction on the showtime's
+ * shard (or the main database when bookings are not sharded).
+ *
+ * A transaction's connection is taken before its first statement, so the
+ * shard has to be picked up front; {@link BookingShardInterceptor} leaves a
+ * shard that is already set alone.
+ */
+@Component
+public class BookingTransactions {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<ShardMap> shardMap;
+
+    public <T> T execute(long showtimeId, TransactionCallback<T> action) {
+        ShardMap shards = shardMap.getIfAvailable();
+        if (shards == null) {
+            return new TransactionTemplate(transactionManager).execute(action);
+        }
+        ShardContext.set(shards.shardFor(showtimeId));
+        try {
+            return new TransactionTemplate(transactionManager).execute(action);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+}
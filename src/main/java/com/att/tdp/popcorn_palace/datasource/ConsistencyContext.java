@@ -0,0 +1,45 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-request flag that pins all reads to the primary: set for write requests
+ * (read-your-own-writes within the request) and for clients presenting a
+ * fresh consistency token. Background work that must not read stale rows
+ * uses {@link #onPrimary}.
+ */
+public final class ConsistencyContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ConsistencyContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Run {@code reads} with reads pinned to the primary, keeping the flag
+     * as it was afterwards (it may run inside a request that set it).
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (isPrimaryRequired()) {
+            return reads.get();
+        }
+        requirePrimary();
+        try {
+            return reads.get();
+        } finally {
+            clear();
+        }
+    }
+}
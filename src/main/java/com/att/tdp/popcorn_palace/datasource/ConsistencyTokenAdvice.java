@@ -0,0 +1,37 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Issues an X-Consistency-Token on responses to write requests.
+ *
+ * The body is written after the controller (and its transactions) finished,
+ * so the token (a millisecond timestamp) marks the moment the write was
+ * committed on the primary. Clients send it back on later reads.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "popcorn.datasource", name = "replicas[0].url")
+public class ConsistencyTokenAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (ConsistencyTokenFilter.isWrite(request.getMethod().name())) {
+            response.getHeaders().set(ConsistencyTokenFilter.HEADER, String.valueOf(System.currentTimeMillis()));
+        }
+        return body;
+    }
+}
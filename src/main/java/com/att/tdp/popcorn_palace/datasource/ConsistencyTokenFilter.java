@@ -0,0 +1,65 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Decides per request whether reads may go to a replica.
+ *
+ * Write requests (anything but GET/HEAD/OPTIONS) read from the primary, so
+ * they see their own writes. Other requests read from the primary while their
+ * X-Consistency-Token (issued by {@link ConsistencyTokenAdvice} on a previous
+ * write) is younger than popcorn.datasource.replica-lag. A token from further
+ * in the future than the clock skew between instances is not fresh, or it
+ * would pin its client to the primary until that time.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn.datasource", name = "replicas[0].url")
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    static final long MAX_CLOCK_SKEW_MILLIS = 1000;
+
+    @Autowired
+    private ReplicaProperties replicaProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isWrite(request.getMethod()) || isFresh(request.getHeader(HEADER))) {
+            ConsistencyContext.requirePrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ConsistencyContext.clear();
+        }
+    }
+
+    static boolean isWrite(String method) {
+        return !(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                || HttpMethod.OPTIONS.matches(method));
+    }
+
+    private boolean isFresh(String token) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        try {
+            long age = System.currentTimeMillis() - Long.parseLong(token.strip());
+            return age >= -MAX_CLOCK_SKEW_MILLIS && age < replicaProperties.getReplicaLag().toMillis();
+        } catch (NumberFormatException e) {
+            return false; // Unknown token, replicas are fine
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * popcorn.datasource.* settings for read replicas.
+ *
+ * Routing is only enabled when at least one replica is configured.
+ */
+@ConfigurationProperties(prefix = "popcorn.datasource")
+public class ReplicaProperties {
+
+    /**
+     * Read replicas, used round-robin for read-only transactions.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How long after a write a client's reads stay on the primary (should
+     * exceed the worst expected replication lag).
+     */
+    private Duration replicaLag = Duration.ofSeconds(2);
+
+    /**
+     * Run schema.sql/data.sql on the replicas too. Only for local/test
+     * replicas that are not fed by real replication.
+     */
+    private boolean initializeReplicas = false;
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+
+    public Duration getReplicaLag() { return replicaLag; }
+    public void setReplicaLag(Duration replicaLag) { this.replicaLag = replicaLag; }
+
+    public boolean isInitializeReplicas() { return initializeReplicas; }
+    public void setInitializeReplicas(boolean initializeReplicas) { this.initializeReplicas = initializeReplicas; }
+}
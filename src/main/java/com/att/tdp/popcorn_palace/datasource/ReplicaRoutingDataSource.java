@@ -0,0 +1,40 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas (round-robin) and everything
+ * else to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for a connection before the read-only flag is bound, so the choice has
+ * to wait until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final String[] replicaKeys;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(String[] replicaKeys) {
+        this.replicaKeys = replicaKeys;
+    }
+
+    static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.length == 0
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ConsistencyContext.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        return replicaKeys[Math.floorMod(next.getAndIncrement(), replicaKeys.length)];
+    }
+}
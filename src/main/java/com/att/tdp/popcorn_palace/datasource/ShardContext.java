@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+/**
+ * The booking shard the current thread's repository call runs against, set
+ * by {@link BookingShardInterceptor} around each BookingRepository call.
+ * Nothing set means the main DataSource.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static void set(int shard) {
+        SHARD.set(shard);
+    }
+
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    public static void clear() {
+        SHARD.remove();
+    }
+}
@@ -0,0 +1,38 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+/**
+ * Maps a showtime to its booking shard, so all seats of a showtime live on
+ * one shard and the seat check plus insert stay single-shard.
+ *
+ * Showtime IDs come from a pooled sequence (blocks of 50), so they are mixed
+ * before taking the modulus; plain id % n would put whole blocks on one shard.
+ */
+public class ShardMap {
+
+    private final int shardCount;
+
+    public ShardMap(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(long showtimeId) {
+        return Math.floorMod(mix(showtimeId), shardCount);
+    }
+
+    // MurmurHash3 fmix64: stable across JVMs, unlike Object.hashCode()
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,50 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * popcorn.sharding.* settings: the shard map for the bookings table.
+ *
+ * A shard's number is its position in the list, and a showtime's bookings
+ * live on shard hash(showtimeId) mod shards.size(). Reordering, adding or
+ * removing shards moves showtimes between shards, so it needs a data
+ * migration. Sharding is only enabled when at least one shard is configured.
+ */
+@ConfigurationProperties(prefix = "popcorn.sharding")
+public class ShardProperties {
+
+    /**
+     * Booking shards, in shard-number order.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Create the bookings table (shard-schema.sql) on every shard at startup.
+     * The script only creates what is missing.
+     */
+    private boolean initializeSchema = true;
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+
+    public boolean isInitializeSchema() { return initializeSchema; }
+    public void setInitializeSchema(boolean initializeSchema) { this.initializeSchema = initializeSchema; }
+}
@@ -0,0 +1,18 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Sends connections to the shard in {@link ShardContext}, or to the default
+ * target (the main DataSource, possibly itself replica-routed) when none is set.
+ *
+ * Sits behind a LazyConnectionDataSourceProxy like {@link ReplicaRoutingDataSource},
+ * so the choice is made at the first statement.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,41 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Shards the bookings table by showtime when popcorn.sharding.shards is set.
+ *
+ * Everything else (movies, showtimes, and replica routing for them) keeps
+ * using the main DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "popcorn.sharding", name = "shards[0].url")
+public class ShardingConfig {
+
+    // Static and bound by hand: post-processors are created before
+    // @ConfigurationProperties beans can be injected
+    @Bean
+    static BookingShardingPostProcessor bookingShardingPostProcessor(Environment environment) {
+        ShardProperties shardProperties = Binder.get(environment)
+                .bind("popcorn.sharding", ShardProperties.class)
+                .get();
+        return new BookingShardingPostProcessor(shardProperties);
+    }
+
+    // The shard pools are not beans, so Boot's pool metrics do not cover them
+    @Bean
+    MeterBinder bookingShardPoolMetrics(BookingShardingPostProcessor bookingShardingPostProcessor) {
+        return bookingShardingPostProcessor::bindPoolMetrics;
+    }
+
+    // For code that reads bookings shard by shard itself, e.g. the booking export
+    @Bean
+    ShardMap bookingShardMap(BookingShardingPostProcessor bookingShardingPostProcessor) {
+        return bookingShardingPostProcessor.shardMap();
+    }
+}
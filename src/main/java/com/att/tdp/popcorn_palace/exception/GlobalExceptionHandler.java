@@ -17,6 +17,9 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final String TITLE_CONSTRAINT = "uq_movies_title";
+    private static final String RATING_CONSTRAINT = "movies_rating_check";
+
     /**
      * Handles Bean Validation (@Valid) errors before hitting DB
      */
@@ -34,18 +37,33 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Handles DB-level violations (like CHECK constraint failures)
+     * Handles DB-level violations (like CHECK constraint failures), by SQLState
+     * and, when the driver reports it, the constraint name.
      */
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<String> handleDataIntegrityErrors(DataIntegrityViolationException ex) {
-        String message = ex.getMostSpecificCause().getMessage();
+        String sqlState = SqlStates.sqlState(ex);
+        String constraint = SqlStates.constraintName(ex);
+
+        // Two concurrent creates/renames can both pass the in-memory title check.
+        // Seats never get here: bookings are inserted with ON CONFLICT DO NOTHING
+        if (SqlStates.UNIQUE_VIOLATION.equals(sqlState)) {
+            logger.warn("[GlobalExceptionHandler] Unique constraint violation - {}", constraint);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(TITLE_CONSTRAINT.equals(constraint)
+                    ? "Another movie already has this title. Please pick a unique title."
+                    : "Another record already has these values. Please pick unique values.");
+        }
 
-        // Optional: parse common cases into friendly responses
-        if (message != null && message.contains("movies_rating_check")) {
+        String message;
+        if (SqlStates.CHECK_VIOLATION.equals(sqlState) && RATING_CONSTRAINT.equals(constraint)) {
             message = "Rating must be 10.0 or less (violated DB constraint)";
+        } else if (constraint != null) {
+            message = constraint;
+        } else {
+            message = ex.getMostSpecificCause().getMessage();
         }
 
-        logger.error("[GlobalExceptionHandler] DB constraint violation - {}", message);
+        logger.error("[GlobalExceptionHandler] DB constraint violation ({}) - {}", sqlState, message);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Database constraint violated: " + message);
     }
 }
@@ -0,0 +1,51 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import io.r2dbc.spi.R2dbcException;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * SQLState codes of integrity constraint violations, and how to read the
+ * code and constraint name from an exception chain (JPA, JDBC or R2DBC)
+ * without parsing driver messages.
+ */
+public final class SqlStates {
+
+    public static final String NOT_NULL_VIOLATION = "23502";
+    public static final String FOREIGN_KEY_VIOLATION = "23503";
+    public static final String UNIQUE_VIOLATION = "23505";
+    public static final String CHECK_VIOLATION = "23514";
+
+    private SqlStates() {
+    }
+
+    /**
+     * The first SQLState found in the cause chain, or null.
+     */
+    public static String sqlState(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                return sql.getSQLState();
+            }
+            if (cause instanceof R2dbcException r2dbc && r2dbc.getSqlState() != null) {
+                return r2dbc.getSqlState();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The violated constraint as reported by Hibernate, lower case, or null
+     * when the dialect could not tell (e.g. for batched statements).
+     */
+    public static String constraintName(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.att.tdp.popcorn_palace.index;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive ints, used for posting lists so the
+ * search index never boxes document or term IDs.
+ */
+final class IntList {
+
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(4);
+    }
+
+    IntList(int initialCapacity) {
+        values = new int[Math.max(1, initialCapacity)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Direct access to the backing array, valid up to {@link #size()}.
+     */
+    int[] array() {
+        return values;
+    }
+}
@@ -0,0 +1,34 @@
+package com.att.tdp.popcorn_palace.index;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that keeps the in-memory movie indexes in sync with
+ * every insert, update and delete of a {@link Movie}.
+ *
+ * Changes are applied immediately (so reads later in the same transaction see
+ * them) and undone if the transaction rolls back. Bulk JPQL statements bypass
+ * entity callbacks and must update the indexes themselves.
+ */
+public class MovieIndexListener {
+
+    // Not every context has the indexes (e.g. @DataJpaTest slices)
+    @Autowired
+    private ObjectProvider<MovieIndexes> indexes;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Movie movie) {
+        indexes.ifAvailable(i -> i.saved(movie.getId(), movie.getTitle(), movie.getGenre()));
+    }
+
+    @PostRemove
+    public void onRemoved(Movie movie) {
+        indexes.ifAvailable(i -> i.removed(movie.getId()));
+    }
+}
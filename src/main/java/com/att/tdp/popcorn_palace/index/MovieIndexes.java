@@ -0,0 +1,129 @@
+package com.att.tdp.popcorn_palace.index;
+
+import com.att.tdp.popcorn_palace.cache.Invalidation;
+import com.att.tdp.popcorn_palace.cache.InvalidationBus;
+import com.att.tdp.popcorn_palace.cache.InvalidationListener;
+import com.att.tdp.popcorn_palace.datasource.ConsistencyContext;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single entry point for applying movie writes to every in-memory movie
+ * index (title and search).
+ *
+ * Changes apply immediately and are undone if the surrounding transaction
+ * rolls back. JPA writes reach this through {@link MovieIndexListener};
+ * plain JDBC writes (bulk import) call it directly.
+ *
+ * Each change is also published on the {@link InvalidationBus}. The other
+ * nodes then re-read that movie from the primary into their indexes; a
+ * lagging replica would put the old row back.
+ */
+@Component
+public class MovieIndexes implements InvalidationListener {
+
+    static final String CACHE = "movies";
+
+    @Autowired
+    private MovieTitleIndex titleIndex;
+
+    @Autowired
+    private MovieSearchIndex searchIndex;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(CACHE, this);
+    }
+
+    /**
+     * A movie was inserted or updated.
+     */
+    public void saved(long id, String title, String genre) {
+        String previousTitle = titleIndex.put(id, title);
+        String[] previousDoc = searchIndex.put(id, title, genre);
+        invalidationBus.publish(CACHE, Long.toString(id));
+
+        TransactionUndoLog.onRollback(() -> {
+            if (previousTitle == null) {
+                titleIndex.remove(id);
+            } else {
+                titleIndex.put(id, previousTitle);
+            }
+            if (previousDoc == null) {
+                searchIndex.remove(id);
+            } else {
+                searchIndex.put(id, previousDoc[0], previousDoc[1]);
+            }
+        });
+    }
+
+    /**
+     * A movie was deleted.
+     */
+    public void removed(long id) {
+        String previousTitle = titleIndex.remove(id);
+        String[] previousDoc = searchIndex.remove(id);
+        invalidationBus.publish(CACHE, Long.toString(id));
+
+        TransactionUndoLog.onRollback(() -> {
+            if (previousTitle != null) {
+                titleIndex.put(id, previousTitle);
+            }
+            if (previousDoc != null) {
+                searchIndex.put(id, previousDoc[0], previousDoc[1]);
+            }
+        });
+    }
+
+    /**
+     * Another node changed the movie: index it as it is in the DB now.
+     */
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        if (invalidation.origin().equals(invalidationBus.nodeId())) {
+            return; // Applied when it was made
+        }
+        long id = Long.parseLong(invalidation.key());
+        ConsistencyContext.onPrimary(() -> movieRepository.findById(id)).ifPresentOrElse(
+                movie -> {
+                    titleIndex.put(id, movie.getTitle());
+                    searchIndex.put(id, movie.getTitle(), movie.getGenre());
+                },
+                () -> {
+                    titleIndex.remove(id);
+                    searchIndex.remove(id);
+                });
+    }
+
+    /**
+     * Changes of other nodes may have been missed: re-read every movie and
+     * drop the ones that are gone.
+     */
+    @Override
+    public void invalidateAll() {
+        List<MovieRepository.IndexEntry> entries =
+                ConsistencyContext.onPrimary(movieRepository::findAllIndexEntries);
+        Set<Long> gone = new HashSet<>(titleIndex.ids());
+        for (MovieRepository.IndexEntry entry : entries) {
+            gone.remove(entry.getId());
+            titleIndex.put(entry.getId(), entry.getTitle());
+            searchIndex.put(entry.getId(), entry.getTitle(), entry.getGenre());
+        }
+        gone.forEach(id -> {
+            titleIndex.remove(id);
+            searchIndex.remove(id);
+        });
+    }
+}
@@ -0,0 +1,591 @@
+package com.att.tdp.popcorn_palace.index;
+
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index for full-text and fuzzy movie search over title
+ * and genre.
+ *
+ * Every movie is a document with a dense int ID. Each distinct token (term)
+ * has primitive posting lists of document IDs for the title and genre fields,
+ * and every term is indexed by its character trigrams so misspelled query
+ * tokens can be matched against similar terms (verified with a bounded edit
+ * distance). Updates are incremental: a changed movie gets a new document and
+ * the old one is tombstoned; tombstones are compacted away once they
+ * outnumber live documents.
+ *
+ * Reads run concurrently under a read lock; writes are rare and exclusive.
+ */
+@Component
+public class MovieSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieSearchIndex.class);
+
+    static final float TITLE_WEIGHT = 2.0f;
+    static final float GENRE_WEIGHT = 1.0f;
+    static final float EXACT_TITLE_BONUS = 4.0f;
+
+    // Similarity of a matched term to the query token
+    static final float EXACT = 1.0f;
+    static final float ONE_EDIT = 0.75f;
+    static final float PREFIX = 0.7f;
+    static final float TWO_EDITS = 0.5f;
+    private static final float[] SIMILARITY_LEVELS = { EXACT, ONE_EDIT, PREFIX, TWO_EDITS };
+
+    private static final int MAX_QUERY_TOKENS = 8;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final float MIN_TRIGRAM_DICE = 0.3f;
+    static final int COMPACTION_THRESHOLD = 4096;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documents (dense IDs)
+    private long[] docMovieIds = new long[1024];
+    private String[] docTitles = new String[1024];
+    private String[] docGenres = new String[1024];
+    private long[] liveDocs = new long[16];
+    private int docCount;
+    private int liveCount;
+    private final Map<Long, Integer> docsByMovieId = new HashMap<>();
+
+    // Terms and their posting lists
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private String[] terms = new String[1024];
+    private IntList[] titlePostings = new IntList[1024];
+    private IntList[] genrePostings = new IntList[1024];
+    private int termCount;
+    private final Map<String, IntList> termsByTrigram = new HashMap<>();
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    @Autowired(required = false)
+    private MovieRepository movieRepository;
+
+    /**
+     * A ranked search result.
+     */
+    public record Hit(long movieId, float score) {
+    }
+
+    /**
+     * Build the index from the DB once the context has started, before the
+     * instance reports ready.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        if (movieRepository == null) {
+            return;
+        }
+        movieRepository.findAllIndexEntries().forEach(entry -> put(entry.getId(), entry.getTitle(), entry.getGenre()));
+        logger.info("[MovieSearchIndex] INFO - Indexed {} movies, {} distinct terms.", size(), termCount);
+    }
+
+    /**
+     * Index (or re-index) a movie.
+     *
+     * @return The previously indexed {title, genre} of this movie, or null.
+     */
+    public String[] put(long movieId, String title, String genre) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = removeLocked(movieId);
+            addDocument(movieId, title, genre);
+            compactIfSparse(); // Re-indexing tombstones the old document too
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a movie from the index.
+     *
+     * @return The previously indexed {title, genre} of this movie, or null.
+     */
+    public String[] remove(long movieId) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = removeLocked(movieId);
+            compactIfSparse();
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents held, live and tombstoned.
+     */
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search titles and genres.
+     *
+     * Each query token is matched exactly, by prefix (3+ characters) and with
+     * typo tolerance (1 edit for short tokens, 2 for longer ones). A document
+     * scores the best match per token, title matches weigh more than genre
+     * matches, documents matching more of the tokens rank higher and an exact
+     * full-title match ranks first.
+     *
+     * @param query Free text.
+     * @param limit Maximum number of hits.
+     * @return Hits ordered by descending score.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (tokens.size() > MAX_QUERY_TOKENS) {
+            tokens = tokens.subList(0, MAX_QUERY_TOKENS);
+        }
+        String trimmedQuery = query.strip();
+
+        lock.readLock().lock();
+        try {
+            Scratch s = scratch.get();
+            s.ensureCapacity(docCount, termCount);
+
+            for (String token : tokens) {
+                collectCandidates(token, s);
+                for (int i = 0; i < s.candidateCount; i++) {
+                    int term = s.candidateTerms[i];
+                    float similarity = s.candidateScores[i];
+                    scorePostings(titlePostings[term], similarity * TITLE_WEIGHT, s);
+                    scorePostings(genrePostings[term], similarity * GENRE_WEIGHT, s);
+                }
+                // Fold this token's best score per document into the totals
+                for (int i = 0; i < s.tokenTouchedCount; i++) {
+                    int doc = s.tokenTouched[i];
+                    if (s.matchedTokens[doc] == 0) {
+                        s.touched[s.touchedCount++] = doc;
+                    }
+                    s.docScores[doc] += s.tokenScores[doc];
+                    s.matchedTokens[doc]++;
+                    s.tokenScores[doc] = 0f;
+                }
+                s.tokenTouchedCount = 0;
+            }
+
+            return topHits(s, tokens.size(), trimmedQuery, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Query internals
+    // ---------------------------------------------------------------------
+
+    /**
+     * Find the terms similar to a query token, with their similarity.
+     */
+    private void collectCandidates(String token, Scratch s) {
+        s.candidateCount = 0;
+
+        Integer exact = termIds.get(token);
+        if (exact != null) {
+            s.addCandidate(exact, EXACT);
+        }
+        if (token.length() < 3) {
+            return; // Too short for prefix or typo matching to be meaningful
+        }
+
+        // Count shared trigrams per term
+        String padded = pad(token);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            IntList postings = termsByTrigram.get(padded.substring(i, i + 3));
+            if (postings == null) {
+                continue;
+            }
+            int[] termArray = postings.array();
+            for (int j = 0, n = postings.size(); j < n; j++) {
+                int term = termArray[j];
+                if (s.termHits[term]++ == 0) {
+                    s.touchedTerms[s.touchedTermCount++] = term;
+                }
+            }
+        }
+
+        int maxEdits = token.length() <= 4 ? 1 : 2;
+        for (int i = 0; i < s.touchedTermCount; i++) {
+            int term = s.touchedTerms[i];
+            int shared = s.termHits[term];
+            s.termHits[term] = 0;
+            if (exact != null && term == exact) {
+                continue;
+            }
+
+            String candidate = terms[term];
+            // Trigrams of "$term$" == term length, so dice = 2 * shared / (|a| + |b|)
+            float dice = 2f * shared / (token.length() + candidate.length());
+            if (candidate.startsWith(token)) {
+                s.addCandidate(term, PREFIX);
+            } else if (dice >= MIN_TRIGRAM_DICE
+                    && Math.abs(candidate.length() - token.length()) <= maxEdits) {
+                int edits = boundedEditDistance(token, candidate, maxEdits, s);
+                if (edits == 1) {
+                    s.addCandidate(term, ONE_EDIT);
+                } else if (edits == 2) {
+                    s.addCandidate(term, TWO_EDITS);
+                }
+            }
+        }
+        s.touchedTermCount = 0;
+
+        if (s.candidateCount > MAX_EXPANSIONS) {
+            s.keepBestCandidates(MAX_EXPANSIONS);
+        }
+    }
+
+    private void scorePostings(IntList postings, float score, Scratch s) {
+        if (postings == null) {
+            return;
+        }
+        int[] docs = postings.array();
+        for (int i = 0, n = postings.size(); i < n; i++) {
+            int doc = docs[i];
+            if (!isLive(doc)) {
+                continue;
+            }
+            float current = s.tokenScores[doc];
+            if (score > current) {
+                if (current == 0f) {
+                    s.tokenTouched[s.tokenTouchedCount++] = doc;
+                }
+                s.tokenScores[doc] = score;
+            }
+        }
+    }
+
+    private List<Hit> topHits(Scratch s, int tokenCount, String trimmedQuery, int limit) {
+        int k = Math.min(limit, s.touchedCount);
+        int[] topDocs = new int[k];
+        float[] topScores = new float[k];
+        int size = 0;
+
+        for (int i = 0; i < s.touchedCount; i++) {
+            int doc = s.touched[i];
+            float coverage = (float) s.matchedTokens[doc] / tokenCount;
+            float score = s.docScores[doc] * coverage * coverage;
+            if (coverage == 1f && trimmedQuery.equalsIgnoreCase(docTitles[doc].strip())) {
+                score += EXACT_TITLE_BONUS;
+            }
+            s.docScores[doc] = 0f;
+            s.matchedTokens[doc] = 0;
+
+            if (size == k && score <= topScores[k - 1]) {
+                continue;
+            }
+            // Insertion into the small sorted top-k arrays
+            int pos = size < k ? size++ : k - 1;
+            while (pos > 0 && topScores[pos - 1] < score) {
+                topScores[pos] = topScores[pos - 1];
+                topDocs[pos] = topDocs[pos - 1];
+                pos--;
+            }
+            topScores[pos] = score;
+            topDocs[pos] = doc;
+        }
+        s.touchedCount = 0;
+
+        List<Hit> hits = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            hits.add(new Hit(docMovieIds[topDocs[i]], topScores[i]));
+        }
+        return hits;
+    }
+
+    /**
+     * Levenshtein distance, or max + 1 as soon as it is known to exceed max.
+     */
+    private static int boundedEditDistance(String a, String b, int max, Scratch s) {
+        int n = a.length();
+        int m = b.length();
+        int[] prev = s.editRow(0, m + 1);
+        int[] curr = s.editRow(1, m + 1);
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                curr[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return Math.min(prev[m], max + 1);
+    }
+
+    // ---------------------------------------------------------------------
+    // Write internals (callers hold the write lock)
+    // ---------------------------------------------------------------------
+
+    private void addDocument(long movieId, String title, String genre) {
+        int doc = docCount++;
+        if (doc == docMovieIds.length) {
+            int capacity = doc + (doc >> 1);
+            docMovieIds = Arrays.copyOf(docMovieIds, capacity);
+            docTitles = Arrays.copyOf(docTitles, capacity);
+            docGenres = Arrays.copyOf(docGenres, capacity);
+        }
+        if ((doc >>> 6) == liveDocs.length) {
+            liveDocs = Arrays.copyOf(liveDocs, liveDocs.length * 2);
+        }
+        docMovieIds[doc] = movieId;
+        docTitles[doc] = title;
+        docGenres[doc] = genre;
+        liveDocs[doc >>> 6] |= 1L << doc;
+        liveCount++;
+        docsByMovieId.put(movieId, doc);
+
+        for (String token : tokenize(title)) {
+            int term = termId(token); // May grow the postings arrays
+            titlePostings[term].add(doc);
+        }
+        for (String token : tokenize(genre)) {
+            int term = termId(token);
+            if (genrePostings[term] == null) {
+                genrePostings[term] = new IntList(16);
+            }
+            genrePostings[term].add(doc);
+        }
+    }
+
+    private String[] removeLocked(long movieId) {
+        Integer doc = docsByMovieId.remove(movieId);
+        if (doc == null) {
+            return null;
+        }
+        liveDocs[doc >>> 6] &= ~(1L << doc);
+        liveCount--;
+        return new String[] { docTitles[doc], docGenres[doc] };
+    }
+
+    private int termId(String token) {
+        Integer existing = termIds.get(token);
+        if (existing != null) {
+            return existing;
+        }
+
+        int term = termCount++;
+        if (term == terms.length) {
+            int capacity = term + (term >> 1);
+            terms = Arrays.copyOf(terms, capacity);
+            titlePostings = Arrays.copyOf(titlePostings, capacity);
+            genrePostings = Arrays.copyOf(genrePostings, capacity);
+        }
+        terms[term] = token;
+        titlePostings[term] = new IntList();
+        termIds.put(token, term);
+
+        String padded = pad(token);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            termsByTrigram.computeIfAbsent(padded.substring(i, i + 3), k -> new IntList()).add(term);
+        }
+        return term;
+    }
+
+    private void compactIfSparse() {
+        int tombstones = docCount - liveCount;
+        if (tombstones > COMPACTION_THRESHOLD && tombstones > liveCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Rebuild every structure from the live documents only.
+     */
+    private void compact() {
+        long[] ids = new long[liveCount];
+        String[] titles = new String[liveCount];
+        String[] genres = new String[liveCount];
+        int n = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (isLive(doc)) {
+                ids[n] = docMovieIds[doc];
+                titles[n] = docTitles[doc];
+                genres[n] = docGenres[doc];
+                n++;
+            }
+        }
+
+        int capacity = Math.max(1024, n + (n >> 1));
+        docMovieIds = new long[capacity];
+        docTitles = new String[capacity];
+        docGenres = new String[capacity];
+        liveDocs = new long[(capacity >>> 6) + 1];
+        docCount = 0;
+        liveCount = 0;
+        docsByMovieId.clear();
+        termIds.clear();
+        terms = new String[1024];
+        titlePostings = new IntList[1024];
+        genrePostings = new IntList[1024];
+        termCount = 0;
+        termsByTrigram.clear();
+
+        for (int i = 0; i < n; i++) {
+            addDocument(ids[i], titles[i], genres[i]);
+        }
+        logger.info("[MovieSearchIndex] INFO - Compacted index to {} documents.", n);
+    }
+
+    private boolean isLive(int doc) {
+        return (liveDocs[doc >>> 6] & (1L << doc)) != 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // Text helpers
+    // ---------------------------------------------------------------------
+
+    /**
+     * Lower case alphanumeric tokens, distinct and in order of appearance.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Pad a term so its trigram count equals its length.
+     */
+    private static String pad(String term) {
+        return "$" + term + "$";
+    }
+
+    /**
+     * Per-thread reusable query buffers; arrays are reset as they are read so
+     * no clearing pass over the whole index is needed.
+     */
+    private static final class Scratch {
+        float[] docScores = new float[0];
+        float[] tokenScores = new float[0];
+        int[] matchedTokens = new int[0];
+        int[] touched = new int[0];
+        int touchedCount;
+        int[] tokenTouched = new int[0];
+        int tokenTouchedCount;
+
+        int[] termHits = new int[0];
+        int[] touchedTerms = new int[0];
+        int touchedTermCount;
+
+        int[] candidateTerms = new int[16];
+        float[] candidateScores = new float[16];
+        int candidateCount;
+
+        private final int[][] editRows = new int[2][32];
+
+        void ensureCapacity(int docs, int termCount) {
+            if (docScores.length < docs) {
+                int capacity = docs + (docs >> 2);
+                docScores = new float[capacity];
+                tokenScores = new float[capacity];
+                matchedTokens = new int[capacity];
+                touched = new int[capacity];
+                tokenTouched = new int[capacity];
+            }
+            if (termHits.length < termCount) {
+                int capacity = termCount + (termCount >> 2);
+                termHits = new int[capacity];
+                touchedTerms = new int[capacity];
+            }
+        }
+
+        void addCandidate(int term, float score) {
+            if (candidateCount == candidateTerms.length) {
+                candidateTerms = Arrays.copyOf(candidateTerms, candidateCount * 2);
+                candidateScores = Arrays.copyOf(candidateScores, candidateCount * 2);
+            }
+            candidateTerms[candidateCount] = term;
+            candidateScores[candidateCount] = score;
+            candidateCount++;
+        }
+
+        /**
+         * Keep the highest scoring candidates (scores are a handful of fixed
+         * levels, so a pass per level keeps this allocation free).
+         */
+        void keepBestCandidates(int max) {
+            int kept = 0;
+            for (float level : SIMILARITY_LEVELS) {
+                for (int i = kept; i < candidateCount && kept < max; i++) {
+                    if (candidateScores[i] == level) {
+                        int term = candidateTerms[i];
+                        candidateTerms[i] = candidateTerms[kept];
+                        candidateScores[i] = candidateScores[kept];
+                        candidateTerms[kept] = term;
+                        candidateScores[kept] = level;
+                        kept++;
+                    }
+                }
+            }
+            candidateCount = kept;
+        }
+
+        int[] editRow(int row, int length) {
+            if (editRows[row].length < length) {
+                editRows[row] = new int[length * 2];
+            }
+            return editRows[row];
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.att.tdp.popcorn_palace.index;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory title -> movie ID map.
+ *
+ * Titles are keyed exactly as stored, because that is what the
+ * uq_movies_title constraint compares: "Foo" and "foo" are two movies, and
+ * each title route only ever finds its own.
+ *
+ * Title based routes resolve the ID with a hash lookup and then continue by
+ * primary key, and title uniqueness is checked here before the DB constraint
+ * is ever touched. The map is loaded once the context has started, before
+ * the instance reports ready, and kept in sync by {@link MovieIndexListener}
+ * on every JPA write to {@link Movie}.
+ */
+@Component
+public class MovieTitleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieTitleIndex.class);
+
+    private final Map<String, Long> idsByTitle = new ConcurrentHashMap<>();
+    private final Map<Long, String> titlesById = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    /**
+     * Load every (id, title) pair from the DB without materializing entities.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        movieRepository.findAllIndexEntries().forEach(entry -> put(entry.getId(), entry.getTitle()));
+        logger.info("[MovieTitleIndex] INFO - Indexed {} movie titles.", titlesById.size());
+    }
+
+    /**
+     * Resolve a title to its movie: hash lookup for the ID, then a primary key
+     * fetch. Falls back to the DB when the title is unknown in memory.
+     */
+    public Optional<Movie> resolve(String title) {
+        Long id = idsByTitle.get(title);
+        if (id != null) {
+            Optional<Movie> movie = movieRepository.findById(id);
+            if (movie.isPresent() && title.equals(movie.get().getTitle())) {
+                return movie;
+            }
+            // The entry was stale (row removed or renamed outside of JPA)
+            remove(id);
+        }
+
+        Optional<Movie> movie = movieRepository.findByTitle(title);
+        movie.ifPresent(m -> put(m.getId(), m.getTitle()));
+        return movie;
+    }
+
+    /**
+     * The indexed ID for a title, or null. Unlike {@link #resolve(String)}
+     * this never touches the DB, so non-blocking callers can use it.
+     */
+    public Long idOf(String title) {
+        return idsByTitle.get(title);
+    }
+
+    /**
+     * In-memory uniqueness check.
+     *
+     * @param title     The title to check.
+     * @param ignoreId  A movie ID that may own the title (the movie being
+     *                  renamed), or null on create.
+     * @return True if another movie already uses the title.
+     */
+    public boolean isTitleTaken(String title, Long ignoreId) {
+        Long owner = idsByTitle.get(title);
+        return owner != null && !owner.equals(ignoreId);
+    }
+
+    /**
+     * Index (or re-index) a movie.
+     *
+     * @return The title previously indexed for this ID, or null.
+     */
+    public synchronized String put(Long id, String title) {
+        String previous = titlesById.put(id, title);
+        if (previous != null) {
+            idsByTitle.remove(previous, id);
+        }
+        idsByTitle.put(title, id);
+        return previous;
+    }
+
+    /**
+     * Remove a movie from the index.
+     *
+     * @return The title that was indexed for this ID, or null.
+     */
+    public synchronized String remove(Long id) {
+        String previous = titlesById.remove(id);
+        if (previous != null) {
+            idsByTitle.remove(previous, id);
+        }
+        return previous;
+    }
+
+    /**
+     * The IDs of all indexed movies.
+     */
+    public Set<Long> ids() {
+        return Set.copyOf(titlesById.keySet());
+    }
+
+    public int size() {
+        return titlesById.size();
+    }
+}
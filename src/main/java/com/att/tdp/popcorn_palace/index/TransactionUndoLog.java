@@ -0,0 +1,52 @@
+package com.att.tdp.popcorn_palace.index;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Collects compensating actions for in-memory structures that are updated
+ * eagerly from inside a transaction (e.g. from JPA entity callbacks).
+ *
+ * If the surrounding transaction rolls back, the registered actions run in
+ * reverse order so the in-memory state returns to what it was before the
+ * transaction started. Outside of a transaction nothing is recorded.
+ */
+public final class TransactionUndoLog {
+
+    private static final Object RESOURCE_KEY = TransactionUndoLog.class;
+
+    private TransactionUndoLog() {
+    }
+
+    /**
+     * Register an action to run if the current transaction rolls back.
+     */
+    @SuppressWarnings("unchecked")
+    public static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        Deque<Runnable> undos = (Deque<Runnable>) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (undos == null) {
+            Deque<Runnable> log = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, log);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+                    if (status == STATUS_ROLLED_BACK) {
+                        while (!log.isEmpty()) {
+                            log.pop().run();
+                        }
+                    }
+                }
+            });
+            undos = log;
+        }
+        undos.push(undo);
+    }
+}
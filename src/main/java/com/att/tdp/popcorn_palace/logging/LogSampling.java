@@ -0,0 +1,17 @@
+package com.att.tdp.popcorn_palace.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Marker for per-request INFO logs on hot endpoints. Only 1 in
+ * popcorn.logging.sample-rate of the marked events is written (see
+ * {@link SamplingTurboFilter}); WARN and ERROR are never sampled.
+ */
+public final class LogSampling {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogSampling() {
+    }
+}
@@ -0,0 +1,41 @@
+package com.att.tdp.popcorn_palace.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps a random 1 in {@code rate} of the events
+ * marked with {@link LogSampling#SAMPLED} below WARN.
+ *
+ * Turbo filters run before the logging event is created, so a dropped event
+ * costs one random number and never formats its message.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private int rate = 100;
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (marker == null || rate <= 1 || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (marker != LogSampling.SAMPLED && !marker.contains(LogSampling.SAMPLED)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,52 @@
+package com.att.tdp.popcorn_palace.metrics;
+
+/**
+ * JDBC statement count and time for the request running on the current thread.
+ *
+ * One mutable instance per thread, reset at the start of every request, so
+ * recording a statement never allocates.
+ */
+public final class JdbcStatementStats {
+
+    private static final ThreadLocal<JdbcStatementStats> CURRENT = ThreadLocal.withInitial(JdbcStatementStats::new);
+
+    private int statements;
+    private long nanos;
+    private long startedAt;
+
+    private JdbcStatementStats() {
+    }
+
+    public static JdbcStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public void reset() {
+        statements = 0;
+        nanos = 0;
+        startedAt = 0;
+    }
+
+    void statementStarted() {
+        startedAt = System.nanoTime();
+    }
+
+    void statementFinished() {
+        statements++;
+        nanos += System.nanoTime() - startedAt;
+    }
+
+    /**
+     * Statements executed since the last reset (a JDBC batch counts once).
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Time spent executing those statements, in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,86 @@
+package com.att.tdp.popcorn_palace.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many JDBC statements each request ran and how long they took,
+ * tagged by HTTP method and URI pattern (same tags as http.server.requests):
+ *  - popcorn.jdbc.statements (distribution summary)
+ *  - popcorn.jdbc.time (timer)
+ *
+ * Meters are looked up once per (method, pattern) and cached, so a request
+ * only pays for two map lookups and the recording itself.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_METRIC = "popcorn.jdbc.statements";
+    static final String TIME_METRIC = "popcorn.jdbc.time";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // method -> URI pattern -> meters
+    private final Map<String, Map<String, RequestMeters>> meters = new ConcurrentHashMap<>();
+
+    private record RequestMeters(DistributionSummary statements, Timer time) {
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        JdbcStatementStats stats = JdbcStatementStats.current();
+        stats.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestMeters requestMeters = metersFor(request.getMethod(),
+                    request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+            requestMeters.statements().record(stats.getStatements());
+            requestMeters.time().record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private RequestMeters metersFor(String method, Object pattern) {
+        String uri = pattern instanceof String s ? s : UNKNOWN_URI;
+        Map<String, RequestMeters> byUri = meters.get(method);
+        if (byUri == null) {
+            byUri = meters.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        RequestMeters requestMeters = byUri.get(uri);
+        if (requestMeters == null) {
+            requestMeters = byUri.computeIfAbsent(uri, u -> register(method, u));
+        }
+        return requestMeters;
+    }
+
+    private RequestMeters register(String method, String uri) {
+        return new RequestMeters(
+                DistributionSummary.builder(STATEMENTS_METRIC)
+                        .description("JDBC statements executed per request")
+                        .tags("method", method, "uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Timer.builder(TIME_METRIC)
+                        .description("Time spent in JDBC statements per request")
+                        .tags("method", method, "uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+}
@@ -0,0 +1,24 @@
+package com.att.tdp.popcorn_palace.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * datasource-proxy listener feeding every executed statement into the
+ * current thread's {@link JdbcStatementStats}.
+ */
+class StatementMetricsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        JdbcStatementStats.current().statementStarted();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        JdbcStatementStats.current().statementFinished();
+    }
+}
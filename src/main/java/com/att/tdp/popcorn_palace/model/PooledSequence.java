@@ -0,0 +1,27 @@
+package com.att.tdp.popcorn_palace.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generate IDs from a DB sequence with a pooled optimizer, so Hibernate can
+ * hand out a whole block of IDs per round trip and batch the inserts.
+ *
+ * The block size comes from the {@value PooledSequenceGenerator#ALLOCATION_SIZE_SETTING}
+ * setting and must match the sequence's INCREMENT BY in schema.sql.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface PooledSequence {
+
+    /**
+     * The DB sequence name.
+     */
+    String value();
+}
@@ -0,0 +1,44 @@
+package com.att.tdp.popcorn_palace.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * {@link SequenceStyleGenerator} whose sequence name comes from
+ * {@link PooledSequence} and whose allocation size is a configuration setting
+ * instead of an annotation constant.
+ *
+ * The optimizer (pooled or pooled-lo) is picked with Hibernate's
+ * hibernate.id.optimizer.pooled.preferred setting.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * Passed to Hibernate as spring.jpa.properties.popcorn.id.allocation-size.
+     */
+    public static final String ALLOCATION_SIZE_SETTING = "popcorn.id.allocation-size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.sequenceName = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class).getSetting(
+                ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize));
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
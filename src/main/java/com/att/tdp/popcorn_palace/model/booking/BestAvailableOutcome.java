@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.model.booking;
+
+/**
+ * Result of booking the best available block of seats. A sold-out showtime
+ * is an expected outcome, returned as a value like the other rejections.
+ */
+public sealed interface BestAvailableOutcome {
+
+    record Booked(SeatBlock block) implements BestAvailableOutcome {
+    }
+
+    record NoBlockAvailable(long showtimeId, int count) implements BestAvailableOutcome {
+    }
+
+    record ShowtimeNotFound(long showtimeId) implements BestAvailableOutcome {
+    }
+
+    record NoSeatLayout(String theater) implements BestAvailableOutcome {
+    }
+
+    record InvalidCount(int count) implements BestAvailableOutcome {
+    }
+
+    record InvalidUserId(String userId) implements BestAvailableOutcome {
+    }
+}
@@ -31,6 +31,9 @@ public class Booking {
     @Column(name = "booking_time", nullable = false, insertable = false, updatable = false)
     private LocalDateTime bookingTime;
 
+    @Column(name = "price_cents")
+    private Long priceCents; // Quoted at booking time; null if booked without a quote
+
     // Constructors
     public Booking() {
         // Default constructor for JPA
@@ -55,4 +58,7 @@ public class Booking {
     public void setSeatNumber(int seatNumber) { this.seatNumber = seatNumber;}
 
     public LocalDateTime getBookingTime() {return bookingTime;}
+
+    public Long getPriceCents() {return priceCents;}
+    public void setPriceCents(Long priceCents) {this.priceCents = priceCents;}
 }
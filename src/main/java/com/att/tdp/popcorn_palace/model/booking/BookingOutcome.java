@@ -0,0 +1,22 @@
+package com.att.tdp.popcorn_palace.model.booking;
+
+import java.util.UUID;
+
+/**
+ * Result of a booking attempt. Losing a seat race is an expected outcome
+ * under load, so it is returned as a value instead of being thrown.
+ */
+public sealed interface BookingOutcome {
+
+    record Booked(UUID bookingId) implements BookingOutcome {
+    }
+
+    record SeatTaken(long showtimeId, int seatNumber) implements BookingOutcome {
+    }
+
+    record ShowtimeNotFound(long showtimeId) implements BookingOutcome {
+    }
+
+    record InvalidUserId(String userId) implements BookingOutcome {
+    }
+}
@@ -0,0 +1,28 @@
+package com.att.tdp.popcorn_palace.model.booking;
+
+import java.util.UUID;
+
+/**
+ * Result of a cancellation attempt, returned as a value like
+ * {@link BookingOutcome}.
+ */
+public sealed interface CancellationOutcome {
+
+    record Cancelled(SeatReleased released) implements CancellationOutcome {
+    }
+
+    /**
+     * No such booking, or it was cancelled concurrently.
+     */
+    record BookingNotFound(UUID bookingId) implements CancellationOutcome {
+    }
+
+    record NotOwner(UUID bookingId) implements CancellationOutcome {
+    }
+
+    record InvalidBookingId(String bookingId) implements CancellationOutcome {
+    }
+
+    record InvalidUserId(String userId) implements CancellationOutcome {
+    }
+}
@@ -0,0 +1,13 @@
+package com.att.tdp.popcorn_palace.model.booking;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adjacent seats booked together by the best-available search, one booking
+ * per seat. price is per seat.
+ */
+public record SeatBlock(List<UUID> bookingIds, List<Integer> seatNumbers, int row, String section,
+        BigDecimal price) {
+}
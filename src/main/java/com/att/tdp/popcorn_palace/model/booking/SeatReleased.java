@@ -0,0 +1,15 @@
+package com.att.tdp.popcorn_palace.model.booking;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A booked seat became free again. Published synchronously (a Spring
+ * application event) right after the booking row is deleted, so every
+ * in-process structure that tracks seats, occupancy or a user's bookings
+ * catches up before the cancel request returns. priceCents is what the seat
+ * was sold at, null if it was booked without a quote.
+ */
+public record SeatReleased(UUID bookingId, long showtimeId, int seatNumber, UUID userId,
+        LocalDateTime bookingTime, Long priceCents) {
+}
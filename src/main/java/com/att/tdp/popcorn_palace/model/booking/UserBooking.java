@@ -0,0 +1,33 @@
+package com.att.tdp.popcorn_palace.model.booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of a user's booking history: the booking with the showtime and
+ * movie it is for. Built directly by the history query, no entities loaded.
+ */
+public record UserBooking(
+        UUID bookingId,
+        LocalDateTime bookingTime,
+        int seatNumber,
+        Long showtimeId,
+        String theater,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        BigDecimal price,
+        Long movieId,
+        String movieTitle) {
+
+    /**
+     * For the history query: the price the seat was sold at, or the
+     * showtime's price for a booking without a quote.
+     */
+    public UserBooking(UUID bookingId, LocalDateTime bookingTime, int seatNumber, Long showtimeId, String theater,
+            LocalDateTime startTime, LocalDateTime endTime, Long priceCents, BigDecimal showtimePrice,
+            Long movieId, String movieTitle) {
+        this(bookingId, bookingTime, seatNumber, showtimeId, theater, startTime, endTime,
+                priceCents != null ? BigDecimal.valueOf(priceCents, 2) : showtimePrice, movieId, movieTitle);
+    }
+}
@@ -0,0 +1,10 @@
+package com.att.tdp.popcorn_palace.model.booking;
+
+import java.util.List;
+
+/**
+ * A page of a user's booking history, newest first. {@code nextCursor} fetches
+ * the following page and is null on the last one.
+ */
+public record UserBookingPage(List<UserBooking> bookings, String nextCursor) {
+}
@@ -1,16 +1,21 @@
 package com.att.tdp.popcorn_palace.model.movie;
 
+import com.att.tdp.popcorn_palace.index.MovieIndexListener;
+import com.att.tdp.popcorn_palace.model.PooledSequence;
+import com.att.tdp.popcorn_palace.report.SalesRollupListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
 @Entity
+@EntityListeners({ MovieIndexListener.class, // Keeps the in-memory title index in sync
+        SalesRollupListener.class })
 @Table(name = "movies", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "title") // Enforce unique titles
+        @UniqueConstraint(name = "uq_movies_title", columnNames = "title") // Enforce unique titles
 })
 public class Movie {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("movies_id_seq") // Pooled IDs, so inserts can be JDBC batched
     private Long id; // Internal primary key
 
     @NotBlank(message = "Title must not be empty")
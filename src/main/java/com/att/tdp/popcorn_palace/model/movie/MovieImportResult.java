@@ -0,0 +1,76 @@
+package com.att.tdp.popcorn_palace.model.movie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response body of a bulk movie import: per-row errors plus throughput stats.
+ */
+public class MovieImportResult {
+
+    /**
+     * Only the first errors are reported so the response stays bounded.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long totalRows;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private final List<RowError> errors = new ArrayList<>();
+
+    /**
+     * A row that was not imported.
+     */
+    public static class RowError {
+        private final long row;
+        private final String title;
+        private final String message;
+
+        public RowError(long row, String title, String message) {
+            this.row = row;
+            this.title = title;
+            this.message = message;
+        }
+
+        public long getRow() {return row;}
+        public String getTitle() {return title;}
+        public String getMessage() {return message;}
+    }
+
+    public void rowRead() {totalRows++;}
+
+    public void imported(int rows) {imported += rows;}
+
+    public void duplicate(long row, String title) {
+        duplicates++;
+        addError(new RowError(row, title, "Another movie already has this title."));
+    }
+
+    public void rejected(long row, String title, String message) {
+        rejected++;
+        addError(new RowError(row, title, message));
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? totalRows : totalRows * 1000.0 / elapsedMillis;
+    }
+
+    private void addError(RowError error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    // Getters
+    public long getTotalRows() {return totalRows;}
+    public long getImported() {return imported;}
+    public long getDuplicates() {return duplicates;}
+    public long getRejected() {return rejected;}
+    public long getElapsedMillis() {return elapsedMillis;}
+    public double getRowsPerSecond() {return rowsPerSecond;}
+    public List<RowError> getErrors() {return errors;}
+}
@@ -0,0 +1,9 @@
+package com.att.tdp.popcorn_palace.model.report;
+
+import java.math.BigDecimal;
+
+/**
+ * Sold seats and revenue of a showtime, movie or day.
+ */
+public record SalesTotals(long seats, BigDecimal revenue) {
+}
@@ -0,0 +1,29 @@
+package com.att.tdp.popcorn_palace.model.showtime;
+
+/**
+ * Result of creating or rescheduling a showtime. Overlaps and missing rows
+ * are expected outcomes, returned as values instead of being thrown.
+ */
+public sealed interface ScheduleOutcome {
+
+    record Scheduled(Long showtimeId) implements ScheduleOutcome {
+    }
+
+    record ShowtimeNotFound(Long showtimeId) implements ScheduleOutcome {
+    }
+
+    /**
+     * Rejections that create and update answer alike.
+     */
+    sealed interface Rejected extends ScheduleOutcome {
+    }
+
+    record MovieNotFound(Long movieId) implements Rejected {
+    }
+
+    record InvalidTimeRange() implements Rejected {
+    }
+
+    record Overlap(String theater) implements ScheduleOutcome {
+    }
+}
@@ -1,5 +1,7 @@
 package com.att.tdp.popcorn_palace.model.showtime;
 
+import com.att.tdp.popcorn_palace.model.PooledSequence;
+import com.att.tdp.popcorn_palace.report.SalesRollupListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,11 +16,12 @@ import java.time.LocalDateTime;
  *  - theater up to 100 chars
  */
 @Entity
+@EntityListeners(SalesRollupListener.class) // Price changes and deletes reconcile the sales rollups
 @Table(name = "showtimes")
 public class Showtime {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("showtimes_id_seq") // Pooled IDs, so inserts can be JDBC batched
     private Long id;
 
     @Column(name = "movie_id", nullable = false)
@@ -36,6 +39,13 @@ public class Showtime {
     @Column(name = "price", nullable = false)
     private BigDecimal price; // e.g. 12.50
 
+    // As last loaded or written, so SalesRollupListener can tell what an update changed
+    @Transient
+    private Long loadedMovieId;
+
+    @Transient
+    private BigDecimal loadedPrice;
+
     // Constructors
     public Showtime() {
     }
@@ -66,4 +76,16 @@ public class Showtime {
 
     public BigDecimal getPrice() { return price; }
     public void setPrice(BigDecimal price) { this.price = price; }
+
+    public Long loadedMovieId() { return loadedMovieId; }
+    public BigDecimal loadedPrice() { return loadedPrice; }
+
+    // Runs after the entity listeners' callbacks of the same event
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberLoaded() {
+        loadedMovieId = movieId;
+        loadedPrice = price;
+    }
 }
@@ -0,0 +1,44 @@
+package com.att.tdp.popcorn_palace.model.waitlist;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Result of a waitlist request: joining, leaving, looking up one's place or
+ * booking an offered seat. The rejections are shared by all of them.
+ */
+public sealed interface WaitlistOutcome {
+
+    record Joined(long showtimeId, int ahead) implements WaitlistOutcome {
+    }
+
+    record AlreadyWaiting(long showtimeId) implements WaitlistOutcome {
+    }
+
+    record Left(long showtimeId) implements WaitlistOutcome {
+    }
+
+    record Waiting(long showtimeId) implements WaitlistOutcome {
+    }
+
+    record Offered(long showtimeId, int seatNumber, LocalDateTime expiresAt) implements WaitlistOutcome {
+    }
+
+    record Accepted(UUID bookingId, int seatNumber) implements WaitlistOutcome {
+    }
+
+    record OfferLost(long showtimeId, int seatNumber) implements WaitlistOutcome {
+    }
+
+    record NotWaiting(long showtimeId) implements WaitlistOutcome {
+    }
+
+    record NoOffer(long showtimeId) implements WaitlistOutcome {
+    }
+
+    record ShowtimeNotFound(long showtimeId) implements WaitlistOutcome {
+    }
+
+    record InvalidUserId(String userId) implements WaitlistOutcome {
+    }
+}
@@ -0,0 +1,46 @@
+package com.att.tdp.popcorn_palace.outbox;
+
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes booking events to the booking_outbox table. Call it inside the
+ * transaction that inserts or deletes the booking (on its shard), so the
+ * event exists exactly when the change commits. {@link OutboxRelay} does the
+ * publishing later, off the request path.
+ */
+@Component
+public class BookingOutbox {
+
+    static final String INSERT_SQL = "INSERT INTO booking_outbox "
+            + "(event_type, booking_id, showtime_id, user_id, seat_number, price_cents) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void booked(UUID bookingId, long showtimeId, UUID userId, int seatNumber, long priceCents) {
+        jdbcTemplate.update(INSERT_SQL, OutboxMessage.Type.BOOKED.name(), bookingId, showtimeId, userId, seatNumber,
+                priceCents);
+    }
+
+    public void cancelled(SeatReleased released) {
+        jdbcTemplate.update(INSERT_SQL, OutboxMessage.Type.CANCELLED.name(), released.bookingId(),
+                released.showtimeId(), released.userId(), released.seatNumber(), released.priceCents());
+    }
+
+    /**
+     * Several bookings cancelled at once (their showtime was deleted), in one
+     * batch.
+     */
+    public void cancelled(List<SeatReleased> released) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, released.stream()
+                .map(seat -> new Object[] { OutboxMessage.Type.CANCELLED.name(), seat.bookingId(), seat.showtimeId(),
+                        seat.userId(), seat.seatNumber(), seat.priceCents() })
+                .toList());
+    }
+}
@@ -0,0 +1,35 @@
+package com.att.tdp.popcorn_palace.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * The {@link OutboxPublisher} named by popcorn.outbox.publisher: in-process
+ * (the default) or file.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxPublisher.class)
+    @ConditionalOnProperty(prefix = "popcorn.outbox", name = "publisher", havingValue = "file")
+    public OutboxPublisher fileOutboxPublisher(ObjectMapper objectMapper,
+            @Value("${popcorn.outbox.file:booking-events.ndjson}") Path path) {
+        return new FileOutboxPublisher(objectMapper, path);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxPublisher.class)
+    @ConditionalOnProperty(prefix = "popcorn.outbox", name = "publisher", havingValue = "in-process",
+            matchIfMissing = true)
+    public OutboxPublisher inProcessOutboxPublisher(ApplicationEventPublisher eventPublisher) {
+        return new InProcessOutboxPublisher(eventPublisher);
+    }
+}
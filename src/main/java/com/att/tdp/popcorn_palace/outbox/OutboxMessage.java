@@ -0,0 +1,17 @@
+package com.att.tdp.popcorn_palace.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A booking event as stored in the booking_outbox table. IDs grow in insert
+ * order per database (per shard when bookings are sharded), and a message
+ * may be delivered more than once, so consumers should deduplicate on it.
+ */
+public record OutboxMessage(long id, Type type, UUID bookingId, long showtimeId, UUID userId, int seatNumber,
+        Long priceCents, LocalDateTime createdAt) {
+
+    public enum Type {
+        BOOKED, CANCELLED
+    }
+}
@@ -0,0 +1,18 @@
+package com.att.tdp.popcorn_palace.outbox;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} sends booking events, e.g. a message broker.
+ * Declare a bean of this type to replace the one picked by
+ * popcorn.outbox.publisher.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publish a batch, in order. Returning means every message was accepted
+     * and the rows can be deleted; throwing leaves the whole batch in the
+     * outbox to be published again.
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,110 @@
+package com.att.tdp.popcorn_palace.outbox;
+
+import com.att.tdp.popcorn_palace.datasource.ShardContext;
+import com.att.tdp.popcorn_palace.datasource.ShardMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves booking events from the booking_outbox table to the
+ * {@link OutboxPublisher}, every popcorn.outbox.poll-interval.
+ *
+ * Each round takes up to popcorn.outbox.batch-size of the oldest rows with
+ * SELECT ... FOR UPDATE SKIP LOCKED, publishes them and deletes them in the
+ * same transaction, and goes on while batches come back full. Rows another
+ * instance has locked are skipped, so all instances can run the relay and
+ * share the backlog. Delivery is at least once: if the publisher or the
+ * commit fails, the batch stays and is published again.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String SELECT_SQL = "SELECT id, event_type, booking_id, showtime_id, user_id, seat_number, "
+            + "price_cents, created_at FROM booking_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    @Value("${popcorn.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private OutboxPublisher publisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<ShardMap> shardMap;
+
+    /**
+     * Publish everything in the outbox (of every shard).
+     *
+     * @return the number of messages published.
+     */
+    @Scheduled(fixedDelayString = "${popcorn.outbox.poll-interval:200ms}",
+            initialDelayString = "${popcorn.outbox.poll-interval:200ms}")
+    public int relay() {
+        ShardMap shards = shardMap.getIfAvailable();
+        if (shards == null) {
+            return drain();
+        }
+        int published = 0;
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            ShardContext.set(shard);
+            try {
+                published += drain();
+            } finally {
+                ShardContext.clear();
+            }
+        }
+        return published;
+    }
+
+    private int drain() {
+        int published = 0;
+        try {
+            int batch;
+            do {
+                batch = new TransactionTemplate(transactionManager).execute(status -> relayBatch());
+                published += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("[OutboxRelay] WARN - Publishing booking events failed, retrying later: {}", e.toString());
+        }
+        return published;
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> messages = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new OutboxMessage(
+                rs.getLong(1), OutboxMessage.Type.valueOf(rs.getString(2)), rs.getObject(3, UUID.class),
+                rs.getLong(4), rs.getObject(5, UUID.class), rs.getInt(6), rs.getObject(7, Long.class),
+                rs.getTimestamp(8).toLocalDateTime()), batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        try {
+            publisher.publish(messages);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox publisher failed", e);
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM booking_outbox WHERE id = ?", messages, messages.size(),
+                (ps, message) -> ps.setLong(1, message.id()));
+        return messages.size();
+    }
+}
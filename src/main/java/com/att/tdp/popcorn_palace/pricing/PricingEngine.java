@@ -0,0 +1,104 @@
+package com.att.tdp.popcorn_palace.pricing;
+
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import com.att.tdp.popcorn_palace.seating.SeatLayout;
+import com.att.tdp.popcorn_palace.seating.SeatLayouts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Quotes the price of a seat at booking time from the showtime's price, its
+ * occupancy and the time left until it starts (popcorn.pricing.*).
+ *
+ * Occupancy is the seat count the {@link SalesRollups} keep in memory, so a
+ * quote never counts booking rows, against the capacity of the theater's
+ * seat layout (popcorn.pricing.capacity if it has none). The rule tables are compiled at startup
+ * into arrays: occupancy is looked up by per-mille sold in a 1001-entry
+ * table, lead time in a short ascending list of windows. Prices are long
+ * cents and adjustments basis points, so a quote allocates nothing.
+ */
+@Component
+@EnableConfigurationProperties(PricingProperties.class)
+public class PricingEngine {
+
+    private static final int PERMILLE = 1000;
+    private static final long BASIS = 10_000; // Basis points in 100%
+
+    private final int capacity;
+    private final int[] occupancyAdjustBp = new int[PERMILLE + 1];
+    private final long[] leadWithinSeconds;
+    private final int[] leadAdjustBp;
+    private final long minBp;
+    private final long maxBp;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private SeatLayouts seatLayouts;
+
+    public PricingEngine(PricingProperties properties) {
+        if (properties.getCapacity() <= 0) {
+            throw new IllegalArgumentException("popcorn.pricing.capacity must be > 0");
+        }
+        capacity = properties.getCapacity();
+
+        List<PricingProperties.OccupancyRule> occupancy = properties.getOccupancy().stream()
+                .sorted(Comparator.comparingInt(PricingProperties.OccupancyRule::getFromPercent))
+                .toList();
+        for (PricingProperties.OccupancyRule rule : occupancy) {
+            int from = Math.clamp(rule.getFromPercent() * 10L, 0, PERMILLE);
+            for (int permille = from; permille <= PERMILLE; permille++) {
+                occupancyAdjustBp[permille] = rule.getAdjustPercent() * 100;
+            }
+        }
+
+        List<PricingProperties.LeadTimeRule> leadTime = properties.getLeadTime().stream()
+                .sorted(Comparator.comparing(PricingProperties.LeadTimeRule::getWithin))
+                .toList();
+        leadWithinSeconds = leadTime.stream().mapToLong(rule -> rule.getWithin().toSeconds()).toArray();
+        leadAdjustBp = leadTime.stream().mapToInt(rule -> rule.getAdjustPercent() * 100).toArray();
+
+        minBp = properties.getMinPercent() * 100L;
+        maxBp = properties.getMaxPercent() * 100L;
+    }
+
+    /**
+     * The price of a seat of {@code showtime} if it is booked at {@code now},
+     * in cents.
+     */
+    public long quoteCents(Showtime showtime, LocalDateTime now) {
+        SeatLayout layout = seatLayouts.forTheater(showtime.getTheater());
+        return quoteCents(showtime.getPrice().movePointRight(2).longValue(),
+                salesRollups.seatsSold(showtime.getId()), layout != null ? layout.capacity() : capacity,
+                ChronoUnit.SECONDS.between(now, showtime.getStartTime()));
+    }
+
+    /**
+     * The price of a seat given its inputs: base price in cents, seats sold
+     * out of {@code capacity}, and seconds until the showtime starts
+     * (negative once it has). Rounded half up to the cent.
+     */
+    public long quoteCents(long baseCents, long seatsSold, int capacity, long secondsToStart) {
+        int permille = (int) Math.clamp(seatsSold * PERMILLE / capacity, 0, PERMILLE);
+        long bp = BASIS + occupancyAdjustBp[permille] + leadAdjustBp(secondsToStart);
+        bp = Math.clamp(bp, minBp, maxBp);
+        return (baseCents * bp + BASIS / 2) / BASIS;
+    }
+
+    private int leadAdjustBp(long secondsToStart) {
+        for (int i = 0; i < leadWithinSeconds.length; i++) {
+            if (secondsToStart <= leadWithinSeconds[i]) {
+                return leadAdjustBp[i];
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.att.tdp.popcorn_palace.pricing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * popcorn.pricing.* settings: the rule tables of the {@link PricingEngine}.
+ *
+ * Adjustments are percentages of the showtime's price. The occupancy rule
+ * and the lead-time rule that apply are added up, and the sum is bounded by
+ * min-percent and max-percent. With no rules, a seat costs the showtime's
+ * price.
+ */
+@ConfigurationProperties(prefix = "popcorn.pricing")
+public class PricingProperties {
+
+    /**
+     * Seats per showtime, against which occupancy is measured, in theaters
+     * without a seat layout (popcorn.seating.layouts).
+     */
+    private int capacity = 100;
+
+    /**
+     * Rules by the share of seats sold. The rule with the highest from-percent
+     * not above the current occupancy applies.
+     */
+    private List<OccupancyRule> occupancy = new ArrayList<>();
+
+    /**
+     * Rules by the time left until the showtime starts. The rule with the
+     * shortest window that still covers the time left applies.
+     */
+    private List<LeadTimeRule> leadTime = new ArrayList<>();
+
+    /**
+     * Lowest and highest quote, in percent of the showtime's price.
+     */
+    private int minPercent = 50;
+    private int maxPercent = 300;
+
+    public static class OccupancyRule {
+        private int fromPercent;
+        private int adjustPercent;
+
+        public int getFromPercent() { return fromPercent; }
+        public void setFromPercent(int fromPercent) { this.fromPercent = fromPercent; }
+
+        public int getAdjustPercent() { return adjustPercent; }
+        public void setAdjustPercent(int adjustPercent) { this.adjustPercent = adjustPercent; }
+    }
+
+    public static class LeadTimeRule {
+        private Duration within;
+        private int adjustPercent;
+
+        public Duration getWithin() { return within; }
+        public void setWithin(Duration within) { this.within = within; }
+
+        public int getAdjustPercent() { return adjustPercent; }
+        public void setAdjustPercent(int adjustPercent) { this.adjustPercent = adjustPercent; }
+    }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public List<OccupancyRule> getOccupancy() { return occupancy; }
+    public void setOccupancy(List<OccupancyRule> occupancy) { this.occupancy = occupancy; }
+
+    public List<LeadTimeRule> getLeadTime() { return leadTime; }
+    public void setLeadTime(List<LeadTimeRule> leadTime) { this.leadTime = leadTime; }
+
+    public int getMinPercent() { return minPercent; }
+    public void setMinPercent(int minPercent) { this.minPercent = minPercent; }
+
+    public int getMaxPercent() { return maxPercent; }
+    public void setMaxPercent(int maxPercent) { this.maxPercent = maxPercent; }
+}
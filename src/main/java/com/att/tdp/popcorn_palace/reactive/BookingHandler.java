@@ -0,0 +1,106 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import com.att.tdp.popcorn_palace.cache.UserBookingsCache;
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.pricing.PricingEngine;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import com.att.tdp.popcorn_palace.service.BookingService;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.att.tdp.popcorn_palace.reactive.RequestBodies.text;
+
+/**
+ * Reactive counterpart of BookingController. Like BookingService, it refuses
+ * seats held for a waitlisted user and keeps the seat maps, sales rollups and
+ * history cache current; all of those are in memory, so nothing blocks the
+ * event loop.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class BookingHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingHandler.class);
+
+    @Autowired
+    private ReactiveShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReactiveBookingRepository bookingRepository;
+
+    @Autowired
+    private RequestBodies requestBodies;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private Waitlists waitlists;
+
+    @Autowired
+    private SeatMaps seatMaps;
+
+    @Autowired
+    private UserBookingsCache userBookingsCache;
+
+    /**
+     * POST /bookings
+     */
+    public Mono<ServerResponse> bookTicket(ServerRequest request) {
+        return requestBodies.withValid(request, BookingRequest.class, bookingDto -> {
+            logger.info(LogSampling.SAMPLED, "Booking ticket for showtime={}, seat={}, user={}",
+                    bookingDto.getShowtimeId(), bookingDto.getSeatNumber(), bookingDto.getUserId());
+
+            return showtimeRepository.findById(bookingDto.getShowtimeId())
+                    .flatMap(showtime -> book(bookingDto, showtime))
+                    .switchIfEmpty(Mono.defer(() -> text(ServerResponse.badRequest(),
+                            "No showtime found with id=" + bookingDto.getShowtimeId())));
+        });
+    }
+
+    private Mono<ServerResponse> book(BookingRequest bookingDto, Showtime showtime) {
+        UUID userUuid = BookingService.parseUuid(bookingDto.getUserId());
+        if (userUuid == null) {
+            return text(ServerResponse.badRequest(), "Invalid userId: must be a valid UUID");
+        }
+        if (waitlists.isHeldForOther(showtime.getId(), bookingDto.getSeatNumber(), userUuid)) {
+            return seatTaken(bookingDto); // Offered to a waiter
+        }
+
+        LocalDateTime bookingTime = LocalDateTime.now();
+        long priceCents = pricingEngine.quoteCents(showtime, bookingTime);
+        return bookingRepository.insertIfSeatFree(bookingDto.getShowtimeId(), userUuid, bookingDto.getSeatNumber(),
+                        priceCents, bookingTime)
+                .flatMap(bookingId -> {
+                    salesRollups.recordBooking(showtime.getId(), showtime.getMovieId(), priceCents, bookingTime);
+                    seatMaps.markTaken(showtime.getId(), bookingDto.getSeatNumber());
+                    waitlists.accepted(showtime.getId(), bookingDto.getSeatNumber(), userUuid); // If offered to them
+                    userBookingsCache.invalidate(userUuid);
+                    logger.info(LogSampling.SAMPLED, "Booking confirmed! Your booking ID is: {}", bookingId);
+                    return text(ServerResponse.ok(), "Booking confirmed! Your booking ID is: " + bookingId);
+                })
+                .switchIfEmpty(Mono.defer(() -> seatTaken(bookingDto)));
+    }
+
+    private static Mono<ServerResponse> seatTaken(BookingRequest bookingDto) {
+        return text(ServerResponse.status(HttpStatus.CONFLICT), "Seat " + bookingDto.getSeatNumber()
+                + " is already booked for showtime " + bookingDto.getShowtimeId());
+    }
+}
@@ -0,0 +1,158 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import com.att.tdp.popcorn_palace.index.MovieIndexes;
+import com.att.tdp.popcorn_palace.index.MovieTitleIndex;
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.movie.MovieRequest;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.att.tdp.popcorn_palace.reactive.RequestBodies.text;
+
+/**
+ * Reactive counterpart of MovieController for the README routes.
+ *
+ * Title checks use the in-memory {@link MovieTitleIndex} like the servlet
+ * stack. R2DBC writes bypass the JPA entity listener, so the handlers update
+ * the indexes through {@link MovieIndexes} themselves.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MovieHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieHandler.class);
+
+    @Autowired
+    private ReactiveMovieRepository movieRepository;
+
+    @Autowired
+    private MovieTitleIndex titleIndex;
+
+    @Autowired
+    private MovieIndexes movieIndexes;
+
+    @Autowired
+    private RequestBodies requestBodies;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private ReactiveShowtimeDeletions showtimeDeletions;
+
+    /**
+     * GET /movies/all
+     */
+    public Mono<ServerResponse> getAllMovies(ServerRequest request) {
+        logger.info(LogSampling.SAMPLED, "[MovieHandler] INFO - Request to fetch all movies.");
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(movieRepository.findAll(), Movie.class);
+    }
+
+    /**
+     * POST /movies
+     */
+    public Mono<ServerResponse> addMovie(ServerRequest request) {
+        return requestBodies.withValid(request, MovieRequest.class, movieDto -> {
+            logger.info("[MovieHandler] INFO - Request to create a new movie: {}", movieDto.getTitle());
+
+            if (titleIndex.isTitleTaken(movieDto.getTitle(), null)) {
+                logger.warn("[MovieHandler] WARN - Movie with title '{}' already exists.", movieDto.getTitle());
+                return text(ServerResponse.status(HttpStatus.CONFLICT), "Another movie already has the title '"
+                        + movieDto.getTitle() + "'. Please pick a unique title.");
+            }
+
+            Movie movie = toMovie(movieDto);
+            return movieRepository.insert(movie)
+                    .flatMap(id -> {
+                        movieIndexes.saved(id, movie.getTitle(), movie.getGenre());
+                        String successMsg = "Successfully created the movie: '" + movie.getTitle() + "with id: "
+                                + id + "'.";
+                        logger.info("[MovieHandler] SUCCESS - {}", successMsg);
+                        return text(ServerResponse.ok(), successMsg);
+                    })
+                    .onErrorResume(DataIntegrityViolationException.class, requestBodies::constraintViolated);
+        });
+    }
+
+    /**
+     * POST /movies/update/{movieTitle}
+     */
+    public Mono<ServerResponse> updateMovie(ServerRequest request) {
+        String movieTitle = request.pathVariable("movieTitle");
+        return requestBodies.withValid(request, MovieRequest.class, updatedData -> resolve(movieTitle)
+                .flatMap(existing -> {
+                    logger.info("[MovieHandler] INFO - Updating movie: '{}'", existing.getTitle());
+                    if (titleIndex.isTitleTaken(updatedData.getTitle(), existing.getId())) {
+                        logger.warn("[MovieHandler] WARN - New title '{}' is already taken.", updatedData.getTitle());
+                        return text(ServerResponse.status(HttpStatus.CONFLICT), "Sorry, the title '"
+                                + updatedData.getTitle() + "' is already used by another movie.");
+                    }
+
+                    Movie updated = toMovie(updatedData);
+                    updated.setId(existing.getId());
+                    return movieRepository.update(updated).then(Mono.defer(() -> {
+                        movieIndexes.saved(updated.getId(), updated.getTitle(), updated.getGenre());
+                        String successMsg = "Movie '" + existing.getTitle()
+                                + "' was updated successfully. New title is '" + updated.getTitle() + "'.";
+                        logger.info("[MovieHandler] SUCCESS - {}", successMsg);
+                        return text(ServerResponse.ok(), successMsg);
+                    }));
+                })
+                .switchIfEmpty(Mono.defer(() -> text(ServerResponse.status(HttpStatus.NOT_FOUND),
+                        "Movie with title '" + movieTitle + "' was not found. Update failed.")))
+                .onErrorResume(DataIntegrityViolationException.class, requestBodies::constraintViolated));
+    }
+
+    /**
+     * DELETE /movies/{movieTitle}
+     */
+    public Mono<ServerResponse> deleteMovie(ServerRequest request) {
+        String movieTitle = request.pathVariable("movieTitle");
+        logger.info("[MovieHandler] INFO - Attempting to delete movie: '{}'", movieTitle);
+
+        return resolve(movieTitle)
+                .flatMap(movie -> showtimeDeletions.deleteMovie(movie.getId()).then(Mono.defer(() -> {
+                    movieIndexes.removed(movie.getId());
+                    salesRollups.requestReconcile(); // Its showtimes and bookings went with it
+                    String successMsg = "Movie '" + movieTitle + "' was removed successfully.";
+                    logger.info("[MovieHandler] SUCCESS - {}", successMsg);
+                    return text(ServerResponse.ok(), successMsg);
+                })))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("[MovieHandler] WARN - Movie '{}' does not exist for deletion.", movieTitle);
+                    return text(ServerResponse.status(HttpStatus.NOT_FOUND),
+                            "No movie found with title '" + movieTitle + "'. Could not delete.");
+                }));
+    }
+
+    /**
+     * Same lookup as MovieTitleIndex.resolve: indexed ID first, the title column as fallback.
+     */
+    private Mono<Movie> resolve(String title) {
+        Long id = titleIndex.idOf(title);
+        Mono<Movie> byTitle = Mono.defer(() -> movieRepository.findByTitle(title));
+        if (id == null) {
+            return byTitle;
+        }
+        return movieRepository.findById(id)
+                .filter(movie -> title.equals(movie.getTitle()))
+                .switchIfEmpty(byTitle);
+    }
+
+    private static Movie toMovie(MovieRequest dto) {
+        return new Movie(dto.getTitle(), dto.getGenre(), dto.getDuration(), dto.getRating(), dto.getReleaseYear());
+    }
+}
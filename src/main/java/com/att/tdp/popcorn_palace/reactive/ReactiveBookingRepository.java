@@ -0,0 +1,150 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import com.att.tdp.popcorn_palace.datasource.ShardMap;
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.outbox.OutboxMessage;
+import com.att.tdp.popcorn_palace.seating.SeatLocks;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * R2DBC access to the bookings table.
+ *
+ * With popcorn.seat-locks.mode=advisory, a booking takes the same advisory
+ * locks as on the servlet path, in its R2DBC transaction; waiting for them
+ * parks no thread. in-jvm locks would block the event loop, so that mode is
+ * rejected at startup, and so are booking shards, which this profile does
+ * not route to.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private ObjectProvider<ShardMap> shardMap;
+
+    @Value("${popcorn.seat-locks.mode:none}")
+    private String seatLockMode;
+
+    @PostConstruct
+    void checkSupported() {
+        if ("in-jvm".equals(seatLockMode)) {
+            throw new IllegalStateException(
+                    "popcorn.seat-locks.mode=in-jvm blocks threads; use advisory or none with the reactive profile");
+        }
+        if (shardMap.getIfAvailable() != null) {
+            throw new IllegalStateException("popcorn.sharding is not supported by the reactive profile");
+        }
+    }
+
+    /**
+     * Insert a booking at the quoted price unless the seat is taken
+     * (INSERT ... ON CONFLICT DO NOTHING), and its BOOKED outbox event in the
+     * same transaction.
+     * The ID is generated here, like the JPA entity's UUID generator does.
+     *
+     * @return The booking ID, or empty if the seat was already taken.
+     */
+    public Mono<UUID> insertIfSeatFree(Long showtimeId, UUID userId, int seatNumber, long priceCents,
+            LocalDateTime bookingTime) {
+        UUID id = UUID.randomUUID();
+        Mono<UUID> insert = databaseClient.sql("INSERT INTO bookings (id, showtime_id, user_id, seat_number, "
+                        + "price_cents, booking_time) VALUES (:id, :showtimeId, :userId, :seat, :priceCents, "
+                        + ":bookingTime) ON CONFLICT DO NOTHING")
+                .bind("id", id)
+                .bind("showtimeId", showtimeId)
+                .bind("userId", userId)
+                .bind("seat", seatNumber)
+                .bind("priceCents", priceCents)
+                .bind("bookingTime", bookingTime)
+                .fetch()
+                .rowsUpdated()
+                .filter(rows -> rows > 0)
+                .flatMap(rows -> outbox(OutboxMessage.Type.BOOKED, id, showtimeId, userId, seatNumber, priceCents)
+                        .thenReturn(id));
+        return lockSeat(showtimeId, seatNumber)
+                .then(insert)
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Delete the showtime's bookings and insert their CANCELLED outbox
+     * events, in the caller's transaction, after the row lock on the
+     * showtime. Like ShowtimeService.delete, with the showtime lock of
+     * popcorn.seat-locks.mode=advisory.
+     *
+     * @return The released seats, to publish once the transaction commits.
+     */
+    public Mono<List<SeatReleased>> deleteByShowtimeId(Long showtimeId) {
+        Mono<List<SeatReleased>> released = databaseClient.sql("SELECT id, user_id, seat_number, booking_time, "
+                        + "price_cents FROM bookings WHERE showtime_id = :showtimeId")
+                .bind("showtimeId", showtimeId)
+                .map(row -> new SeatReleased(row.get("id", UUID.class), showtimeId,
+                        row.get("seat_number", Integer.class), row.get("user_id", UUID.class),
+                        row.get("booking_time", LocalDateTime.class), row.get("price_cents", Long.class)))
+                .all()
+                .collectList();
+        return lockShowtime(showtimeId)
+                .then(released)
+                .flatMap(seats -> databaseClient.sql("DELETE FROM bookings WHERE showtime_id = :showtimeId")
+                        .bind("showtimeId", showtimeId)
+                        .then()
+                        .thenMany(Flux.fromIterable(seats).concatMap(seat -> outbox(OutboxMessage.Type.CANCELLED, seat.bookingId(),
+                                showtimeId, seat.userId(), seat.seatNumber(), seat.priceCents())))
+                        .then(Mono.just(seats)));
+    }
+
+    private Mono<Void> outbox(OutboxMessage.Type eventType, UUID bookingId, long showtimeId, UUID userId, int seatNumber,
+            Long priceCents) {
+        GenericExecuteSpec insert = databaseClient.sql("INSERT INTO booking_outbox "
+                        + "(event_type, booking_id, showtime_id, user_id, seat_number, price_cents) "
+                        + "VALUES (:eventType, :id, :showtimeId, :userId, :seat, :priceCents)")
+                .bind("eventType", eventType.name())
+                .bind("id", bookingId)
+                .bind("showtimeId", showtimeId)
+                .bind("userId", userId)
+                .bind("seat", seatNumber);
+        return (priceCents == null ? insert.bindNull("priceCents", Long.class) : insert.bind("priceCents", priceCents))
+                .then();
+    }
+
+    private Mono<Void> lockShowtime(Long showtimeId) {
+        if (!"advisory".equals(seatLockMode)) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT pg_advisory_xact_lock(:showtimeKey)")
+                .bind("showtimeKey", SeatLocks.showtimeKey(showtimeId))
+                .then();
+    }
+
+    private Mono<Void> lockSeat(Long showtimeId, int seatNumber) {
+        if (!"advisory".equals(seatLockMode)) {
+            return Mono.empty();
+        }
+        // Like AdvisorySeatLocks; the select list is evaluated left to right
+        return databaseClient.sql("SELECT pg_advisory_xact_lock_shared(:showtimeKey), "
+                        + "pg_advisory_xact_lock(:seatKey)")
+                .bind("showtimeKey", SeatLocks.showtimeKey(showtimeId))
+                .bind("seatKey", SeatLocks.seatKey(showtimeId, seatNumber))
+                .then();
+    }
+}
@@ -0,0 +1,96 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Disposable;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * The reactive profile: the README's /movies, /showtimes and /bookings
+ * contracts served by WebFlux handlers on a few Netty event-loop threads,
+ * with R2DBC instead of JPA on the request path.
+ *
+ * JPA stays up for everything off the request path (index loading, the test
+ * fixtures), so both stacks share one schema. The connection pool is not a
+ * bean on purpose: a ConnectionFactory bean would make Boot add an R2DBC
+ * transaction manager next to the JPA one, and run schema.sql through R2DBC.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfig implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConfig.class);
+
+    @Value("${popcorn.reactive.event-loop-threads:2}")
+    private int eventLoopThreads;
+
+    private ConnectionFactory connectionFactory;
+    private LoopResources loopResources;
+
+    @Bean
+    public DatabaseClient databaseClient(R2dbcProperties r2dbcProperties) {
+        connectionFactory = ConnectionFactoryBuilder.withUrl(r2dbcProperties.getUrl())
+                .username(r2dbcProperties.getUsername())
+                .password(r2dbcProperties.getPassword())
+                .build();
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    // Not a transaction manager bean, for the same reason as the pool
+    @Bean
+    public TransactionalOperator transactionalOperator(DatabaseClient databaseClient) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(databaseClient.getConnectionFactory()));
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        loopResources = LoopResources.create("popcorn-http", eventLoopThreads, true);
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.runOn(loopResources));
+        logger.info("[ReactiveConfig] INFO - Serving HTTP on {} event-loop thread(s).", eventLoopThreads);
+        return factory;
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> routes(MovieHandler movies, ShowtimeHandler showtimes,
+            BookingHandler bookings) {
+        return RouterFunctions.route()
+                .GET("/movies/all", movies::getAllMovies)
+                .POST("/movies", movies::addMovie)
+                .POST("/movies/update/{movieTitle}", movies::updateMovie)
+                .DELETE("/movies/{movieTitle}", movies::deleteMovie)
+                .GET("/showtimes/{id}", showtimes::getShowtime)
+                .POST("/showtimes", showtimes::createShowtime)
+                .POST("/showtimes/update/{id}", showtimes::updateShowtime)
+                .DELETE("/showtimes/{id}", showtimes::deleteShowtime)
+                .POST("/bookings", bookings::bookTicket)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionFactory instanceof Disposable pool) {
+            pool.dispose();
+        }
+        if (loopResources != null) {
+            loopResources.dispose();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * R2DBC access to the movies table, mapped onto the same {@link Movie} class
+ * the JPA repository uses so the JSON stays identical.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMovieRepository {
+
+    private static final String COLUMNS = "id, title, genre, duration, rating, release_year";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Movie> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM movies ORDER BY id")
+                .map(ReactiveMovieRepository::toMovie)
+                .all();
+    }
+
+    public Mono<Movie> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM movies WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveMovieRepository::toMovie)
+                .one();
+    }
+
+    public Mono<Movie> findByTitle(String title) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM movies WHERE title = :title")
+                .bind("title", title)
+                .map(ReactiveMovieRepository::toMovie)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM movies WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Insert a movie and return its generated ID.
+     */
+    public Mono<Long> insert(Movie movie) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                "INSERT INTO movies (title, genre, duration, rating, release_year) "
+                        + "VALUES (:title, :genre, :duration, :rating, :releaseYear)")
+                .filter(statement -> statement.returnGeneratedValues("id"));
+        return bindColumns(spec, movie)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<Long> update(Movie movie) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                "UPDATE movies SET title = :title, genre = :genre, duration = :duration, rating = :rating, "
+                        + "release_year = :releaseYear WHERE id = :id")
+                .bind("id", movie.getId());
+        return bindColumns(spec, movie).fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM movies WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindColumns(DatabaseClient.GenericExecuteSpec spec, Movie movie) {
+        spec = spec.bind("title", movie.getTitle());
+        spec = movie.getGenre() == null ? spec.bindNull("genre", String.class) : spec.bind("genre", movie.getGenre());
+        spec = movie.getDuration() == null
+                ? spec.bindNull("duration", Integer.class)
+                : spec.bind("duration", movie.getDuration());
+        spec = movie.getRating() == null
+                ? spec.bindNull("rating", BigDecimal.class)
+                : spec.bind("rating", BigDecimal.valueOf(movie.getRating()));
+        return movie.getReleaseYear() == null
+                ? spec.bindNull("releaseYear", Integer.class)
+                : spec.bind("releaseYear", movie.getReleaseYear());
+    }
+
+    private static Movie toMovie(Readable row) {
+        BigDecimal rating = row.get("rating", BigDecimal.class);
+        Movie movie = new Movie(
+                row.get("title", String.class),
+                row.get("genre", String.class),
+                row.get("duration", Integer.class),
+                rating == null ? null : rating.doubleValue(),
+                row.get("release_year", Integer.class));
+        movie.setId(row.get("id", Long.class));
+        return movie;
+    }
+}
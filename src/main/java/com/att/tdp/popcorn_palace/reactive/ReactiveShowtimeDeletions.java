@@ -0,0 +1,102 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes showtimes, alone or with their movie, the way ShowtimeService does
+ * on the servlet path: each showtime's row is locked, its bookings are
+ * deleted with a CANCELLED outbox event each, and after the commit its
+ * waitlist ends, a {@link SeatReleased} is published per booking and its
+ * seat map is dropped.
+ *
+ * The listeners of those events are not all non-blocking, so they run on
+ * the bounded elastic scheduler, not the event loop.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShowtimeDeletions {
+
+    @Autowired
+    private ReactiveShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReactiveMovieRepository movieRepository;
+
+    @Autowired
+    private ReactiveBookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private Waitlists waitlists;
+
+    @Autowired
+    private SeatMaps seatMaps;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @return false if the showtime does not exist.
+     */
+    public Mono<Boolean> deleteShowtime(long showtimeId) {
+        return showtimeRepository.lockById(showtimeId)
+                .filter(Boolean::booleanValue)
+                .flatMap(found -> deleteLocked(showtimeId))
+                .as(transactionalOperator::transactional)
+                .publishOn(Schedulers.boundedElastic())
+                .map(released -> {
+                    cleanUp(showtimeId, released);
+                    return true;
+                })
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Delete the movie and its showtimes, in one transaction.
+     *
+     * @return false if the movie does not exist.
+     */
+    public Mono<Boolean> deleteMovie(long movieId) {
+        return showtimeRepository.findIdsByMovieId(movieId)
+                .collectList() // Read to the end before the next statement on the connection
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(showtimeId -> showtimeRepository.lockById(showtimeId)
+                        .filter(Boolean::booleanValue)
+                        .flatMap(found -> deleteLocked(showtimeId))
+                        .map(released -> Map.entry(showtimeId, released)))
+                .collectList()
+                .flatMap(deleted -> movieRepository.deleteById(movieId).map(rows -> Map.entry(rows > 0, deleted)))
+                .as(transactionalOperator::transactional)
+                .publishOn(Schedulers.boundedElastic())
+                .map(result -> {
+                    result.getValue().forEach(showtime -> cleanUp(showtime.getKey(), showtime.getValue()));
+                    return result.getKey();
+                });
+    }
+
+    private Mono<List<SeatReleased>> deleteLocked(long showtimeId) {
+        return bookingRepository.deleteByShowtimeId(showtimeId)
+                .flatMap(released -> showtimeRepository.deleteById(showtimeId).thenReturn(released));
+    }
+
+    private void cleanUp(long showtimeId, List<SeatReleased> released) {
+        waitlists.showtimeDeleted(showtimeId); // First, or the released seats would be offered to its waiters
+        released.forEach(eventPublisher::publishEvent);
+        seatMaps.showtimeDeleted(showtimeId);
+    }
+}
@@ -0,0 +1,125 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC access to the showtimes table.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShowtimeRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Showtime> findById(Long id) {
+        return databaseClient.sql("SELECT id, movie_id, theater, start_time, end_time, price "
+                        + "FROM showtimes WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveShowtimeRepository::toShowtime)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM showtimes WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Same predicate as ShowtimeRepository.findOverlappingShowtimes, but only
+     * asks whether any row exists.
+     */
+    public Mono<Boolean> existsOverlapping(String theater, LocalDateTime startTime, LocalDateTime endTime,
+            Long ignoreId) {
+        return databaseClient.sql("SELECT 1 FROM showtimes WHERE theater = :theater AND id <> :ignoreId "
+                        + "AND :startTime < end_time AND start_time < :endTime LIMIT 1")
+                .bind("theater", theater)
+                .bind("ignoreId", ignoreId)
+                .bind("startTime", startTime)
+                .bind("endTime", endTime)
+                .map(row -> true)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Insert a showtime and return its generated ID.
+     */
+    public Mono<Long> insert(Showtime showtime) {
+        return databaseClient.sql("INSERT INTO showtimes (movie_id, theater, start_time, end_time, price) "
+                        + "VALUES (:movieId, :theater, :startTime, :endTime, :price)")
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("movieId", showtime.getMovieId())
+                .bind("theater", showtime.getTheater())
+                .bind("startTime", showtime.getStartTime())
+                .bind("endTime", showtime.getEndTime())
+                .bind("price", showtime.getPrice())
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<Long> update(Showtime showtime) {
+        return databaseClient.sql("UPDATE showtimes SET movie_id = :movieId, theater = :theater, "
+                        + "start_time = :startTime, end_time = :endTime, price = :price WHERE id = :id")
+                .bind("id", showtime.getId())
+                .bind("movieId", showtime.getMovieId())
+                .bind("theater", showtime.getTheater())
+                .bind("startTime", showtime.getStartTime())
+                .bind("endTime", showtime.getEndTime())
+                .bind("price", showtime.getPrice())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Lock the showtime's row until the transaction ends (see
+     * ShowtimeRepository.findByIdForUpdate).
+     *
+     * @return false if it does not exist.
+     */
+    public Mono<Boolean> lockById(Long id) {
+        return databaseClient.sql("SELECT id FROM showtimes WHERE id = :id FOR UPDATE")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .hasElement();
+    }
+
+    public Flux<Long> findIdsByMovieId(Long movieId) {
+        return databaseClient.sql("SELECT id FROM showtimes WHERE movie_id = :movieId")
+                .bind("movieId", movieId)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM showtimes WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Showtime toShowtime(Readable row) {
+        Showtime showtime = new Showtime(
+                row.get("movie_id", Long.class),
+                row.get("theater", String.class),
+                row.get("start_time", LocalDateTime.class),
+                row.get("end_time", LocalDateTime.class),
+                row.get("price", BigDecimal.class));
+        showtime.setId(row.get("id", Long.class));
+        return showtime;
+    }
+}
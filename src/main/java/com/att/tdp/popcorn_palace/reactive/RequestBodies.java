@@ -0,0 +1,68 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import com.att.tdp.popcorn_palace.exception.GlobalExceptionHandler;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Request body and error handling shared by the handlers, producing the same
+ * status codes and messages as the servlet controllers and
+ * {@link GlobalExceptionHandler}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+class RequestBodies {
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private GlobalExceptionHandler exceptionHandler;
+
+    /**
+     * Read and validate a JSON body, then continue with it. Validation errors
+     * become a 400 like @Valid on a controller argument.
+     */
+    <T> Mono<ServerResponse> withValid(ServerRequest request, Class<T> type,
+            Function<T, Mono<ServerResponse>> handler) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .flatMap(body -> {
+                    Set<ConstraintViolation<T>> violations = validator.validate(body);
+                    if (!violations.isEmpty()) {
+                        String messages = violations.stream()
+                                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                                .collect(Collectors.joining(", "));
+                        return text(ServerResponse.badRequest(), "Validation failed: " + messages);
+                    }
+                    return handler.apply(body);
+                });
+    }
+
+    /**
+     * DB constraint violations, mapped exactly like the servlet stack does.
+     */
+    Mono<ServerResponse> constraintViolated(DataIntegrityViolationException e) {
+        ResponseEntity<String> response = exceptionHandler.handleDataIntegrityErrors(e);
+        return text(ServerResponse.status(response.getStatusCode()), response.getBody());
+    }
+
+    static Mono<ServerResponse> text(ServerResponse.BodyBuilder status, String body) {
+        return status.contentType(MediaType.TEXT_PLAIN).bodyValue(body);
+    }
+}
@@ -0,0 +1,161 @@
+package com.att.tdp.popcorn_palace.reactive;
+
+import com.att.tdp.popcorn_palace.logging.LogSampling;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.model.showtime.ShowtimeRequest;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+import static com.att.tdp.popcorn_palace.reactive.RequestBodies.text;
+
+/**
+ * Reactive counterpart of ShowtimeController.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ShowtimeHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShowtimeHandler.class);
+
+    @Autowired
+    private ReactiveShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReactiveMovieRepository movieRepository;
+
+    @Autowired
+    private RequestBodies requestBodies;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private ReactiveShowtimeDeletions showtimeDeletions;
+
+    /**
+     * GET /showtimes/{id}
+     */
+    public Mono<ServerResponse> getShowtime(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        logger.info(LogSampling.SAMPLED, "[ShowtimeHandler] INFO - Fetching showtime id={}", id);
+
+        return showtimeRepository.findById(id)
+                .flatMap(showtime -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(showtime))
+                .switchIfEmpty(Mono.defer(() -> {
+                    String msg = "Showtime with ID " + id + " not found.";
+                    logger.warn("[ShowtimeHandler] WARN - {}", msg);
+                    return text(ServerResponse.status(HttpStatus.NOT_FOUND), msg);
+                }));
+    }
+
+    /**
+     * POST /showtimes
+     */
+    public Mono<ServerResponse> createShowtime(ServerRequest request) {
+        return requestBodies.withValid(request, ShowtimeRequest.class, showtimeDto -> {
+            logger.info("[ShowtimeHandler] INFO - Request to create a new showtime");
+            return validate(showtimeDto, 0L, "Another showtime overlaps in theater '")
+                    .switchIfEmpty(Mono.defer(() -> showtimeRepository.insert(toShowtime(showtimeDto, null))
+                            .flatMap(id -> {
+                                String msg = "Successfully created showtime with id: " + id;
+                                logger.info("[ShowtimeHandler] INFO - {}", msg);
+                                return text(ServerResponse.ok(), msg);
+                            })))
+                    .onErrorResume(DataIntegrityViolationException.class, requestBodies::constraintViolated);
+        });
+    }
+
+    /**
+     * POST /showtimes/update/{id}
+     */
+    public Mono<ServerResponse> updateShowtime(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return requestBodies.withValid(request, ShowtimeRequest.class, showtimeDto -> {
+            logger.info("[ShowtimeHandler] INFO - Request to update showtime id={}", id);
+            Showtime updated = toShowtime(showtimeDto, id);
+            return showtimeRepository.findById(id)
+                    .flatMap(previous -> validate(showtimeDto, id, "Overlapping showtime in theater '")
+                            .switchIfEmpty(Mono.defer(() -> showtimeRepository.update(updated)
+                                    .then(Mono.defer(() -> {
+                                        salesRollups.showtimeChanged(id, previous.getMovieId(), previous.getPrice(),
+                                                updated.getMovieId(), updated.getPrice());
+                                        String msg = "Showtime id=" + id + " updated successfully.";
+                                        logger.info("[ShowtimeHandler] SUCCESS - {}", msg);
+                                        return text(ServerResponse.ok(), msg);
+                                    })))))
+                    .switchIfEmpty(Mono.defer(() -> {
+                        String msg = "Showtime with ID " + id + " not found. Update aborted.";
+                        logger.warn("[ShowtimeHandler] WARN - {}", msg);
+                        return text(ServerResponse.status(HttpStatus.NOT_FOUND), msg);
+                    }))
+                    .onErrorResume(DataIntegrityViolationException.class, requestBodies::constraintViolated);
+        });
+    }
+
+    /**
+     * DELETE /showtimes/{id}
+     */
+    public Mono<ServerResponse> deleteShowtime(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        logger.info("[ShowtimeHandler] INFO - Deleting showtime id={}", id);
+
+        // Cancels its bookings too
+        return showtimeDeletions.deleteShowtime(id).flatMap(deleted -> {
+            if (!deleted) {
+                String msg = "Showtime with ID " + id + " not found. Nothing to delete.";
+                logger.warn("[ShowtimeHandler] WARN - {}", msg);
+                return text(ServerResponse.status(HttpStatus.NOT_FOUND), msg);
+            }
+            salesRollups.requestReconcile();
+            String msg = "Showtime id=" + id + " was deleted successfully.";
+            logger.info("[ShowtimeHandler] SUCCESS - {}", msg);
+            return text(ServerResponse.ok(), msg);
+        });
+    }
+
+    /**
+     * The movie, time range and overlap checks of create and update, in the
+     * controller's order. Empty when the showtime may be saved.
+     */
+    private Mono<ServerResponse> validate(ShowtimeRequest showtimeDto, Long ignoreId, String overlapMessage) {
+        return movieRepository.existsById(showtimeDto.getMovieId()).flatMap(movieExists -> {
+            if (!movieExists) {
+                logger.warn("Movie with id={} not found", showtimeDto.getMovieId());
+                return text(ServerResponse.badRequest(), "No movie found with id=" + showtimeDto.getMovieId());
+            }
+            if (!showtimeDto.getEndTime().isAfter(showtimeDto.getStartTime())) {
+                logger.warn("endTime must be after startTime");
+                return text(ServerResponse.badRequest(), "endTime must be after startTime");
+            }
+            return showtimeRepository.existsOverlapping(showtimeDto.getTheater(), showtimeDto.getStartTime(),
+                            showtimeDto.getEndTime(), ignoreId)
+                    .flatMap(overlap -> {
+                        if (!overlap) {
+                            return Mono.empty();
+                        }
+                        logger.warn("Overlapping showtime in theater '{}'", showtimeDto.getTheater());
+                        return text(ServerResponse.status(HttpStatus.CONFLICT),
+                                overlapMessage + showtimeDto.getTheater() + "'.");
+                    });
+        });
+    }
+
+    private static Showtime toShowtime(ShowtimeRequest dto, Long id) {
+        Showtime showtime = new Showtime(dto.getMovieId(), dto.getTheater(), dto.getStartTime(), dto.getEndTime(),
+                dto.getPrice() == null ? BigDecimal.ZERO : dto.getPrice());
+        showtime.setId(id);
+        return showtime;
+    }
+}
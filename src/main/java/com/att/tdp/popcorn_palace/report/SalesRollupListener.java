@@ -0,0 +1,34 @@
+package com.att.tdp.popcorn_palace.report;
+
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener on showtimes and movies. A showtime's price change is
+ * applied to the rollups as a difference; a showtime moved to another movie
+ * or a deletion (which takes bookings with it) changes revenue the
+ * incremental counters cannot attribute, so the rollups are reconciled.
+ */
+public class SalesRollupListener {
+
+    // Not every context has the rollups (e.g. @DataJpaTest slices)
+    @Autowired
+    private ObjectProvider<SalesRollups> rollups;
+
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        // Renaming a movie moves no revenue
+        if (entity instanceof Showtime showtime) {
+            rollups.ifAvailable(salesRollups -> salesRollups.showtimeChanged(showtime.getId(),
+                    showtime.loadedMovieId(), showtime.loadedPrice(), showtime.getMovieId(), showtime.getPrice()));
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        rollups.ifAvailable(SalesRollups::requestReconcile);
+    }
+}
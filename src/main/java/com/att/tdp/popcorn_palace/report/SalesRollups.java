@@ -0,0 +1,464 @@
+package com.att.tdp.popcorn_palace.report;
+
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.model.report.SalesTotals;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sold seats and revenue per showtime, per movie and per day (of sale),
+ * maintained incrementally instead of aggregating bookings on every read.
+ *
+ * Every committed booking or cancellation adds to striped LongAdder deltas,
+ * so concurrent bookings never contend on a counter. A scheduled flush moves
+ * the deltas into the sales_rollups table (adding, so several instances can
+ * share it) and then reads the table back, which brings in what the other
+ * instances flushed; reads are the flushed total plus the pending delta, both
+ * in memory.
+ *
+ * Reconciliation recomputes the totals from bookings and showtimes, in a
+ * read-only transaction (a replica when configured), and overwrites table and
+ * memory. It runs at startup, on popcorn.rollups.reconcile-cron, and soon
+ * after a showtime moves to another movie or a showtime or movie is deleted
+ * (which moves revenue that the counters cannot attribute). Revenue is the
+ * sum of the prices quoted at booking time, in cents; bookings without a
+ * quote count at the showtime's current price, so a price change adds the
+ * difference for the showtime's unquoted seats.
+ *
+ * Instances coordinate through the sales_rollup_locks rows. Only the instance
+ * holding the RECONCILE row reconciles; the others skip theirs. Each
+ * reconciliation bumps the generation of the FLUSH row, which every flush
+ * locks and compares with the generation its deltas were counted under: the
+ * deltas of an older generation are dropped, as the recount has them.
+ */
+@Component
+public class SalesRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollups.class);
+
+    enum Dimension {
+        SHOWTIME, MOVIE, DAY
+    }
+
+    private static final String UPDATE_SQL = "UPDATE sales_rollups SET seats = seats + ?, "
+            + "revenue_cents = revenue_cents + ? WHERE dimension = ? AND rollup_key = ?";
+    private static final String INSERT_SQL = "INSERT INTO sales_rollups (dimension, rollup_key, seats, revenue_cents) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT dimension, rollup_key, seats, revenue_cents FROM sales_rollups";
+    private static final String LOCK_FLUSH_SQL = "SELECT generation FROM sales_rollup_locks WHERE name = 'FLUSH' "
+            + "FOR UPDATE";
+    private static final String TRY_LOCK_RECONCILE_SQL = "SELECT generation FROM sales_rollup_locks "
+            + "WHERE name = 'RECONCILE' FOR UPDATE SKIP LOCKED";
+    private static final String BUMP_GENERATION_SQL = "UPDATE sales_rollup_locks SET generation = generation + 1 "
+            + "WHERE name = 'FLUSH'";
+
+    /**
+     * Counters of one rollup key: deltas not yet in the table, and the total
+     * that is.
+     */
+    static final class Tally {
+        final LongAdder pendingSeats = new LongAdder();
+        final LongAdder pendingRevenueCents = new LongAdder();
+        volatile long flushedSeats;
+        volatile long flushedRevenueCents;
+
+        SalesTotals totals() {
+            return new SalesTotals(flushedSeats + pendingSeats.sum(),
+                    BigDecimal.valueOf(flushedRevenueCents + pendingRevenueCents.sum(), 2));
+        }
+    }
+
+    private final Map<Dimension, Map<String, Tally>> tallies = Map.of(
+            Dimension.SHOWTIME, new ConcurrentHashMap<>(),
+            Dimension.MOVIE, new ConcurrentHashMap<>(),
+            Dimension.DAY, new ConcurrentHashMap<>());
+
+    /**
+     * A committed price change of a showtime, applied at the next flush.
+     */
+    private record PriceChange(long showtimeId, long movieId, long oldCents, long newCents) {
+    }
+
+    /**
+     * Deltas taken out of a tally by a flush, to put back if the write fails.
+     */
+    private record Delta(Tally tally, long seats, long revenueCents) {
+    }
+
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+    private final Queue<PriceChange> priceChanges = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The reconciliation the pending deltas were counted after (guarded by
+     * this).
+     */
+    private long generation;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * A seat was booked. Counted once the surrounding transaction (if any)
+     * commits.
+     *
+     * @param bookingTime The booking_time written with the booking, which
+     *                    the recount reads its day from.
+     */
+    public void recordBooking(long showtimeId, long movieId, long priceCents, LocalDateTime bookingTime) {
+        LocalDate day = bookingTime.toLocalDate();
+        afterCommit(() -> add(showtimeId, movieId, day, 1, priceCents));
+    }
+
+    /**
+     * A booked seat was released. Counted once the surrounding transaction
+     * (if any) commits.
+     */
+    public void recordCancellation(long showtimeId, long movieId, long priceCents, LocalDate day) {
+        afterCommit(() -> add(showtimeId, movieId, day, -1, -priceCents));
+    }
+
+    /**
+     * A cancelled booking gives back its seat and the price it was sold at
+     * (the showtime's current price if it has no quote), on the day it was
+     * sold.
+     */
+    @EventListener
+    public void onSeatReleased(SeatReleased released) {
+        if (released.bookingTime() == null) {
+            requestReconcile(); // Not read back yet (booked and cancelled in one transaction)
+            return;
+        }
+        showtimeRepository.findById(released.showtimeId()).ifPresentOrElse(
+                showtime -> recordCancellation(released.showtimeId(), showtime.getMovieId(),
+                        released.priceCents() != null ? released.priceCents() : toCents(showtime.getPrice()),
+                        released.bookingTime().toLocalDate()),
+                this::requestReconcile);
+    }
+
+    /**
+     * A showtime was updated. A new price is applied to its seats sold
+     * without a quote at the next flush, once the surrounding transaction (if
+     * any) commits; a new movie takes a reconciliation.
+     *
+     * @param oldMovieId null if the showtime's previous state is not known,
+     *                   which also reconciles.
+     */
+    public void showtimeChanged(long showtimeId, Long oldMovieId, BigDecimal oldPrice, long movieId,
+            BigDecimal price) {
+        if (oldMovieId == null || oldPrice == null || oldMovieId != movieId) {
+            requestReconcile();
+        } else if (oldPrice.compareTo(price) != 0) {
+            PriceChange change = new PriceChange(showtimeId, movieId, toCents(oldPrice), toCents(price));
+            afterCommit(() -> priceChanges.add(change));
+        }
+    }
+
+    /**
+     * Reconcile at the next flush, e.g. because a showtime was deleted.
+     */
+    public void requestReconcile() {
+        reconcileRequested.set(true);
+    }
+
+    boolean isReconcileRequested() {
+        return reconcileRequested.get();
+    }
+
+    /**
+     * Seats of the showtime sold so far, as counted in memory (cheap enough
+     * for the booking path).
+     */
+    public long seatsSold(long showtimeId) {
+        Tally tally = tallies.get(Dimension.SHOWTIME).get(Long.toString(showtimeId));
+        return tally == null ? 0 : tally.flushedSeats + tally.pendingSeats.sum();
+    }
+
+    public SalesTotals forShowtime(long showtimeId) {
+        return totals(Dimension.SHOWTIME, Long.toString(showtimeId));
+    }
+
+    public SalesTotals forMovie(long movieId) {
+        return totals(Dimension.MOVIE, Long.toString(movieId));
+    }
+
+    public SalesTotals forDay(LocalDate day) {
+        return totals(Dimension.DAY, day.toString());
+    }
+
+    /**
+     * Add the pending deltas to the rollup table, then read the totals back
+     * from it. A failed write puts the deltas back for the next attempt.
+     *
+     * The write holds the FLUSH row, so it runs entirely before or after a
+     * reconciliation's. If another instance has reconciled since this one
+     * last flushed, the deltas are dropped instead.
+     */
+    @Scheduled(fixedDelayString = "${popcorn.rollups.flush-interval:5s}",
+            initialDelayString = "${popcorn.rollups.flush-interval:5s}")
+    public synchronized void flush() {
+        if (reconcileRequested.getAndSet(false)) {
+            reconcile();
+            return;
+        }
+        PriceChange change;
+        while ((change = priceChanges.poll()) != null) {
+            applyPriceChange(change);
+        }
+        List<Delta> written = new ArrayList<>();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                long current = jdbcTemplate.queryForObject(LOCK_FLUSH_SQL, Long.class);
+                if (current != generation) {
+                    dropPending();
+                    logger.info("[SalesRollups] INFO - Reconciled elsewhere (generation {}), dropped pending deltas.",
+                            current);
+                    generation = current;
+                    return;
+                }
+                for (Map.Entry<Dimension, Map<String, Tally>> dimension : tallies.entrySet()) {
+                    for (Map.Entry<String, Tally> entry : dimension.getValue().entrySet()) {
+                        Tally tally = entry.getValue();
+                        long seats = tally.pendingSeats.sumThenReset();
+                        long revenueCents = tally.pendingRevenueCents.sumThenReset();
+                        if (seats == 0 && revenueCents == 0) {
+                            continue;
+                        }
+                        // Counted as flushed before the write, so reads see it while the write runs
+                        tally.flushedSeats += seats;
+                        tally.flushedRevenueCents += revenueCents;
+                        written.add(new Delta(tally, seats, revenueCents));
+                        write(dimension.getKey(), entry.getKey(), seats, revenueCents);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            for (Delta delta : written) {
+                delta.tally().pendingSeats.add(delta.seats());
+                delta.tally().pendingRevenueCents.add(delta.revenueCents());
+                delta.tally().flushedSeats -= delta.seats();
+                delta.tally().flushedRevenueCents -= delta.revenueCents();
+            }
+            logger.warn("[SalesRollups] WARN - Flush failed, retrying later: {}", e.toString());
+            return;
+        }
+        // From the primary: outside a read-only transaction
+        replaceFlushed(jdbcTemplate.query(SELECT_SQL, rs -> {
+            Map<Dimension, Map<String, long[]>> table = emptySums();
+            while (rs.next()) {
+                table.get(Dimension.valueOf(rs.getString(1))).put(rs.getString(2),
+                        new long[] { rs.getLong(3), rs.getLong(4) });
+            }
+            return table;
+        }));
+    }
+
+    /**
+     * Recompute every rollup from the bookings and replace table and memory,
+     * unless another instance is reconciling already.
+     *
+     * Pending deltas are dropped first: they belong to committed bookings,
+     * which the recount includes. Bookings committed while the recount runs
+     * may be counted twice until the next reconciliation; on the other
+     * instances, bookings committed after the recount but before their next
+     * flush may be missed until then.
+     */
+    @Scheduled(cron = "${popcorn.rollups.reconcile-cron:0 30 3 * * *}")
+    @EventListener(ApplicationStartedEvent.class)
+    public synchronized void reconcile() {
+        reconcileRequested.set(false);
+        Map<Dimension, Map<String, long[]>> truth = new TransactionTemplate(transactionManager).execute(status -> {
+            if (jdbcTemplate.queryForList(TRY_LOCK_RECONCILE_SQL, Long.class).isEmpty()) {
+                return null;
+            }
+            dropPending();
+            Map<Dimension, Map<String, long[]>> recounted = recount();
+
+            jdbcTemplate.update(BUMP_GENERATION_SQL); // Waits for running flushes, and holds off new ones
+            jdbcTemplate.update("DELETE FROM sales_rollups");
+            List<Object[]> rows = new ArrayList<>();
+            recounted.forEach((dimension, byKey) -> byKey.forEach((key, sums) ->
+                    rows.add(new Object[] { dimension.name(), key, sums[0], sums[1] })));
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            generation = jdbcTemplate.queryForObject(LOCK_FLUSH_SQL, Long.class);
+            return recounted;
+        });
+        if (truth == null) {
+            logger.info("[SalesRollups] INFO - Another instance is reconciling, skipped.");
+            return;
+        }
+
+        int drifted = replaceFlushed(truth);
+        logger.info("[SalesRollups] INFO - Reconciled {} showtimes, {} movies, {} days ({} drifted).",
+                truth.get(Dimension.SHOWTIME).size(), truth.get(Dimension.MOVIE).size(),
+                truth.get(Dimension.DAY).size(), drifted);
+    }
+
+    private Map<Dimension, Map<String, long[]>> recount() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW); // Not the locking one
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Map<Long, ShowtimeRepository.PriceEntry> showtimes = new HashMap<>();
+            showtimeRepository.findAllPriceEntries().forEach(entry -> showtimes.put(entry.getId(), entry));
+
+            Map<Dimension, Map<String, long[]>> sums = emptySums();
+            for (BookingRepository.SeatCount count : bookingRepository.countSeatsByShowtimeAndDay()) {
+                ShowtimeRepository.PriceEntry showtime = showtimes.get(count.getShowtimeId());
+                if (showtime == null) {
+                    continue; // Orphan on a booking shard, its showtime is gone
+                }
+                long quotedCents = count.getQuotedCents() == null ? 0 : count.getQuotedCents();
+                long revenueCents = quotedCents
+                        + (count.getSeats() - count.getQuotedSeats()) * toCents(showtime.getPrice());
+                accumulate(sums.get(Dimension.SHOWTIME), showtime.getId().toString(), count.getSeats(), revenueCents);
+                accumulate(sums.get(Dimension.MOVIE), showtime.getMovieId().toString(), count.getSeats(), revenueCents);
+                accumulate(sums.get(Dimension.DAY), count.getDay().toString(), count.getSeats(), revenueCents);
+            }
+            return sums;
+        });
+    }
+
+    /**
+     * Add the difference a price change makes to the showtime's seats sold
+     * without a quote, on the days they were sold.
+     */
+    private void applyPriceChange(PriceChange change) {
+        for (BookingRepository.SeatCount count : bookingRepository.countSeatsByDay(change.showtimeId())) {
+            long unquotedSeats = count.getSeats() - count.getQuotedSeats();
+            if (unquotedSeats > 0) {
+                add(change.showtimeId(), change.movieId(), count.getDay(), 0,
+                        unquotedSeats * (change.newCents() - change.oldCents()));
+            }
+        }
+    }
+
+    private void dropPending() {
+        priceChanges.clear(); // The recount prices them
+        tallies.values().forEach(byKey -> byKey.values().forEach(tally -> {
+            tally.pendingSeats.reset();
+            tally.pendingRevenueCents.reset();
+        }));
+    }
+
+    private static Map<Dimension, Map<String, long[]>> emptySums() {
+        Map<Dimension, Map<String, long[]>> sums = new HashMap<>();
+        for (Dimension dimension : Dimension.values()) {
+            sums.put(dimension, new HashMap<>());
+        }
+        return sums;
+    }
+
+    /**
+     * Set the flushed totals to {@code sums} (seats and revenue per key);
+     * keys missing from it are zeroed.
+     *
+     * @return how many tallies had drifted from it.
+     */
+    private int replaceFlushed(Map<Dimension, Map<String, long[]>> sums) {
+        int drifted = 0;
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, Tally> byKey = tallies.get(dimension);
+            Map<String, long[]> expected = sums.get(dimension);
+            for (Map.Entry<String, Tally> entry : byKey.entrySet()) {
+                drifted += set(entry.getValue(), expected.getOrDefault(entry.getKey(), new long[2]));
+            }
+            for (Map.Entry<String, long[]> entry : expected.entrySet()) {
+                if (!byKey.containsKey(entry.getKey())) {
+                    set(byKey.computeIfAbsent(entry.getKey(), key -> new Tally()), entry.getValue());
+                }
+            }
+        }
+        return drifted;
+    }
+
+    private static void accumulate(Map<String, long[]> sums, String key, long seats, long revenueCents) {
+        long[] sum = sums.computeIfAbsent(key, k -> new long[2]);
+        sum[0] += seats;
+        sum[1] += revenueCents;
+    }
+
+    /**
+     * @return 1 if the tally had drifted from the recount, else 0.
+     */
+    private static int set(Tally tally, long[] sums) {
+        int drifted = tally.flushedSeats != sums[0] || tally.flushedRevenueCents != sums[1] ? 1 : 0;
+        tally.flushedSeats = sums[0];
+        tally.flushedRevenueCents = sums[1];
+        return drifted;
+    }
+
+    private void add(long showtimeId, long movieId, LocalDate day, long seats, long revenueCents) {
+        add(Dimension.SHOWTIME, Long.toString(showtimeId), seats, revenueCents);
+        add(Dimension.MOVIE, Long.toString(movieId), seats, revenueCents);
+        add(Dimension.DAY, day.toString(), seats, revenueCents);
+    }
+
+    private void add(Dimension dimension, String key, long seats, long revenueCents) {
+        Tally tally = tallies.get(dimension).computeIfAbsent(key, k -> new Tally());
+        tally.pendingSeats.add(seats);
+        tally.pendingRevenueCents.add(revenueCents);
+    }
+
+    private SalesTotals totals(Dimension dimension, String key) {
+        Tally tally = tallies.get(dimension).get(key);
+        return tally == null ? new SalesTotals(0, BigDecimal.valueOf(0, 2)) : tally.totals();
+    }
+
+    private void write(Dimension dimension, String key, long seats, long revenueCents) {
+        if (jdbcTemplate.update(UPDATE_SQL, seats, revenueCents, dimension.name(), key) == 0) {
+            jdbcTemplate.update(INSERT_SQL, dimension.name(), key, seats, revenueCents);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).longValue();
+    }
+}
@@ -1,15 +1,145 @@
 package com.att.tdp.popcorn_palace.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.booking.UserBooking;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * When sharding is enabled (popcorn.sharding.shards), calls are routed by their
+ * showtimeId parameter or Booking argument; anything else runs on all shards.
+ * Keep the parameter name showtimeId on new showtime-scoped queries.
+ */
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
     /**
      * Check if a seat is already booked for a given showtime.
      */
     boolean existsByShowtimeIdAndSeatNumber(Long showtimeId, int seatNumber);
+
+    /**
+     * Book a seat at the quoted price unless it is already taken, in one
+     * statement. A taken seat (including one lost to a concurrent insert)
+     * updates no row instead of raising a unique violation.
+     *
+     * The booking time is the caller's, so that it can count the booking on
+     * the same day as the reports that read it back.
+     *
+     * @return 1 if the booking was inserted, 0 if the seat was taken.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO bookings (id, showtime_id, user_id, seat_number, price_cents, booking_time) "
+            + "VALUES (:id, :showtimeId, :userId, :seatNumber, :priceCents, :bookingTime) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfSeatFree(UUID id, Long showtimeId, UUID userId, int seatNumber, long priceCents,
+            LocalDateTime bookingTime);
+
+    /**
+     * Cancel a booking if it belongs to the user. Deleting the row is what
+     * frees the seat (the unique constraint no longer holds it), so the owner
+     * check and the release are one statement. showtimeId only routes the
+     * call to the booking's shard.
+     *
+     * @return 1 if the booking was deleted, 0 if it does not exist (any more)
+     *         or belongs to someone else.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id = :id AND b.userId = :userId AND b.showtimeId = :showtimeId")
+    int deleteOwnedBooking(UUID id, UUID userId, Long showtimeId);
+
+    /**
+     * The booked seat numbers of a showtime, to build its seat map.
+     */
+    @Query("SELECT b.seatNumber FROM Booking b WHERE b.showtimeId = :showtimeId")
+    List<Integer> findSeatNumbersByShowtimeId(Long showtimeId);
+
+    /**
+     * All bookings of a showtime, e.g. to cancel them when it is deleted.
+     */
+    List<Booking> findByShowtimeId(Long showtimeId);
+
+    /**
+     * All bookings of a user, across showtimes (and shards).
+     */
+    List<Booking> findByUserId(UUID userId);
+
+    /**
+     * The newest bookings of a user, with showtime and movie, in one query
+     * over the (user_id, booking_time, id) index.
+     *
+     * Joins the showtimes table, so it only works with bookings in the main
+     * database, not on booking shards.
+     */
+    @Query(USER_BOOKING_SELECT + "WHERE b.userId = :userId ORDER BY b.bookingTime DESC, b.id DESC")
+    List<UserBooking> findHistoryByUserId(UUID userId, Limit limit);
+
+    /**
+     * The next page after {@link #findHistoryByUserId}: bookings strictly
+     * older than the (bookingTime, id) key of the last row seen.
+     */
+    @Query(USER_BOOKING_SELECT + "WHERE b.userId = :userId "
+            + "AND (b.bookingTime < :bookingTime OR (b.bookingTime = :bookingTime AND b.id < :bookingId)) "
+            + "ORDER BY b.bookingTime DESC, b.id DESC")
+    List<UserBooking> findHistoryByUserIdBefore(UUID userId, LocalDateTime bookingTime, UUID bookingId,
+            Limit limit);
+
+    String USER_BOOKING_SELECT = "SELECT new com.att.tdp.popcorn_palace.model.booking.UserBooking("
+            + "b.id, b.bookingTime, b.seatNumber, s.id, s.theater, s.startTime, s.endTime, b.priceCents, s.price, "
+            + "m.id, m.title) "
+            + "FROM Booking b JOIN Showtime s ON s.id = b.showtimeId JOIN Movie m ON m.id = s.movieId ";
+
+    /**
+     * Booked seats per showtime and day of sale, and how many of them were
+     * sold at a quoted price for how much, for reconciling the sales rollups.
+     * With sharding each shard answers for its own showtimes.
+     */
+    @Query("SELECT b.showtimeId AS showtimeId, CAST(b.bookingTime AS LocalDate) AS day, COUNT(b) AS seats, "
+            + "COUNT(b.priceCents) AS quotedSeats, SUM(b.priceCents) AS quotedCents "
+            + "FROM Booking b GROUP BY b.showtimeId, CAST(b.bookingTime AS LocalDate)")
+    List<SeatCount> countSeatsByShowtimeAndDay();
+
+    /**
+     * {@link #countSeatsByShowtimeAndDay()} for one showtime.
+     */
+    @Query("SELECT b.showtimeId AS showtimeId, CAST(b.bookingTime AS LocalDate) AS day, COUNT(b) AS seats, "
+            + "COUNT(b.priceCents) AS quotedSeats, SUM(b.priceCents) AS quotedCents "
+            + "FROM Booking b WHERE b.showtimeId = :showtimeId "
+            + "GROUP BY b.showtimeId, CAST(b.bookingTime AS LocalDate)")
+    List<SeatCount> countSeatsByDay(Long showtimeId);
+
+    /**
+     * Remove the bookings of a showtime. The foreign key cascade does this in a
+     * single database, but not for bookings on a shard.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.showtimeId = :showtimeId")
+    int deleteByShowtimeId(Long showtimeId);
+
+    /**
+     * Projection of {@link #countSeatsByShowtimeAndDay()} and
+     * {@link #countSeatsByDay}.
+     */
+    interface SeatCount {
+        Long getShowtimeId();
+
+        LocalDate getDay();
+
+        long getSeats();
+
+        long getQuotedSeats();
+
+        Long getQuotedCents();
+    }
 }
@@ -3,10 +3,13 @@ package com.att.tdp.popcorn_palace.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.att.tdp.popcorn_palace.model.movie.Movie;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface MovieRepository extends JpaRepository<Movie, Long> {
@@ -22,6 +25,9 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     /**
      * Delete a movie by its title.
      *
+     * This is a bulk statement: it skips entity callbacks, so the in-memory
+     * title index is not updated. Prefer deleting by ID.
+     *
      * @param title The title of the movie to delete.
      */
     @Transactional
@@ -36,4 +42,34 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      * @return True if a movie with this title exists; false otherwise.
      */
     boolean existsByTitle(String title);
+
+    /**
+     * Fetch every (id, title, genre) triple without loading full entities.
+     * Used to build the in-memory title and search indexes at startup.
+     */
+    @Query("SELECT m.id AS id, m.title AS title, m.genre AS genre FROM Movie m")
+    List<IndexEntry> findAllIndexEntries();
+
+    /**
+     * Which of the given titles already exist (one set-based query).
+     */
+    @Query("SELECT m.title FROM Movie m WHERE m.title IN :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    /**
+     * Index entries for the given titles, e.g. to pick up IDs after a JDBC batch insert.
+     */
+    @Query("SELECT m.id AS id, m.title AS title, m.genre AS genre FROM Movie m WHERE m.title IN :titles")
+    List<IndexEntry> findIndexEntriesByTitles(@Param("titles") Collection<String> titles);
+
+    /**
+     * Lightweight projection of the indexed movie fields.
+     */
+    interface IndexEntry {
+        Long getId();
+
+        String getTitle();
+
+        String getGenre();
+    }
 }
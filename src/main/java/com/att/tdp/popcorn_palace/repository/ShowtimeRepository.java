@@ -6,8 +6,11 @@ import org.springframework.data.repository.query.Param;
 
 import com.att.tdp.popcorn_palace.model.showtime.Showtime;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
 
@@ -30,4 +33,86 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
                         @Param("startTime") LocalDateTime startTime,
                         @Param("endTime") LocalDateTime endTime,
                         @Param("ignoreId") Long ignoreId);
+
+        /**
+         * Same predicate as {@link #findOverlappingShowtimes}, but only asks
+         * whether any row exists, so no entities are loaded.
+         */
+        @Query("""
+                            SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END
+                            FROM Showtime s
+                            WHERE s.theater = :theater
+                              AND s.id <> :ignoreId
+                              AND (:startTime < s.endTime)
+                              AND (s.startTime < :endTime)
+                        """)
+        boolean existsOverlappingShowtime(
+                        @Param("theater") String theater,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime,
+                        @Param("ignoreId") Long ignoreId);
+
+        /**
+         * Load the showtime and lock its row until the transaction ends. In
+         * one database this also holds off new bookings of it, whose foreign
+         * key check needs a share lock on the row. Native, because Hibernate
+         * asks PostgreSQL for FOR NO KEY UPDATE, which does not block that.
+         */
+        @Query(value = "SELECT * FROM showtimes WHERE id = :id FOR UPDATE", nativeQuery = true)
+        Optional<Showtime> findByIdForUpdate(@Param("id") Long id);
+
+        /**
+         * IDs of the movie's showtimes, to delete them with it.
+         */
+        @Query("SELECT s.id FROM Showtime s WHERE s.movieId = :movieId")
+        List<Long> findIdsByMovieId(@Param("movieId") Long movieId);
+
+        /**
+         * Movie and price of every showtime, without loading entities. Used to
+         * reconcile the sales rollups.
+         */
+        @Query("SELECT s.id AS id, s.movieId AS movieId, s.price AS price FROM Showtime s")
+        List<PriceEntry> findAllPriceEntries();
+
+        /**
+         * Showtime and movie columns of the given showtimes, for booking
+         * history lines whose bookings sit on a shard (and cannot be joined).
+         */
+        @Query("""
+                            SELECT s.id AS id, s.theater AS theater, s.startTime AS startTime,
+                                   s.endTime AS endTime, s.price AS price, m.id AS movieId, m.title AS movieTitle
+                            FROM Showtime s JOIN Movie m ON m.id = s.movieId
+                            WHERE s.id IN :ids
+                        """)
+        List<ShowtimeSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Lightweight projection of a showtime's pricing fields.
+         */
+        interface PriceEntry {
+                Long getId();
+
+                Long getMovieId();
+
+                BigDecimal getPrice();
+        }
+
+        /**
+         * Projection of {@link #findSummariesByIds}.
+         */
+        interface ShowtimeSummary {
+                Long getId();
+
+                String getTheater();
+
+                LocalDateTime getStartTime();
+
+                LocalDateTime getEndTime();
+
+                BigDecimal getPrice();
+
+                Long getMovieId();
+
+                String getMovieTitle();
+        }
 }
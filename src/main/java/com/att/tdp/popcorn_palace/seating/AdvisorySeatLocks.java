@@ -0,0 +1,33 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link SeatLocks} as PostgreSQL transaction-scoped advisory locks on the
+ * booking's own connection (so on its shard), which makes them hold across
+ * all instances. A waiting booking queues in the database, and the lock is
+ * released by the commit or rollback. Bounded by the session's lock_timeout,
+ * if one is set.
+ */
+public class AdvisorySeatLocks implements SeatLocks {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AdvisorySeatLocks(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void lockSeat(long showtimeId, int seatNumber) {
+        SeatLocks.requireTransaction();
+        // One round trip; the select list is evaluated left to right
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?), pg_advisory_xact_lock(?)", rs -> null,
+                SeatLocks.showtimeKey(showtimeId), SeatLocks.seatKey(showtimeId, seatNumber));
+    }
+
+    @Override
+    public void lockShowtime(long showtimeId) {
+        SeatLocks.requireTransaction();
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, SeatLocks.showtimeKey(showtimeId));
+    }
+}
@@ -0,0 +1,59 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link SeatLocks} as striped JVM locks, released when the transaction
+ * completes. Only coordinates this instance: a stand-in for the advisory
+ * locks where the database has none (H2 in tests and benchmarks).
+ */
+public class InJvmSeatLocks implements SeatLocks {
+
+    private static final int SHOWTIME_STRIPES = 256;
+    private static final int SEAT_STRIPES = 4096;
+
+    private final ReentrantReadWriteLock[] showtimes = new ReentrantReadWriteLock[SHOWTIME_STRIPES];
+    private final ReentrantLock[] seats = new ReentrantLock[SEAT_STRIPES];
+
+    public InJvmSeatLocks() {
+        for (int i = 0; i < SHOWTIME_STRIPES; i++) {
+            showtimes[i] = new ReentrantReadWriteLock();
+        }
+        for (int i = 0; i < SEAT_STRIPES; i++) {
+            seats[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void lockSeat(long showtimeId, int seatNumber) {
+        SeatLocks.requireTransaction();
+        holdUntilCompletion(showtimeStripe(showtimeId).readLock());
+        holdUntilCompletion(seats[(int) (SeatLocks.seatKey(showtimeId, seatNumber) & (SEAT_STRIPES - 1))]);
+    }
+
+    @Override
+    public void lockShowtime(long showtimeId) {
+        SeatLocks.requireTransaction();
+        holdUntilCompletion(showtimeStripe(showtimeId).writeLock());
+    }
+
+    private ReentrantReadWriteLock showtimeStripe(long showtimeId) {
+        return showtimes[(int) (SeatLocks.showtimeKey(showtimeId) & (SHOWTIME_STRIPES - 1))];
+    }
+
+    // Completion callbacks run on the transaction's thread, which owns the lock
+    private static void holdUntilCompletion(Lock lock) {
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
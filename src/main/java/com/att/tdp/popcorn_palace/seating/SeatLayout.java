@@ -0,0 +1,110 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A theater's seats compiled for the best-available search: the stretches
+ * of adjacent seats (a row between aisles), the row of every seat, and the
+ * prefix sums of the seat scores, so the score of any block is one
+ * subtraction.
+ *
+ * Seats are addressed by index (seatNumber - 1).
+ */
+public final class SeatLayout {
+
+    /**
+     * Most seats in one block, and in one stretch between aisles (a stretch
+     * is tested as one long).
+     */
+    public static final int MAX_BLOCK = Long.SIZE;
+
+    private final String theater;
+    private final int capacity;
+    private final int[] stretchFrom;
+    private final int[] stretchLength;
+    private final int[] rowOf;
+    private final String[] sections;
+    private final long[] scorePrefix;
+
+    SeatLayout(SeatingProperties.Layout layout) {
+        theater = layout.getTheater();
+        List<SeatingProperties.Row> rows = layout.getRows();
+        capacity = rows.stream().mapToInt(SeatingProperties.Row::getSeats).sum();
+        if (theater == null || capacity == 0) {
+            throw new IllegalArgumentException("A seat layout needs a theater and seats: " + theater);
+        }
+
+        rowOf = new int[capacity];
+        sections = new String[rows.size()];
+        scorePrefix = new long[capacity + 1];
+        List<int[]> stretches = new ArrayList<>();
+        int seat = 0;
+        for (int row = 0; row < rows.size(); row++) {
+            SeatingProperties.Row config = rows.get(row);
+            int seats = config.getSeats();
+            sections[row] = config.getSection();
+            int stretchStart = 0;
+            for (int position = 0; position < seats; position++, seat++) {
+                rowOf[seat] = row;
+                scorePrefix[seat + 1] = scorePrefix[seat] + score(config.getQuality(), position, seats);
+                boolean aisle = config.getAislesAfter().contains(position + 1);
+                if (aisle || position == seats - 1) {
+                    int length = position + 1 - stretchStart;
+                    if (length > MAX_BLOCK) {
+                        throw new IllegalArgumentException("Theater " + theater + ", row " + (row + 1)
+                                + " has more than " + MAX_BLOCK + " seats between aisles");
+                    }
+                    stretches.add(new int[] { seat - length + 1, length });
+                    stretchStart = position + 1;
+                }
+            }
+        }
+        stretchFrom = stretches.stream().mapToInt(stretch -> stretch[0]).toArray();
+        stretchLength = stretches.stream().mapToInt(stretch -> stretch[1]).toArray();
+    }
+
+    /**
+     * Row quality dominates; within a row, up to half a quality point is lost
+     * towards the ends.
+     */
+    private static long score(int quality, int position, int seats) {
+        int offCenter = Math.abs(2 * position - (seats - 1));
+        return quality * 100L - offCenter * 50L / Math.max(seats - 1, 1);
+    }
+
+    public String theater() {
+        return theater;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    int stretchCount() {
+        return stretchFrom.length;
+    }
+
+    int stretchFrom(int stretch) {
+        return stretchFrom[stretch];
+    }
+
+    int stretchLength(int stretch) {
+        return stretchLength[stretch];
+    }
+
+    long blockScore(int from, int count) {
+        return scorePrefix[from + count] - scorePrefix[from];
+    }
+
+    /**
+     * 1-based row of the seat at {@code index}.
+     */
+    public int rowOf(int index) {
+        return rowOf[index] + 1;
+    }
+
+    public String sectionOf(int index) {
+        return sections[rowOf[index]];
+    }
+}
@@ -0,0 +1,31 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The configured seat layouts (popcorn.seating.layouts), by theater name,
+ * compiled at startup. A malformed layout fails the startup.
+ */
+@Component
+@EnableConfigurationProperties(SeatingProperties.class)
+public class SeatLayouts {
+
+    private final Map<String, SeatLayout> byTheater = new HashMap<>();
+
+    public SeatLayouts(SeatingProperties properties) {
+        for (SeatingProperties.Layout layout : properties.getLayouts()) {
+            byTheater.put(layout.getTheater(), new SeatLayout(layout));
+        }
+    }
+
+    /**
+     * @return the theater's layout, or null if it has none.
+     */
+    public SeatLayout forTheater(String theater) {
+        return byTheater.get(theater);
+    }
+}
@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The {@link SeatLocks} named by popcorn.seat-locks.mode: none (the
+ * default; the unique constraint alone decides races), advisory (PostgreSQL,
+ * across instances) or in-jvm (this instance only).
+ */
+@Configuration
+public class SeatLockConfig {
+
+    @Bean
+    public SeatLocks seatLocks(@Value("${popcorn.seat-locks.mode:none}") String mode, JdbcTemplate jdbcTemplate) {
+        return switch (mode) {
+            case "none" -> SeatLocks.NONE;
+            case "advisory" -> new AdvisorySeatLocks(jdbcTemplate);
+            case "in-jvm" -> new InJvmSeatLocks();
+            default -> throw new IllegalArgumentException(
+                    "popcorn.seat-locks.mode must be none, advisory or in-jvm, not '" + mode + "'");
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Seat locks held until the current transaction ends, so concurrent
+ * bookings of one seat wait for each other instead of racing on the unique
+ * constraint. Picked by popcorn.seat-locks.mode (see {@link SeatLockConfig}).
+ *
+ * Locks are hierarchical: a seat lock shares its showtime, and a showtime
+ * lock (for multi-seat operations) excludes every seat lock of it. Both are
+ * always taken showtime first, so they cannot deadlock each other. Keys are
+ * hashes, so two seats may share a lock; that only costs a wait.
+ */
+public interface SeatLocks {
+
+    SeatLocks NONE = new SeatLocks() {
+        @Override
+        public void lockSeat(long showtimeId, int seatNumber) {
+        }
+
+        @Override
+        public void lockShowtime(long showtimeId) {
+        }
+    };
+
+    /**
+     * Lock one seat, waiting for any transaction holding it or its showtime.
+     */
+    void lockSeat(long showtimeId, int seatNumber);
+
+    /**
+     * Lock all seats of the showtime, waiting for every transaction holding
+     * one of them.
+     */
+    void lockShowtime(long showtimeId);
+
+    static long showtimeKey(long showtimeId) {
+        return mix(showtimeId, 0); // Seat numbers start at 1
+    }
+
+    static long seatKey(long showtimeId, int seatNumber) {
+        return mix(showtimeId, seatNumber);
+    }
+
+    static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Seat locks are held until the transaction ends, but none is active");
+        }
+    }
+
+    private static long mix(long showtimeId, int seatNumber) {
+        long key = showtimeId * 0x9E3779B97F4A7C15L + seatNumber;
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        return key ^ (key >>> 33);
+    }
+}
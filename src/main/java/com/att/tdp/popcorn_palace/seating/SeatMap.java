@@ -0,0 +1,112 @@
+package com.att.tdp.popcorn_palace.seating;
+
+/**
+ * Which seats of one showtime are taken, one bit per seat packed into
+ * longs. The best-available search tests a whole stretch of seats at once
+ * with shifts and masks instead of looking at seats one by one.
+ *
+ * Synchronized on the instance: finding a block and marking it taken is one
+ * step, so two searches in this JVM never pick the same seats.
+ */
+public final class SeatMap {
+
+    private final SeatLayout layout;
+    private final long[] words;
+
+    SeatMap(SeatLayout layout) {
+        this.layout = layout;
+        this.words = new long[(layout.capacity() + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    SeatLayout layout() {
+        return layout;
+    }
+
+    public synchronized void markTaken(int index) {
+        if (index >= 0 && index < layout.capacity()) {
+            words[index >>> 6] |= 1L << index;
+        }
+    }
+
+    synchronized void markFree(int index) {
+        if (index >= 0 && index < layout.capacity()) {
+            words[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    public synchronized void markFree(int from, int count) {
+        for (int index = from; index < from + count; index++) {
+            markFree(index);
+        }
+    }
+
+    public synchronized boolean isTaken(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Find the free block of {@code count} adjacent seats with the best score
+     * (ties go to the lower seat number) and mark it taken.
+     *
+     * @return the index of the block's first seat, or -1 if there is none.
+     */
+    public synchronized int reserveBest(int count) {
+        long bestScore = Long.MIN_VALUE;
+        int best = -1;
+        for (int stretch = 0; stretch < layout.stretchCount(); stretch++) {
+            int from = layout.stretchFrom(stretch);
+            int length = layout.stretchLength(stretch);
+            if (length < count) {
+                continue;
+            }
+            long starts = runStarts(~bits(from, length) & mask(length), count);
+            while (starts != 0) {
+                int offset = Long.numberOfTrailingZeros(starts);
+                starts &= starts - 1;
+                long score = layout.blockScore(from + offset, count);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = from + offset;
+                }
+            }
+        }
+        for (int index = best; index >= 0 && index < best + count; index++) {
+            markTaken(index);
+        }
+        return best;
+    }
+
+    /**
+     * Bit i of the result is set if bits i to i + count - 1 of {@code free}
+     * are all set. The run length covered doubles with every step, so this
+     * takes log2(count) shifts.
+     */
+    static long runStarts(long free, int count) {
+        long starts = free;
+        int covered = 1;
+        while (covered < count) {
+            int shift = Math.min(covered, count - covered);
+            starts &= starts >>> shift;
+            covered += shift;
+        }
+        return starts;
+    }
+
+    /**
+     * {@code length} (at most 64) bits starting at seat {@code from}, which
+     * may straddle two words.
+     */
+    private long bits(int from, int length) {
+        int word = from >>> 6;
+        int offset = from & 63;
+        long value = words[word] >>> offset;
+        if (offset != 0 && offset + length > Long.SIZE) {
+            value |= words[word + 1] << (Long.SIZE - offset);
+        }
+        return value & mask(length);
+    }
+
+    private static long mask(int length) {
+        return length == Long.SIZE ? -1L : (1L << length) - 1;
+    }
+}
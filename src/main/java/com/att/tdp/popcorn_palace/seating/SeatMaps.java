@@ -0,0 +1,131 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import com.att.tdp.popcorn_palace.cache.Invalidation;
+import com.att.tdp.popcorn_palace.cache.InvalidationBus;
+import com.att.tdp.popcorn_palace.cache.InvalidationListener;
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link SeatMap} of every showtime searched for seats, loaded from its
+ * bookings on first use and then kept current by this instance's bookings
+ * and cancellations.
+ *
+ * The maps are a hint, not the authority: seats booked on other nodes are
+ * only discovered when an insert conflicts, which marks them taken here.
+ * Seats released on other nodes would never be offered again, so a release
+ * (or a deleted showtime) is sent on the {@link InvalidationBus} and the
+ * other nodes drop the showtime's map, to be reloaded on its next search.
+ */
+@Component
+public class SeatMaps implements InvalidationListener {
+
+    public static final String NAME = "seat-maps";
+
+    private final Map<Long, SeatMap> maps = new ConcurrentHashMap<>();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(NAME, this);
+    }
+
+    /**
+     * The showtime's seat map for {@code layout}. Rebuilt if the showtime
+     * moved to a theater with another layout.
+     */
+    public SeatMap forShowtime(long showtimeId, SeatLayout layout) {
+        SeatMap map = maps.get(showtimeId);
+        if (map != null && map.layout() == layout) {
+            return map;
+        }
+        SeatMap loaded = new SeatMap(layout);
+        bookingRepository.findSeatNumbersByShowtimeId(showtimeId).forEach(seat -> loaded.markTaken(seat - 1));
+        // A map another thread loaded meanwhile may already hold reservations, so it wins
+        return maps.compute(showtimeId,
+                (id, current) -> current != null && current.layout() == layout ? current : loaded);
+    }
+
+    /**
+     * A seat was booked by seat number. Marked once the surrounding
+     * transaction (if any) commits.
+     */
+    public void markTaken(long showtimeId, int seatNumber) {
+        afterCommit(() -> {
+            SeatMap map = maps.get(showtimeId);
+            if (map != null) {
+                map.markTaken(seatNumber - 1);
+            }
+        });
+    }
+
+    /**
+     * A seat that is free again, e.g. because a waitlist offer for it ended.
+     */
+    public void markFree(long showtimeId, int seatNumber) {
+        SeatMap map = maps.get(showtimeId);
+        if (map != null) {
+            map.markFree(seatNumber - 1);
+        }
+    }
+
+    /**
+     * The showtime was deleted: forget its map.
+     */
+    public void showtimeDeleted(long showtimeId) {
+        maps.remove(showtimeId);
+        invalidationBus.publish(NAME, Long.toString(showtimeId));
+    }
+
+    /**
+     * Another node freed a seat of the showtime or deleted it: drop its map.
+     */
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        if (invalidation.origin().equals(invalidationBus.nodeId())) {
+            return; // Applied when it was made
+        }
+        maps.remove(Long.parseLong(invalidation.key()));
+    }
+
+    @Override
+    public void invalidateAll() {
+        maps.clear();
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Before the waitlist may hold the seat again
+    public void onSeatReleased(SeatReleased released) {
+        markFree(released.showtimeId(), released.seatNumber());
+        invalidationBus.publish(NAME, Long.toString(released.showtimeId()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * popcorn.seating.* settings: the seat layout of each theater.
+ *
+ * Seats are numbered row by row from the front, starting at 1, so a
+ * booking's seatNumber picks the same seat as in the layout. Theaters
+ * without a layout can still be booked by seat number, but have no
+ * best-available search.
+ */
+@ConfigurationProperties(prefix = "popcorn.seating")
+public class SeatingProperties {
+
+    private List<Layout> layouts = new ArrayList<>();
+
+    public static class Layout {
+        /**
+         * The showtimes' theater name this layout applies to.
+         */
+        private String theater;
+
+        /**
+         * Rows from the front (row 1) to the back.
+         */
+        private List<Row> rows = new ArrayList<>();
+
+        public String getTheater() { return theater; }
+        public void setTheater(String theater) { this.theater = theater; }
+
+        public List<Row> getRows() { return rows; }
+        public void setRows(List<Row> rows) { this.rows = rows; }
+    }
+
+    public static class Row {
+        private String section;
+        private int seats;
+
+        /**
+         * How good the view from this row is (higher is better). Within a
+         * row, seats closer to the center rank higher.
+         */
+        private int quality;
+
+        /**
+         * Positions in the row (1-based) followed by an aisle. A block of
+         * seats never spans an aisle, and no stretch between aisles may be
+         * longer than 64 seats.
+         */
+        private List<Integer> aislesAfter = new ArrayList<>();
+
+        public String getSection() { return section; }
+        public void setSection(String section) { this.section = section; }
+
+        public int getSeats() { return seats; }
+        public void setSeats(int seats) { this.seats = seats; }
+
+        public int getQuality() { return quality; }
+        public void setQuality(int quality) { this.quality = quality; }
+
+        public List<Integer> getAislesAfter() { return aislesAfter; }
+        public void setAislesAfter(List<Integer> aislesAfter) { this.aislesAfter = aislesAfter; }
+    }
+
+    public List<Layout> getLayouts() { return layouts; }
+    public void setLayouts(List<Layout> layouts) { this.layouts = layouts; }
+}
@@ -0,0 +1,291 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.datasource.ShardContext;
+import com.att.tdp.popcorn_palace.datasource.ShardMap;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streams every booking in a date range, with its showtime and movie, as CSV
+ * or NDJSON.
+ *
+ * Bookings are read through a forward-only, read-only cursor with a fixed
+ * fetch size (popcorn.export.fetch-size) inside a read-only transaction, which
+ * PostgreSQL needs to fetch in batches instead of sending the whole result.
+ * Each row is written to the output as soon as it is read and nothing is
+ * collected, so memory stays flat however many bookings there are.
+ *
+ * Showtime and movie details are loaded once up front (one entry per
+ * showtime, not per booking), because bookings may live on shards that cannot
+ * join the showtimes table. With sharding, the shards are exported one after
+ * the other.
+ */
+@Service
+public class BookingExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExportService.class);
+
+    private static final String SHOWTIMES_SQL = "SELECT s.id, s.theater, s.start_time, s.end_time, s.price, "
+            + "m.id, m.title, m.genre FROM showtimes s JOIN movies m ON m.id = s.movie_id";
+    private static final String BOOKINGS_SQL = "SELECT id, showtime_id, user_id, seat_number, booking_time "
+            + "FROM bookings WHERE booking_time >= ? AND booking_time < ? ORDER BY booking_time";
+
+    private static final String CSV_HEADER = "booking_id,booking_time,user_id,seat_number,showtime_id,theater,"
+            + "start_time,end_time,price,movie_id,movie_title,genre\n";
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    /**
+     * The showtime and movie columns of every exported row of one showtime.
+     * The CSV columns are rendered once and reused.
+     */
+    private record ShowtimeDetails(long showtimeId, String theater, LocalDateTime startTime,
+            LocalDateTime endTime, BigDecimal price, long movieId, String title, String genre, String csv) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<ShardMap> shardMap;
+
+    @Value("${popcorn.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Write the bookings made from the start of {@code from} to the end of
+     * {@code to} to {@code out}, which is flushed every fetch-size rows.
+     *
+     * @return the number of bookings written.
+     */
+    public long exportBookings(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Map<Long, ShowtimeDetails> showtimes = loadShowtimes();
+
+        RowWriter writer = format == Format.NDJSON ? new NdjsonWriter(out) : new CsvWriter(out);
+        long written = 0;
+        try {
+            ShardMap shards = shardMap.getIfAvailable();
+            if (shards == null) {
+                written += streamBookings(from, to, showtimes, writer);
+            } else {
+                for (int shard = 0; shard < shards.shardCount(); shard++) {
+                    ShardContext.set(shard);
+                    try {
+                        written += streamBookings(from, to, showtimes, writer);
+                    } finally {
+                        ShardContext.clear();
+                    }
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // The client went away
+        }
+        writer.finish();
+
+        logger.info("[BookingExportService] INFO - Exported {} bookings ({} to {}, {}) in {} ms.",
+                written, from, to, format, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    private Map<Long, ShowtimeDetails> loadShowtimes() {
+        return readOnly().execute(status -> {
+            Map<Long, ShowtimeDetails> showtimes = new HashMap<>();
+            jdbcTemplate.query(SHOWTIMES_SQL, rs -> {
+                ShowtimeDetails details = showtimeDetails(rs);
+                showtimes.put(details.showtimeId(), details);
+            });
+            return showtimes;
+        });
+    }
+
+    /**
+     * One cursor over the bookings of the current shard (or the only database).
+     */
+    private long streamBookings(LocalDate from, LocalDate to, Map<Long, ShowtimeDetails> showtimes,
+            RowWriter writer) {
+        return readOnly().execute(status -> {
+            long[] rows = new long[1];
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(BOOKINGS_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+                ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+                return ps;
+            }, rs -> {
+                ShowtimeDetails showtime = showtimes.get(rs.getLong(2));
+                if (showtime == null) {
+                    return; // Showtime created or deleted while exporting
+                }
+                try {
+                    writer.write(rs.getObject(1, UUID.class), rs.getObject(5, LocalDateTime.class),
+                            rs.getObject(3, UUID.class), rs.getInt(4), showtime);
+                    if (++rows[0] % fetchSize == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return rows[0];
+        });
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static ShowtimeDetails showtimeDetails(ResultSet rs) throws SQLException {
+        long showtimeId = rs.getLong(1);
+        String theater = rs.getString(2);
+        LocalDateTime startTime = rs.getObject(3, LocalDateTime.class);
+        LocalDateTime endTime = rs.getObject(4, LocalDateTime.class);
+        BigDecimal price = rs.getBigDecimal(5);
+        long movieId = rs.getLong(6);
+        String title = rs.getString(7);
+        String genre = rs.getString(8);
+        String csv = showtimeId + "," + csvField(theater) + "," + startTime + "," + endTime + ","
+                + price.toPlainString() + "," + movieId + "," + csvField(title) + "," + csvField(genre);
+        return new ShowtimeDetails(showtimeId, theater, startTime, endTime, price, movieId, title, genre, csv);
+    }
+
+    /**
+     * Quote a CSV field if needed (RFC 4180), the reverse of
+     * MovieImportService.parseCsv.
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private interface RowWriter {
+        void write(UUID bookingId, LocalDateTime bookingTime, UUID userId, int seatNumber,
+                ShowtimeDetails showtime) throws IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(UUID bookingId, LocalDateTime bookingTime, UUID userId, int seatNumber,
+                ShowtimeDetails showtime) throws IOException {
+            writer.write(bookingId.toString());
+            writer.write(',');
+            writer.write(bookingTime.toString());
+            writer.write(',');
+            writer.write(userId.toString());
+            writer.write(',');
+            writer.write(Integer.toString(seatNumber));
+            writer.write(',');
+            writer.write(showtime.csv());
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+
+        @Override
+        public void write(UUID bookingId, LocalDateTime bookingTime, UUID userId, int seatNumber,
+                ShowtimeDetails showtime) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("bookingId", bookingId.toString());
+            generator.writeStringField("bookingTime", bookingTime.toString());
+            generator.writeStringField("userId", userId.toString());
+            generator.writeNumberField("seatNumber", seatNumber);
+            generator.writeNumberField("showtimeId", showtime.showtimeId());
+            generator.writeStringField("theater", showtime.theater());
+            generator.writeStringField("startTime", showtime.startTime().toString());
+            generator.writeStringField("endTime", showtime.endTime().toString());
+            generator.writeNumberField("price", showtime.price());
+            generator.writeNumberField("movieId", showtime.movieId());
+            generator.writeStringField("movieTitle", showtime.title());
+            generator.writeStringField("genre", showtime.genre());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
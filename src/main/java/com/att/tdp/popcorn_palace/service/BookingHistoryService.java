@@ -0,0 +1,158 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.cache.UserBookingsCache;
+import com.att.tdp.popcorn_palace.datasource.ShardMap;
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.booking.UserBooking;
+import com.att.tdp.popcorn_palace.model.booking.UserBookingPage;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A user's booking history, newest first, in keyset-paged slices.
+ *
+ * A page continues strictly after the (bookingTime, id) of the previous
+ * page's last row, so deep pages cost the same as the first one (no OFFSET)
+ * and bookings made meanwhile do not shift rows between pages. The first
+ * page is served from {@link UserBookingsCache}.
+ */
+@Service
+public class BookingHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // The first page of every user is cached this deep, plus one row to know if there is more
+    private static final int CACHED_BOOKINGS = 50;
+
+    // booking_time DESC, id DESC, with UUIDs ordered as unsigned like PostgreSQL and H2 do
+    private static final Comparator<Booking> NEWEST_FIRST = Comparator
+            .comparing(Booking::getBookingTime)
+            .thenComparing(Booking::getId, BookingHistoryService::compareUnsigned)
+            .reversed();
+
+    /**
+     * Position in the history: the key of the last booking already returned.
+     */
+    public record Cursor(LocalDateTime bookingTime, UUID bookingId) {
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private UserBookingsCache userBookingsCache;
+
+    @Autowired
+    private ObjectProvider<ShardMap> shardMap;
+
+    /**
+     * Up to {@code limit} bookings of the user older than {@code after}, or
+     * the newest ones when {@code after} is null.
+     */
+    public UserBookingPage history(UUID userId, Cursor after, int limit) {
+        if (after == null && limit <= CACHED_BOOKINGS) {
+            return page(userBookingsCache.get(userId, () -> load(userId, null, CACHED_BOOKINGS + 1)), limit);
+        }
+        return page(load(userId, after, limit + 1), limit);
+    }
+
+    /**
+     * Parse a cursor from {@link UserBookingPage#nextCursor()}, or return null
+     * if it is malformed.
+     */
+    public static Cursor decodeCursor(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int comma = decoded.indexOf(',');
+            UUID bookingId = comma < 0 ? null : BookingService.parseUuid(decoded.substring(comma + 1));
+            if (bookingId == null) {
+                return null;
+            }
+            return new Cursor(LocalDateTime.parse(decoded.substring(0, comma)), bookingId);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static String encodeCursor(UserBooking last) {
+        String key = last.bookingTime() + "," + last.bookingId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UserBookingPage page(List<UserBooking> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new UserBookingPage(rows, null);
+        }
+        List<UserBooking> page = List.copyOf(rows.subList(0, limit));
+        return new UserBookingPage(page, encodeCursor(page.get(limit - 1)));
+    }
+
+    private List<UserBooking> load(UUID userId, Cursor after, int limit) {
+        if (shardMap.getIfAvailable() != null) {
+            return loadAcrossShards(userId, after, limit);
+        }
+        return after == null
+                ? bookingRepository.findHistoryByUserId(userId, Limit.of(limit))
+                : bookingRepository.findHistoryByUserIdBefore(userId, after.bookingTime(), after.bookingId(),
+                        Limit.of(limit));
+    }
+
+    /**
+     * Sharded bookings cannot be joined with showtimes. A user's bookings are
+     * few, so they are collected from all shards and paged in memory, and the
+     * showtime and movie columns come from one query on the main database.
+     */
+    private List<UserBooking> loadAcrossShards(UUID userId, Cursor after, int limit) {
+        List<Booking> bookings = bookingRepository.findByUserId(userId).stream()
+                .filter(booking -> after == null || isOlder(booking, after))
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ShowtimeRepository.ShowtimeSummary> showtimes = showtimeRepository
+                .findSummariesByIds(bookings.stream().map(Booking::getShowtimeId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(ShowtimeRepository.ShowtimeSummary::getId, Function.identity()));
+        return bookings.stream()
+                .filter(booking -> showtimes.containsKey(booking.getShowtimeId())) // Like the inner join
+                .map(booking -> {
+                    ShowtimeRepository.ShowtimeSummary showtime = showtimes.get(booking.getShowtimeId());
+                    return new UserBooking(booking.getId(), booking.getBookingTime(), booking.getSeatNumber(),
+                            showtime.getId(), showtime.getTheater(), showtime.getStartTime(),
+                            showtime.getEndTime(), booking.getPriceCents(), showtime.getPrice(), showtime.getMovieId(),
+                            showtime.getMovieTitle());
+                })
+                .toList();
+    }
+
+    private static boolean isOlder(Booking booking, Cursor after) {
+        int byTime = booking.getBookingTime().compareTo(after.bookingTime());
+        return byTime < 0 || (byTime == 0 && compareUnsigned(booking.getId(), after.bookingId()) < 0);
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,177 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.cache.UserBookingsCache;
+import com.att.tdp.popcorn_palace.datasource.BookingTransactions;
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.booking.BookingOutcome;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.model.booking.CancellationOutcome;
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.outbox.BookingOutbox;
+import com.att.tdp.popcorn_palace.pricing.PricingEngine;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.seating.SeatLocks;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The booking path without exceptions on expected outcomes: an unknown
+ * showtime, a malformed user ID and a taken seat are all returned as a
+ * {@link BookingOutcome}.
+ *
+ * The seat check and the insert are one INSERT ... ON CONFLICT DO NOTHING,
+ * so losing a race for a seat costs a zero row count, not a constraint
+ * violation with a stack trace (and saves the separate exists query). The
+ * seat is sold at the {@link PricingEngine}'s quote, which is stored on the
+ * booking.
+ *
+ * With popcorn.seat-locks.mode set, the insert first takes the seat's
+ * {@link SeatLocks} lock: contenders for a seat wait in line for the
+ * winner's commit instead of all inserting at once.
+ *
+ * Cancelling deletes the row, which frees the seat, and then publishes
+ * {@link SeatReleased} synchronously to the in-process listeners.
+ *
+ * Both write a {@link BookingOutbox} event in the transaction of the insert
+ * or delete, for systems outside this instance.
+ */
+@Service
+public class BookingService {
+
+    private static final int UUID_LENGTH = 36;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private UserBookingsCache userBookingsCache;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private SeatMaps seatMaps;
+
+    @Autowired
+    private Waitlists waitlists;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private BookingTransactions bookingTransactions;
+
+    @Autowired
+    private SeatLocks seatLocks;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public BookingOutcome book(BookingRequest request) {
+        Long showtimeId = request.getShowtimeId();
+        // Loaded rather than checked for existence: pricing and the sales rollups need it
+        Showtime showtime = showtimeRepository.findById(showtimeId).orElse(null);
+        if (showtime == null) {
+            return new BookingOutcome.ShowtimeNotFound(showtimeId);
+        }
+
+        UUID userId = parseUuid(request.getUserId());
+        if (userId == null) {
+            return new BookingOutcome.InvalidUserId(request.getUserId());
+        }
+
+        if (waitlists.isHeldForOther(showtimeId, request.getSeatNumber(), userId)) {
+            return new BookingOutcome.SeatTaken(showtimeId, request.getSeatNumber()); // Offered to a waiter
+        }
+
+        UUID bookingId = UUID.randomUUID();
+        int seatNumber = request.getSeatNumber();
+        LocalDateTime bookingTime = LocalDateTime.now();
+        long priceCents = pricingEngine.quoteCents(showtime, bookingTime);
+        boolean inserted = bookingTransactions.execute(showtimeId, status -> {
+            seatLocks.lockSeat(showtimeId, seatNumber);
+            if (bookingRepository.insertIfSeatFree(bookingId, showtimeId, userId, seatNumber, priceCents,
+                    bookingTime) == 0) {
+                return false;
+            }
+            bookingOutbox.booked(bookingId, showtimeId, userId, seatNumber, priceCents);
+            return true;
+        });
+        if (!inserted) {
+            return new BookingOutcome.SeatTaken(showtimeId, seatNumber);
+        }
+        salesRollups.recordBooking(showtimeId, showtime.getMovieId(), priceCents, bookingTime);
+        seatMaps.markTaken(showtimeId, seatNumber);
+        waitlists.accepted(showtimeId, seatNumber, userId); // If it was offered to them
+        userBookingsCache.invalidate(userId);
+        return new BookingOutcome.Booked(bookingId);
+    }
+
+    public CancellationOutcome cancel(String bookingIdValue, String userIdValue) {
+        UUID bookingId = parseUuid(bookingIdValue);
+        if (bookingId == null) {
+            return new CancellationOutcome.InvalidBookingId(bookingIdValue);
+        }
+        UUID userId = parseUuid(userIdValue);
+        if (userId == null) {
+            return new CancellationOutcome.InvalidUserId(userIdValue);
+        }
+
+        // Read first to tell "not yours" from "not found", and to learn the shard and seat
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return new CancellationOutcome.BookingNotFound(bookingId);
+        }
+        if (!booking.getUserId().equals(userId)) {
+            return new CancellationOutcome.NotOwner(bookingId);
+        }
+
+        SeatReleased released = new SeatReleased(bookingId, booking.getShowtimeId(), booking.getSeatNumber(),
+                userId, booking.getBookingTime(), booking.getPriceCents());
+        boolean deleted = bookingTransactions.execute(booking.getShowtimeId(), status -> {
+            if (bookingRepository.deleteOwnedBooking(bookingId, userId, booking.getShowtimeId()) == 0) {
+                return false;
+            }
+            bookingOutbox.cancelled(released);
+            return true;
+        });
+        if (!deleted) {
+            return new CancellationOutcome.BookingNotFound(bookingId); // Cancelled concurrently
+        }
+        eventPublisher.publishEvent(released);
+        return new CancellationOutcome.Cancelled(released);
+    }
+
+    /**
+     * Parse a canonical (8-4-4-4-12 hex digit) UUID, or return null instead of
+     * throwing like {@link UUID#fromString(String)} does.
+     */
+    public static UUID parseUuid(String value) {
+        if (value == null || value.length() != UUID_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = value.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) {
+                return null;
+            }
+        }
+        return UUID.fromString(value);
+    }
+}
@@ -0,0 +1,280 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.index.MovieIndexes;
+import com.att.tdp.popcorn_palace.index.MovieTitleIndex;
+import com.att.tdp.popcorn_palace.model.movie.MovieImportResult;
+import com.att.tdp.popcorn_palace.model.movie.MovieRequest;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a bulk movie import (NDJSON or CSV) into the DB.
+ *
+ * Rows are read one line at a time, validated with the same constraints as
+ * {@link MovieRequest} and collected into chunks. Each chunk is deduplicated
+ * with a single set-based title query and inserted with one JDBC batch in its
+ * own transaction, so memory stays bounded by the chunk size no matter how
+ * large the upload is.
+ */
+@Service
+public class MovieImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieImportService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO movies (title, genre, duration, rating, release_year) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String CSV_HEADER = "title,genre,duration,rating,releaseyear";
+
+    /**
+     * Supported upload formats.
+     */
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieTitleIndex titleIndex;
+
+    @Autowired
+    private MovieIndexes movieIndexes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${popcorn.import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * A validated row waiting for its chunk to be written.
+     */
+    private record PendingRow(long row, MovieRequest movie) {
+    }
+
+    public MovieImportResult importMovies(BufferedReader reader, Format format) throws IOException {
+        long start = System.currentTimeMillis();
+        MovieImportResult result = new MovieImportResult();
+        ObjectReader jsonReader = objectMapper.readerFor(MovieRequest.class);
+
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank() || (format == Format.CSV && row == 1 && isCsvHeader(line))) {
+                continue;
+            }
+            result.rowRead();
+
+            MovieRequest movie;
+            try {
+                movie = format == Format.NDJSON ? jsonReader.readValue(line) : parseCsv(line);
+            } catch (IOException | IllegalArgumentException e) {
+                result.rejected(row, null, "Malformed row: " + e.getMessage());
+                continue;
+            }
+
+            Set<ConstraintViolation<MovieRequest>> violations = validator.validate(movie);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                result.rejected(row, movie.getTitle(), "Validation failed: " + message);
+                continue;
+            }
+
+            chunk.add(new PendingRow(row, movie));
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, result);
+        }
+
+        result.finish(System.currentTimeMillis() - start);
+        logger.info("[MovieImportService] INFO - Imported {} of {} rows ({} duplicates, {} rejected) in {} ms.",
+                result.getImported(), result.getTotalRows(), result.getDuplicates(), result.getRejected(),
+                result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * Dedupe (in memory, then one IN query) and batch insert one chunk.
+     */
+    private void writeChunk(List<PendingRow> chunk, MovieImportResult result) {
+        Set<String> chunkTitles = new HashSet<>();
+        List<String> candidateTitles = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            candidateTitles.add(pending.movie().getTitle());
+        }
+        Set<String> existing = new HashSet<>(movieRepository.findExistingTitles(candidateTitles));
+
+        List<PendingRow> toInsert = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            String title = pending.movie().getTitle();
+            boolean duplicate = existing.contains(title)
+                    || titleIndex.isTitleTaken(title, null)
+                    || !chunkTitles.add(title);
+            if (duplicate) {
+                result.duplicate(pending.row(), title);
+            } else {
+                toInsert.add(pending);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(toInsert);
+            result.imported(toInsert.size());
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent writer, or a DB-only constraint: retry row by row to attribute errors
+            for (PendingRow pending : toInsert) {
+                try {
+                    insert(List.of(pending));
+                    result.imported(1);
+                } catch (DataIntegrityViolationException rowError) {
+                    result.rejected(pending.row(), pending.movie().getTitle(),
+                            "Database constraint violated: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * One JDBC batch plus an ID lookup for the in-memory indexes, in one transaction.
+     */
+    private void insert(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, pending) -> {
+                MovieRequest movie = pending.movie();
+                ps.setString(1, movie.getTitle());
+                ps.setString(2, movie.getGenre());
+                setNullable(ps, 3, movie.getDuration(), Types.INTEGER);
+                setNullable(ps, 4, movie.getRating(), Types.DECIMAL);
+                setNullable(ps, 5, movie.getReleaseYear(), Types.INTEGER);
+            });
+
+            List<String> titles = rows.stream().map(r -> r.movie().getTitle()).toList();
+            movieRepository.findIndexEntriesByTitles(titles)
+                    .forEach(entry -> movieIndexes.saved(entry.getId(), entry.getTitle(), entry.getGenre()));
+        });
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType)
+            throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.replace(" ", "").strip().toLowerCase(Locale.ROOT).equals(CSV_HEADER);
+    }
+
+    /**
+     * Parse "title,genre,duration,rating,releaseYear" (RFC 4180 quoting).
+     */
+    static MovieRequest parseCsv(String line) {
+        List<String> fields = new ArrayList<>(5);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        if (fields.size() != 5) {
+            throw new IllegalArgumentException("expected 5 columns but found " + fields.size());
+        }
+
+        MovieRequest movie = new MovieRequest();
+        movie.setTitle(fields.get(0).strip());
+        movie.setGenre(emptyToNull(fields.get(1)));
+        movie.setDuration(parseInteger(fields.get(2), "duration"));
+        movie.setRating(fields.get(3).isBlank() ? null : parseNumber(fields.get(3), "rating"));
+        movie.setReleaseYear(parseInteger(fields.get(4), "releaseYear"));
+        return movie;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isBlank() ? null : value.strip();
+    }
+
+    private static Integer parseInteger(String value, String column) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number");
+        }
+    }
+
+    private static Double parseNumber(String value, String column) {
+        try {
+            return Double.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.cache.UserBookingsCache;
+import com.att.tdp.popcorn_palace.datasource.BookingTransactions;
+import com.att.tdp.popcorn_palace.model.booking.BestAvailableOutcome;
+import com.att.tdp.popcorn_palace.model.booking.SeatBlock;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.outbox.BookingOutbox;
+import com.att.tdp.popcorn_palace.pricing.PricingEngine;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.seating.SeatLayout;
+import com.att.tdp.popcorn_palace.seating.SeatLayouts;
+import com.att.tdp.popcorn_palace.seating.SeatLocks;
+import com.att.tdp.popcorn_palace.seating.SeatMap;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Books the best available block of adjacent seats of a showtime.
+ *
+ * The block is picked from the showtime's in-memory {@link SeatMap} and
+ * reserved there in the same step, then inserted in one transaction with
+ * the same INSERT ... ON CONFLICT DO NOTHING as single bookings. If one of
+ * the seats turns out to be taken (booked on another node), the whole
+ * block is rolled back, that seat is marked taken and the search runs
+ * again.
+ */
+@Service
+public class SeatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatingService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SeatLayouts seatLayouts;
+
+    @Autowired
+    private SeatMaps seatMaps;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private UserBookingsCache userBookingsCache;
+
+    @Autowired
+    private Waitlists waitlists;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private BookingTransactions bookingTransactions;
+
+    @Autowired
+    private SeatLocks seatLocks;
+
+    public BestAvailableOutcome bookBestAvailable(long showtimeId, int count, String userIdValue) {
+        Showtime showtime = showtimeRepository.findById(showtimeId).orElse(null);
+        if (showtime == null) {
+            return new BestAvailableOutcome.ShowtimeNotFound(showtimeId);
+        }
+        UUID userId = BookingService.parseUuid(userIdValue);
+        if (userId == null) {
+            return new BestAvailableOutcome.InvalidUserId(userIdValue);
+        }
+        SeatLayout layout = seatLayouts.forTheater(showtime.getTheater());
+        if (layout == null) {
+            return new BestAvailableOutcome.NoSeatLayout(showtime.getTheater());
+        }
+        if (count < 1 || count > SeatLayout.MAX_BLOCK) {
+            return new BestAvailableOutcome.InvalidCount(count);
+        }
+
+        SeatMap seatMap = seatMaps.forShowtime(showtimeId, layout);
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            int first = seatMap.reserveBest(count);
+            if (first < 0) {
+                return new BestAvailableOutcome.NoBlockAvailable(showtimeId, count);
+            }
+            LocalDateTime bookingTime = LocalDateTime.now();
+            long priceCents = pricingEngine.quoteCents(showtime, bookingTime);
+            List<UUID> bookingIds = new ArrayList<>(count);
+            int taken = heldSeat(showtimeId, userId, first, count);
+            try {
+                if (taken < 0) {
+                    taken = insertBlock(showtime, userId, first, count, priceCents, bookingTime, bookingIds);
+                }
+            } catch (RuntimeException e) {
+                seatMap.markFree(first, count);
+                throw e;
+            }
+            if (taken < 0) {
+                List<Integer> seatNumbers = new ArrayList<>(count);
+                for (int index = first; index < first + count; index++) {
+                    seatNumbers.add(index + 1);
+                }
+                return new BestAvailableOutcome.Booked(new SeatBlock(bookingIds, seatNumbers,
+                        layout.rowOf(first), layout.sectionOf(first), BigDecimal.valueOf(priceCents, 2)));
+            }
+            seatMap.markFree(first, count);
+            seatMap.markTaken(taken);
+            logger.info("[SeatingService] INFO - Seat {} of showtime {} is taken or held, searching again.",
+                    taken + 1, showtimeId);
+        }
+        return new BestAvailableOutcome.NoBlockAvailable(showtimeId, count);
+    }
+
+    /**
+     * A seat map loaded after a waitlist offer does not know the offered seat
+     * is held.
+     *
+     * @return the index of a seat of the block held for another user, or -1.
+     */
+    private int heldSeat(long showtimeId, UUID userId, int first, int count) {
+        for (int index = first; index < first + count; index++) {
+            if (waitlists.isHeldForOther(showtimeId, index + 1, userId)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Insert one booking per seat in a single transaction.
+     *
+     * @return -1 if all were inserted, else the index of a seat that was
+     *         already taken (and nothing is inserted).
+     */
+    private int insertBlock(Showtime showtime, UUID userId, int first, int count, long priceCents,
+            LocalDateTime bookingTime, List<UUID> bookingIds) {
+        long showtimeId = showtime.getId();
+        return bookingTransactions.execute(showtimeId, status -> {
+            seatLocks.lockShowtime(showtimeId); // One lock for the block, no seat-by-seat ordering
+            for (int index = first; index < first + count; index++) {
+                UUID bookingId = UUID.randomUUID();
+                if (bookingRepository.insertIfSeatFree(bookingId, showtimeId, userId, index + 1, priceCents,
+                        bookingTime) == 0) {
+                    status.setRollbackOnly();
+                    bookingIds.clear();
+                    return index;
+                }
+                bookingIds.add(bookingId);
+                bookingOutbox.booked(bookingId, showtimeId, userId, index + 1, priceCents);
+                salesRollups.recordBooking(showtimeId, showtime.getMovieId(), priceCents, bookingTime);
+            }
+            userBookingsCache.invalidate(userId);
+            return -1;
+        });
+    }
+}
@@ -0,0 +1,212 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.datasource.BookingTransactions;
+import com.att.tdp.popcorn_palace.datasource.ShardMap;
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.model.showtime.ScheduleOutcome;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.model.showtime.ShowtimeRequest;
+import com.att.tdp.popcorn_palace.outbox.BookingOutbox;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.seating.SeatLocks;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Scheduling checks for creating and updating showtimes, returning a
+ * {@link ScheduleOutcome} instead of throwing on expected failures. The
+ * overlap check only asks whether a conflicting row exists.
+ *
+ * Deleting a showtime cancels its bookings the way {@link BookingService}
+ * cancels one.
+ */
+@Service
+public class ShowtimeService {
+
+    // Create requests have no ID of their own to exclude from the overlap check
+    private static final long NO_SHOWTIME = 0L;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingTransactions bookingTransactions;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private SeatLocks seatLocks;
+
+    @Autowired
+    private SeatMaps seatMaps;
+
+    @Autowired
+    private Waitlists waitlists;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<ShardMap> shardMap;
+
+    public ScheduleOutcome create(ShowtimeRequest request) {
+        ScheduleOutcome rejected = check(request, NO_SHOWTIME);
+        if (rejected != null) {
+            return rejected;
+        }
+        Showtime saved = showtimeRepository.save(toEntity(request, null));
+        return new ScheduleOutcome.Scheduled(saved.getId());
+    }
+
+    public ScheduleOutcome update(Long id, ShowtimeRequest request) {
+        if (!showtimeRepository.existsById(id)) {
+            return new ScheduleOutcome.ShowtimeNotFound(id);
+        }
+        ScheduleOutcome rejected = check(request, id);
+        if (rejected != null) {
+            return rejected;
+        }
+        showtimeRepository.save(toEntity(request, id));
+        return new ScheduleOutcome.Scheduled(id);
+    }
+
+    /**
+     * Delete the showtime and its bookings. Every booking gets a CANCELLED
+     * outbox event in the transaction that deletes it and a
+     * {@link SeatReleased} after the commit (which drops it from the history
+     * cache and the sales rollups). The showtime's waitlist and seat map go
+     * too.
+     *
+     * In one database this is one transaction, which locks the showtime row
+     * first so no booking of it can be inserted meanwhile. Bookings on a
+     * shard cannot share a transaction with the showtime: the showtime is
+     * deleted first, so it takes no new bookings, and then its bookings on
+     * their shard. If that second step fails, orphan bookings are left (which
+     * the reports already skip), not a showtime that lost its bookings.
+     *
+     * @return false if the showtime does not exist.
+     */
+    public boolean delete(long id) {
+        List<SeatReleased> released;
+        if (shardMap.getIfAvailable() == null) {
+            released = bookingTransactions.execute(id, status -> {
+                Showtime showtime = showtimeRepository.findByIdForUpdate(id).orElse(null);
+                if (showtime == null) {
+                    return null;
+                }
+                List<SeatReleased> cancelled = deleteBookings(id);
+                showtimeRepository.delete(showtime);
+                return cancelled;
+            });
+        } else {
+            Boolean deleted = new TransactionTemplate(transactionManager).execute(status ->
+                    showtimeRepository.findByIdForUpdate(id).map(showtime -> {
+                        showtimeRepository.delete(showtime);
+                        return true;
+                    }).orElse(false));
+            released = Boolean.TRUE.equals(deleted) ? bookingTransactions.execute(id, status -> deleteBookings(id))
+                    : null;
+        }
+        if (released == null) {
+            return false;
+        }
+
+        waitlists.showtimeDeleted(id); // First, or the released seats would be offered to its waiters
+        released.forEach(eventPublisher::publishEvent);
+        seatMaps.showtimeDeleted(id);
+        return true;
+    }
+
+    /**
+     * Delete the movie after deleting each of its showtimes with
+     * {@link #delete}, so their bookings are cancelled the same way instead
+     * of only going with the foreign key cascade.
+     *
+     * In one database this is one transaction. With sharding the showtimes
+     * are deleted one by one first, and then the movie; if that fails, the
+     * movie is left with fewer showtimes, and deleting it again finishes.
+     */
+    public void deleteMovie(long movieId) {
+        if (shardMap.getIfAvailable() == null) {
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> deleteMovieAndShowtimes(movieId));
+        } else {
+            deleteMovieAndShowtimes(movieId);
+        }
+    }
+
+    private void deleteMovieAndShowtimes(long movieId) {
+        showtimeRepository.findIdsByMovieId(movieId).forEach(this::delete);
+        movieRepository.deleteById(movieId);
+    }
+
+    /**
+     * Delete the showtime's bookings and queue their outbox events, in the
+     * current transaction on the showtime's shard.
+     */
+    private List<SeatReleased> deleteBookings(long showtimeId) {
+        seatLocks.lockShowtime(showtimeId); // Waits out bookings that hold a seat lock
+        List<SeatReleased> released = bookingRepository.findByShowtimeId(showtimeId).stream()
+                .map(booking -> new SeatReleased(booking.getId(), showtimeId, booking.getSeatNumber(),
+                        booking.getUserId(), booking.getBookingTime(), booking.getPriceCents()))
+                .toList();
+        bookingRepository.deleteByShowtimeId(showtimeId);
+        bookingOutbox.cancelled(released);
+        return released;
+    }
+
+    /**
+     * @return The reason the request cannot be scheduled, or null if it can.
+     */
+    private ScheduleOutcome check(ShowtimeRequest request, long ignoreId) {
+        if (!movieRepository.existsById(request.getMovieId())) {
+            return new ScheduleOutcome.MovieNotFound(request.getMovieId());
+        }
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            return new ScheduleOutcome.InvalidTimeRange();
+        }
+        if (showtimeRepository.existsOverlappingShowtime(request.getTheater(), request.getStartTime(),
+                request.getEndTime(), ignoreId)) {
+            return new ScheduleOutcome.Overlap(request.getTheater());
+        }
+        return null;
+    }
+
+    /**
+     * Map a request to a Showtime entity. If existingId is null, we create new.
+     * If not, we set the ID for update.
+     */
+    private static Showtime toEntity(ShowtimeRequest request, Long existingId) {
+        Showtime showtime = new Showtime();
+        if (existingId != null) {
+            showtime.setId(existingId);
+        }
+        showtime.setMovieId(request.getMovieId());
+        showtime.setTheater(request.getTheater());
+        showtime.setStartTime(request.getStartTime());
+        showtime.setEndTime(request.getEndTime());
+        showtime.setPrice(request.getPrice() == null ? BigDecimal.ZERO : request.getPrice());
+        return showtime;
+    }
+}
@@ -0,0 +1,85 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.model.booking.BookingOutcome;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.model.waitlist.WaitlistOutcome;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * The waitlist requests of a user, validated, on top of {@link Waitlists}.
+ * An offered seat is booked through the regular booking path, which lets
+ * only the user it is held for take it.
+ */
+@Service
+public class WaitlistService {
+
+    @Autowired
+    private Waitlists waitlists;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    public WaitlistOutcome join(long showtimeId, String userIdValue) {
+        UUID userId = BookingService.parseUuid(userIdValue);
+        if (userId == null) {
+            return new WaitlistOutcome.InvalidUserId(userIdValue);
+        }
+        if (!showtimeRepository.existsById(showtimeId)) {
+            return new WaitlistOutcome.ShowtimeNotFound(showtimeId);
+        }
+        int ahead = waitlists.join(showtimeId, userId);
+        return ahead < 0 ? new WaitlistOutcome.AlreadyWaiting(showtimeId)
+                : new WaitlistOutcome.Joined(showtimeId, ahead);
+    }
+
+    public WaitlistOutcome leave(long showtimeId, String userIdValue) {
+        UUID userId = BookingService.parseUuid(userIdValue);
+        if (userId == null) {
+            return new WaitlistOutcome.InvalidUserId(userIdValue);
+        }
+        return waitlists.leave(showtimeId, userId) ? new WaitlistOutcome.Left(showtimeId)
+                : new WaitlistOutcome.NotWaiting(showtimeId);
+    }
+
+    public WaitlistOutcome lookup(long showtimeId, String userIdValue) {
+        UUID userId = BookingService.parseUuid(userIdValue);
+        if (userId == null) {
+            return new WaitlistOutcome.InvalidUserId(userIdValue);
+        }
+        return waitlists.lookup(showtimeId, userId);
+    }
+
+    /**
+     * Book the seat offered to the user. If it was taken through another
+     * instance meanwhile, the user is back at the head of the waitlist.
+     */
+    public WaitlistOutcome accept(long showtimeId, String userIdValue) {
+        UUID userId = BookingService.parseUuid(userIdValue);
+        if (userId == null) {
+            return new WaitlistOutcome.InvalidUserId(userIdValue);
+        }
+        if (!(waitlists.lookup(showtimeId, userId) instanceof WaitlistOutcome.Offered offered)) {
+            return new WaitlistOutcome.NoOffer(showtimeId);
+        }
+
+        BookingRequest request = new BookingRequest(showtimeId, offered.seatNumber(), userIdValue);
+        return switch (bookingService.book(request)) {
+            // Booking the offered seat accepts the offer
+            case BookingOutcome.Booked booked -> new WaitlistOutcome.Accepted(booked.bookingId(), offered.seatNumber());
+            case BookingOutcome.SeatTaken taken -> {
+                waitlists.offerFailed(showtimeId, userId);
+                yield new WaitlistOutcome.OfferLost(showtimeId, taken.seatNumber());
+            }
+            case BookingOutcome.ShowtimeNotFound notFound -> new WaitlistOutcome.ShowtimeNotFound(showtimeId);
+            case BookingOutcome.InvalidUserId invalid -> new WaitlistOutcome.InvalidUserId(userIdValue);
+        };
+    }
+}
@@ -0,0 +1,433 @@
+package com.att.tdp.popcorn_palace.waitlist;
+
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
+import com.att.tdp.popcorn_palace.model.waitlist.WaitlistOutcome;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The waitlists of all showtimes, in memory: a FIFO of waiting users per
+ * showtime, plus the open offers.
+ *
+ * When a seat is released, the first user still waiting is offered it for
+ * popcorn.waitlist.offer-ttl. Meanwhile the seat is held: only that user can
+ * book it. An offer that expires or is declined goes to the next waiter, or
+ * frees the seat if nobody is waiting. Users who leave are only marked and
+ * skipped when they reach the head, so joining, leaving and promoting are
+ * all O(1) and never look at bookings.
+ *
+ * Every change is queued and written to the waitlist_entries table in
+ * batches every popcorn.waitlist.flush-interval; the queues are rebuilt
+ * from it at startup. A crash loses at most the changes of one interval.
+ * Holds are only enforced by this instance.
+ */
+@Component
+public class Waitlists {
+
+    private static final Logger logger = LoggerFactory.getLogger(Waitlists.class);
+
+    public enum Status {
+        WAITING, OFFERED, ACCEPTED, EXPIRED, LEFT
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO waitlist_entries "
+            + "(id, showtime_id, user_id, joined_at, status, seat_number, offer_expires_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE waitlist_entries "
+            + "SET status = ?, seat_number = ?, offer_expires_at = ? WHERE id = ?";
+
+    /**
+     * A user on a showtime's waitlist. Guarded by its showtime's queue.
+     */
+    private static final class Entry {
+        final UUID id;
+        final long showtimeId;
+        final UUID userId;
+        final LocalDateTime joinedAt;
+        Status status = Status.WAITING;
+        Integer seatNumber;
+        LocalDateTime offerExpiresAt;
+
+        Entry(UUID id, long showtimeId, UUID userId, LocalDateTime joinedAt) {
+            this.id = id;
+            this.showtimeId = showtimeId;
+            this.userId = userId;
+            this.joinedAt = joinedAt;
+        }
+    }
+
+    /**
+     * One showtime's waitlist; its monitor guards it and its entries.
+     */
+    private static final class Queue {
+        final ArrayDeque<Entry> fifo = new ArrayDeque<>();
+        final Map<UUID, Entry> byUser = new HashMap<>(); // Waiting or offered
+        final Map<Integer, Entry> offersBySeat = new HashMap<>();
+        int waiting;
+    }
+
+    private record Offer(Entry entry, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * A row to write: inserted when the user joins, updated on every change.
+     */
+    private record Change(boolean insert, UUID id, long showtimeId, UUID userId, LocalDateTime joinedAt,
+            Status status, Integer seatNumber, LocalDateTime offerExpiresAt) {
+
+        static Change of(Entry entry, boolean insert) {
+            return new Change(insert, entry.id, entry.showtimeId, entry.userId, entry.joinedAt, entry.status,
+                    entry.seatNumber, entry.offerExpiresAt);
+        }
+    }
+
+    private final Map<Long, Queue> queues = new ConcurrentHashMap<>();
+    private final ArrayDeque<Offer> offersByExpiry = new ArrayDeque<>(); // One TTL, so also offer order
+    private final ConcurrentLinkedQueue<Change> pending = new ConcurrentLinkedQueue<>();
+    private List<Change> unwritten = new ArrayList<>();
+
+    @Value("${popcorn.waitlist.offer-ttl:10m}")
+    private Duration offerTtl;
+
+    @Autowired
+    private SeatMaps seatMaps;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Add the user to the end of the showtime's waitlist.
+     *
+     * @return how many users wait ahead of them, or -1 if they are already
+     *         on it.
+     */
+    public int join(long showtimeId, UUID userId) {
+        Queue queue = queues.computeIfAbsent(showtimeId, id -> new Queue());
+        synchronized (queue) {
+            if (queue.byUser.containsKey(userId)) {
+                return -1;
+            }
+            Entry entry = new Entry(UUID.randomUUID(), showtimeId, userId, LocalDateTime.now());
+            queue.fifo.addLast(entry);
+            queue.byUser.put(userId, entry);
+            pending.add(Change.of(entry, true));
+            return queue.waiting++;
+        }
+    }
+
+    /**
+     * Take the user off the waitlist, declining their offer if they have one.
+     *
+     * @return false if they were not on it.
+     */
+    public boolean leave(long showtimeId, UUID userId) {
+        Queue queue = queues.get(showtimeId);
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            Entry entry = queue.byUser.remove(userId);
+            if (entry == null) {
+                return false;
+            }
+            Status was = entry.status;
+            update(entry, Status.LEFT);
+            if (was == Status.WAITING) {
+                queue.waiting--;
+            } else {
+                passOn(queue, entry.showtimeId, entry.seatNumber);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return {@link WaitlistOutcome.Waiting}, {@link WaitlistOutcome.Offered}
+     *         with the held seat, or {@link WaitlistOutcome.NotWaiting}.
+     */
+    public WaitlistOutcome lookup(long showtimeId, UUID userId) {
+        Queue queue = queues.get(showtimeId);
+        if (queue == null) {
+            return new WaitlistOutcome.NotWaiting(showtimeId);
+        }
+        synchronized (queue) {
+            Entry entry = queue.byUser.get(userId);
+            if (entry == null) {
+                return new WaitlistOutcome.NotWaiting(showtimeId);
+            }
+            return entry.status == Status.OFFERED
+                    ? new WaitlistOutcome.Offered(showtimeId, entry.seatNumber, entry.offerExpiresAt)
+                    : new WaitlistOutcome.Waiting(showtimeId);
+        }
+    }
+
+    /**
+     * Whether the seat is held for a waitlisted user other than
+     * {@code userId}. On the booking path, so a showtime without a waitlist
+     * costs one map lookup.
+     */
+    public boolean isHeldForOther(long showtimeId, int seatNumber, UUID userId) {
+        Queue queue = queues.get(showtimeId);
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            Entry entry = queue.offersBySeat.get(seatNumber);
+            return entry != null && !entry.userId.equals(userId);
+        }
+    }
+
+    /**
+     * The user booked a seat: if it is the one offered to them, their offer
+     * is accepted. Called on every booking, since a waiter may book their
+     * seat through POST /bookings too.
+     */
+    public void accepted(long showtimeId, int seatNumber, UUID userId) {
+        Queue queue = queues.get(showtimeId);
+        if (queue == null) {
+            return; // Showtime deleted
+        }
+        synchronized (queue) {
+            Entry entry = queue.byUser.get(userId);
+            if (entry == null || entry.status != Status.OFFERED || entry.seatNumber != seatNumber) {
+                return; // Expired while booking (the next waiter will find the seat taken), or another seat
+            }
+            queue.byUser.remove(userId);
+            queue.offersBySeat.remove(entry.seatNumber);
+            update(entry, Status.ACCEPTED);
+        }
+    }
+
+    /**
+     * The user's offered seat could not be booked (it was taken through
+     * another instance): they go back to the head of the waitlist.
+     */
+    public void offerFailed(long showtimeId, UUID userId) {
+        Queue queue = queues.get(showtimeId);
+        if (queue == null) {
+            return; // Showtime deleted
+        }
+        synchronized (queue) {
+            Entry entry = queue.byUser.get(userId);
+            if (entry == null || entry.status != Status.OFFERED) {
+                return;
+            }
+            queue.offersBySeat.remove(entry.seatNumber);
+            entry.seatNumber = null;
+            entry.offerExpiresAt = null;
+            update(entry, Status.WAITING);
+            queue.fifo.addFirst(entry);
+            queue.waiting++;
+        }
+    }
+
+    /**
+     * The showtime was deleted: its waitlist ends, and everyone still on it
+     * is recorded as EXPIRED. Call it before its bookings' {@link SeatReleased}
+     * events, so their seats are not offered.
+     */
+    public void showtimeDeleted(long showtimeId) {
+        Queue queue = queues.remove(showtimeId);
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            queue.byUser.values().forEach(entry -> update(entry, Status.EXPIRED));
+            queue.byUser.clear();
+            queue.fifo.clear();
+            queue.offersBySeat.clear();
+            queue.waiting = 0;
+        }
+    }
+
+    /**
+     * Offer a released seat to the showtime's first waiter. Runs after the
+     * seat maps freed the seat, and takes it again for the hold.
+     */
+    @EventListener
+    public void onSeatReleased(SeatReleased released) {
+        Queue queue = queues.get(released.showtimeId());
+        if (queue != null) {
+            synchronized (queue) {
+                offerNext(queue, released.showtimeId(), released.seatNumber());
+            }
+        }
+    }
+
+    /**
+     * Pass expired offers on to the next waiters. Offers expire in the order
+     * they were made, so this only looks at the ones due.
+     */
+    @Scheduled(fixedDelayString = "${popcorn.waitlist.sweep-interval:1s}")
+    public void expireOffers() {
+        LocalDateTime now = LocalDateTime.now();
+        while (true) {
+            Offer offer;
+            synchronized (offersByExpiry) {
+                offer = offersByExpiry.peekFirst();
+                if (offer == null || offer.expiresAt().isAfter(now)) {
+                    return;
+                }
+                offersByExpiry.pollFirst();
+            }
+            Entry entry = offer.entry();
+            Queue queue = queues.get(entry.showtimeId);
+            if (queue == null) {
+                continue; // Showtime deleted
+            }
+            synchronized (queue) {
+                // Skip offers that were accepted, declined or failed in the meantime
+                if (entry.status == Status.OFFERED && offer.expiresAt().equals(entry.offerExpiresAt)) {
+                    queue.byUser.remove(entry.userId);
+                    update(entry, Status.EXPIRED);
+                    passOn(queue, entry.showtimeId, entry.seatNumber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the queued changes to waitlist_entries in one transaction,
+     * inserts in one batch and updates in another (in order). A failed
+     * write is retried next time.
+     */
+    @Scheduled(fixedDelayString = "${popcorn.waitlist.flush-interval:1s}",
+            initialDelayString = "${popcorn.waitlist.flush-interval:1s}")
+    public synchronized void flush() {
+        List<Change> changes = unwritten;
+        for (Change change = pending.poll(); change != null; change = pending.poll()) {
+            changes.add(change);
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.insert()) {
+                inserts.add(new Object[] { change.id(), change.showtimeId(), change.userId(),
+                        Timestamp.valueOf(change.joinedAt()), change.status().name(), change.seatNumber(),
+                        timestamp(change.offerExpiresAt()) });
+            } else {
+                updates.add(new Object[] { change.status().name(), change.seatNumber(),
+                        timestamp(change.offerExpiresAt()), change.id() });
+            }
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            });
+            unwritten = new ArrayList<>();
+        } catch (RuntimeException e) {
+            unwritten = changes;
+            logger.warn("[Waitlists] WARN - Writing {} waitlist changes failed, retrying later: {}",
+                    changes.size(), e.toString());
+        }
+    }
+
+    /**
+     * Rebuild the waitlists from the table, in joining order.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        List<Entry> entries = jdbcTemplate.query("SELECT id, showtime_id, user_id, joined_at, status, seat_number, "
+                + "offer_expires_at FROM waitlist_entries WHERE status IN ('WAITING', 'OFFERED') "
+                + "ORDER BY joined_at", (rs, rowNum) -> {
+                    Entry entry = new Entry(rs.getObject(1, UUID.class), rs.getLong(2), rs.getObject(3, UUID.class),
+                            rs.getTimestamp(4).toLocalDateTime());
+                    entry.status = Status.valueOf(rs.getString(5));
+                    entry.seatNumber = rs.getObject(6, Integer.class);
+                    Timestamp expiresAt = rs.getTimestamp(7);
+                    entry.offerExpiresAt = expiresAt == null ? null : expiresAt.toLocalDateTime();
+                    return entry;
+                });
+        List<Offer> offers = new ArrayList<>();
+        for (Entry entry : entries) {
+            Queue queue = queues.computeIfAbsent(entry.showtimeId, id -> new Queue());
+            synchronized (queue) {
+                queue.byUser.put(entry.userId, entry);
+                if (entry.status == Status.WAITING) {
+                    queue.fifo.addLast(entry);
+                    queue.waiting++;
+                } else {
+                    queue.offersBySeat.put(entry.seatNumber, entry);
+                    offers.add(new Offer(entry, entry.offerExpiresAt));
+                }
+            }
+        }
+        offers.sort((a, b) -> a.expiresAt().compareTo(b.expiresAt()));
+        synchronized (offersByExpiry) {
+            offersByExpiry.addAll(offers);
+        }
+        logger.info("[Waitlists] INFO - Loaded {} waitlisted users ({} with an offer).", entries.size(),
+                offers.size());
+    }
+
+    /**
+     * Give a seat whose offer ended to the next waiter, or free it.
+     */
+    private void passOn(Queue queue, long showtimeId, int seatNumber) {
+        queue.offersBySeat.remove(seatNumber);
+        if (!offerNext(queue, showtimeId, seatNumber)) {
+            seatMaps.markFree(showtimeId, seatNumber);
+        }
+    }
+
+    /**
+     * @return false if nobody is waiting.
+     */
+    private boolean offerNext(Queue queue, long showtimeId, int seatNumber) {
+        Entry next = queue.fifo.pollFirst();
+        while (next != null && next.status != Status.WAITING) {
+            next = queue.fifo.pollFirst(); // Left while waiting
+        }
+        if (next == null) {
+            return false;
+        }
+        queue.waiting--;
+        next.seatNumber = seatNumber;
+        next.offerExpiresAt = LocalDateTime.now().plus(offerTtl);
+        update(next, Status.OFFERED);
+        queue.offersBySeat.put(seatNumber, next);
+        seatMaps.markTaken(showtimeId, seatNumber);
+        synchronized (offersByExpiry) {
+            offersByExpiry.addLast(new Offer(next, next.offerExpiresAt));
+        }
+        return true;
+    }
+
+    private void update(Entry entry, Status status) {
+        entry.status = status;
+        pending.add(Change.of(entry, false));
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
@@ -0,0 +1,178 @@
+package com.att.tdp.popcorn_palace.warmup;
+
+import com.att.tdp.popcorn_palace.controller.BookingController;
+import com.att.tdp.popcorn_palace.controller.ShowtimeController;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs synthetic POST /bookings and GET /showtimes/{id} traffic through the
+ * real controllers, Jackson and the repositories before the instance takes
+ * traffic, so the hot paths are JIT compiled and the statement caches and
+ * connection pool are warm when the first client arrives.
+ *
+ * Every batch books seats on a scratch showtime inside a transaction that is
+ * rolled back, so nothing of the warm-up is ever visible. The in-memory
+ * movie indexes are loaded when the context starts, before this runs.
+ *
+ * Application runners finish before Spring Boot publishes ACCEPTING_TRAFFIC,
+ * so /actuator/health/readiness reports OUT_OF_SERVICE until the warm-up is
+ * done (or popcorn.warmup.max-duration has passed).
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "popcorn.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    // Iterations per rolled-back transaction (and seats on its scratch showtime)
+    private static final int BATCH_SIZE = 100;
+    private static final String SCRATCH_THEATER = "__warmup__";
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private ShowtimeController showtimeController;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${popcorn.warmup.iterations:5000}")
+    private int iterations;
+
+    @Value("${popcorn.warmup.max-duration:30s}")
+    private Duration maxDuration;
+
+    private volatile int completedIterations;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+
+        List<Movie> movies = movieRepository.findAll(PageRequest.of(0, 1)).getContent();
+        if (movies.isEmpty()) {
+            logger.info("[WarmupRunner] INFO - No movies yet, skipping warm-up.");
+            return;
+        }
+        Long movieId = movies.get(0).getId();
+
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        try {
+            while (completedIterations < iterations && System.nanoTime() < deadline) {
+                int batch = Math.min(BATCH_SIZE, iterations - completedIterations);
+                transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    runBatch(movieId, batch, deadline);
+                });
+            }
+        } catch (RuntimeException e) {
+            // A failed warm-up only costs latency, it must not keep the instance down
+            logger.warn("[WarmupRunner] WARN - Warm-up aborted after {} iterations: {}",
+                    completedIterations, e.toString());
+            return;
+        }
+        logger.info("[WarmupRunner] INFO - Warm-up ran {} iterations in {} ms.",
+                completedIterations, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private void runBatch(Long movieId, int batch, long deadline) {
+        Long showtimeId = showtimeRepository.save(scratchShowtime(movieId)).getId();
+        for (int i = 0; i < batch && System.nanoTime() < deadline; i++) {
+            String userId = UUID.randomUUID().toString();
+            // New seat, then the same seat again (409), as in a flash sale
+            book(new BookingRequest(showtimeId, i + 1, userId));
+            book(new BookingRequest(showtimeId, i + 1, userId));
+            write(showtimeController.getShowtime(showtimeId));
+
+            // Later reads must hit the DB, not the persistence context
+            entityManager.flush();
+            entityManager.clear();
+            completedIterations++;
+        }
+    }
+
+    private void book(BookingRequest request) {
+        try {
+            BookingRequest parsed = objectMapper.readValue(objectMapper.writeValueAsBytes(request),
+                    BookingRequest.class);
+            validator.validate(parsed);
+            write(bookingController.bookTicket(parsed));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(ResponseEntity<?> response) {
+        try {
+            objectMapper.writeValueAsBytes(response.getBody());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Showtime scratchShowtime(Long movieId) {
+        Showtime showtime = new Showtime();
+        showtime.setMovieId(movieId);
+        showtime.setTheater(SCRATCH_THEATER);
+        showtime.setStartTime(LocalDateTime.of(2999, 1, 1, 10, 0));
+        showtime.setEndTime(LocalDateTime.of(2999, 1, 1, 12, 0));
+        showtime.setPrice(BigDecimal.ZERO);
+        return showtime;
+    }
+
+    /**
+     * Iterations completed by the last run.
+     */
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+}
@@ -2,24 +2,36 @@ CREATE TABLE IF NOT EXISTS task (
                                     description VARCHAR(64) NOT NULL,
     completed   VARCHAR(30) NOT NULL);
 
+DROP TABLE IF EXISTS sales_rollups;
+DROP TABLE IF EXISTS sales_rollup_locks;
+DROP TABLE IF EXISTS waitlist_entries;
+DROP TABLE IF EXISTS booking_outbox;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS showtimes CASCADE;
 DROP TABLE IF EXISTS movies CASCADE;
+DROP SEQUENCE IF EXISTS movies_id_seq;
+DROP SEQUENCE IF EXISTS showtimes_id_seq;
+
+-- ID sequences. INCREMENT BY must match popcorn.id.allocation-size: Hibernate
+-- reserves a block of IDs per nextval, which lets it batch the inserts
+CREATE SEQUENCE IF NOT EXISTS movies_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS showtimes_id_seq START WITH 1 INCREMENT BY 50;
 
 -- Create Movies Table
 CREATE TABLE IF NOT EXISTS movies (
-    id SERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('movies_id_seq') PRIMARY KEY,
     title VARCHAR(100) NOT NULL,
     genre VARCHAR(50) NOT NULL,
     duration INT NOT NULL CHECK (duration > 0), -- Ensure positive duration
     rating DECIMAL(3,1) CHECK (rating BETWEEN 0 AND 10), -- Ensure valid rating
-    release_year INT CHECK (release_year >= 1888) -- First movie was in 1888
+    release_year INT CHECK (release_year >= 1888), -- First movie was in 1888
+    CONSTRAINT uq_movies_title UNIQUE (title) -- Unique titles, also the index behind title lookups
 );
 
 -- Create Showtimes Table
 CREATE TABLE IF NOT EXISTS showtimes (
-    id SERIAL PRIMARY KEY,
-    movie_id INT NOT NULL,
+    id BIGINT DEFAULT nextval('showtimes_id_seq') PRIMARY KEY,
+    movie_id BIGINT NOT NULL,
     theater VARCHAR(50) NOT NULL,
     start_time TIMESTAMP NOT NULL,
     end_time TIMESTAMP NOT NULL,
@@ -31,12 +43,65 @@ CREATE TABLE IF NOT EXISTS showtimes (
 -- Create Bookings Table
 CREATE TABLE IF NOT EXISTS bookings (
     id UUID PRIMARY KEY,
-    showtime_id INT NOT NULL,
+    showtime_id BIGINT NOT NULL,
     user_id UUID NOT NULL,
     seat_number INT NOT NULL CHECK (seat_number > 0),
     booking_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    price_cents BIGINT CHECK (price_cents >= 0), -- Quoted by the pricing engine; NULL if booked without a quote
 
     CONSTRAINT fk_showtime FOREIGN KEY (showtime_id) REFERENCES showtimes(id) ON DELETE CASCADE,
     CONSTRAINT unique_seat_booking UNIQUE (showtime_id, seat_number)
 );
 
+-- Range scans of the booking export (GET /reports/bookings/export)
+CREATE INDEX IF NOT EXISTS idx_bookings_booking_time ON bookings (booking_time);
+
+-- A user's booking history, newest first, keyset-paged on (booking_time, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_user_time ON bookings (user_id, booking_time, id);
+
+-- Sold seats and revenue per showtime, movie and day of sale (SalesRollups).
+-- Maintained incrementally, rebuilt from bookings by reconciliation
+CREATE TABLE IF NOT EXISTS sales_rollups (
+    dimension VARCHAR(16) NOT NULL, -- SHOWTIME, MOVIE or DAY
+    rollup_key VARCHAR(32) NOT NULL, -- Showtime ID, movie ID or ISO date
+    seats BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    PRIMARY KEY (dimension, rollup_key)
+);
+
+-- Row locks of SalesRollups across instances: RECONCILE is held by the one instance
+-- reconciling, FLUSH by each flush and by the reconciliation's rewrite of sales_rollups
+CREATE TABLE IF NOT EXISTS sales_rollup_locks (
+    name VARCHAR(16) PRIMARY KEY,
+    generation BIGINT NOT NULL DEFAULT 0 -- On FLUSH: reconciliations so far
+);
+
+INSERT INTO sales_rollup_locks (name) VALUES ('RECONCILE'), ('FLUSH');
+
+-- Users waiting for a seat of a showtime (Waitlists), written in batches.
+-- Only WAITING and OFFERED rows are loaded back at startup. No foreign key:
+-- a batch may still carry rows of a showtime deleted since
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id UUID PRIMARY KEY,
+    showtime_id BIGINT NOT NULL,
+    user_id UUID NOT NULL,
+    joined_at TIMESTAMP NOT NULL,
+    status VARCHAR(16) NOT NULL, -- WAITING, OFFERED, ACCEPTED, EXPIRED or LEFT
+    seat_number INT, -- The offered seat
+    offer_expires_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_waitlist_entries_status ON waitlist_entries (status, joined_at);
+
+-- Booking events waiting to be published (BookingOutbox, OutboxRelay). Written in the
+-- transaction of the booking change and deleted once published, so the table stays small
+CREATE TABLE IF NOT EXISTS booking_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, -- Publishing order
+    event_type VARCHAR(16) NOT NULL, -- BOOKED or CANCELLED
+    booking_id UUID NOT NULL,
+    showtime_id BIGINT NOT NULL,
+    user_id UUID NOT NULL,
+    seat_number INT NOT NULL,
+    price_cents BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,32 @@
+-- Bookings table on a booking shard (popcorn.sharding.shards).
+-- Showtimes live in the main database, so there is no foreign key here;
+-- deleting a showtime deletes its bookings explicitly instead.
+CREATE TABLE IF NOT EXISTS bookings (
+    id UUID PRIMARY KEY,
+    showtime_id BIGINT NOT NULL,
+    user_id UUID NOT NULL,
+    seat_number INT NOT NULL CHECK (seat_number > 0),
+    booking_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    price_cents BIGINT CHECK (price_cents >= 0), -- Quoted by the pricing engine; NULL if booked without a quote
+
+    CONSTRAINT unique_seat_booking UNIQUE (showtime_id, seat_number)
+);
+
+-- Range scans of the booking export (GET /reports/bookings/export)
+CREATE INDEX IF NOT EXISTS idx_bookings_booking_time ON bookings (booking_time);
+
+-- A user's booking history, newest first, keyset-paged on (booking_time, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_user_time ON bookings (user_id, booking_time, id);
+
+-- Booking events of this shard waiting to be published (BookingOutbox, OutboxRelay). Written in the
+-- transaction of the booking change and deleted once published, so the table stays small
+CREATE TABLE IF NOT EXISTS booking_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, -- Publishing order
+    event_type VARCHAR(16) NOT NULL, -- BOOKED or CANCELLED
+    booking_id UUID NOT NULL,
+    showtime_id BIGINT NOT NULL,
+    user_id UUID NOT NULL,
+    seat_number INT NOT NULL,
+    price_cents BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,153 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports a few million bookings over HTTP and checks that the heap does not
+ * grow with the row count: the export must stream from the DB cursor to the
+ * socket. The client reads in the same JVM and samples the heap (after a GC)
+ * while the rows arrive. Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BookingExportBenchmark {
+
+    private static final int SHOWTIMES = 2_000;
+    private static final int SEATS_PER_SHOWTIME = 1_000;
+    private static final long BOOKINGS = (long) SHOWTIMES * SEATS_PER_SHOWTIME;
+    private static final int SHOWTIMES_PER_INSERT = 100;
+    private static final LocalDate FROM = LocalDate.of(2029, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2030, 12, 31);
+    private static final long SAMPLE_EVERY_ROWS = 250_000;
+    // Held in memory, the export would be ~400 bytes per row as Java strings, i.e. hundreds of MB
+    private static final long MAX_HEAP_GROWTH_MB = 128;
+    private static final long MAX_HEAP_DRIFT_MB = 32;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long movieId;
+    private List<Long> showtimeIds;
+
+    @BeforeEach
+    void setUp() {
+        movieId = movieRepository.save(new Movie("Export Benchmark", "Drama", 120, 7.0, 2020)).getId();
+        List<Showtime> showtimes = new ArrayList<>(SHOWTIMES);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        for (int i = 0; i < SHOWTIMES; i++) {
+            LocalDateTime slot = start.plusHours(3L * i);
+            showtimes.add(new Showtime(movieId, "Hall " + (i % 12), slot, slot.plusMinutes(150),
+                    new BigDecimal("12.50")));
+        }
+        showtimeIds = showtimeRepository.saveAll(showtimes).stream().map(Showtime::getId).toList();
+
+        long seedStart = System.currentTimeMillis();
+        for (List<Long> chunk : chunks()) {
+            // Sold during the year before the showtimes, within the exported range
+            jdbcTemplate.update("INSERT INTO bookings (id, showtime_id, user_id, seat_number, booking_time) "
+                    + "SELECT RANDOM_UUID(), s.id, RANDOM_UUID(), seat.X, "
+                    + "DATEADD(SECOND, -seat.X * 3600, s.start_time) FROM showtimes s "
+                    + "CROSS JOIN SYSTEM_RANGE(1, " + SEATS_PER_SHOWTIME + ") seat "
+                    + "WHERE s.movie_id = ? AND s.id BETWEEN ? AND ?",
+                    movieId, chunk.get(0), chunk.get(chunk.size() - 1));
+        }
+        System.out.printf("[BookingExportBenchmark] seeded %d bookings in %d ms%n",
+                BOOKINGS, System.currentTimeMillis() - seedStart);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // In chunks: one cascading delete of millions of rows needs more heap than H2 has here
+        for (List<Long> chunk : chunks()) {
+            jdbcTemplate.update("DELETE FROM bookings WHERE showtime_id BETWEEN ? AND ?",
+                    chunk.get(0), chunk.get(chunk.size() - 1));
+        }
+        movieRepository.deleteById(movieId);
+    }
+
+    private List<List<Long>> chunks() {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < showtimeIds.size(); i += SHOWTIMES_PER_INSERT) {
+            chunks.add(showtimeIds.subList(i, Math.min(i + SHOWTIMES_PER_INSERT, showtimeIds.size())));
+        }
+        return chunks;
+    }
+
+    @Test
+    void exportStreamsInConstantMemory() throws Exception {
+        for (String accept : List.of("text/csv", "application/x-ndjson")) {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            long baseline = memory.getHeapMemoryUsage().getUsed();
+            List<Long> growthMb = new ArrayList<>();
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                    + "/reports/bookings/export?from=" + FROM + "&to=" + TO))
+                    .header("Accept", accept)
+                    .build();
+            long start = System.currentTimeMillis();
+            long rows = 0;
+            HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofInputStream());
+            assertThat(response.statusCode()).isEqualTo(200);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("booking_id")) {
+                        continue; // CSV header
+                    }
+                    if (++rows % SAMPLE_EVERY_ROWS == 0) {
+                        System.gc();
+                        growthMb.add((memory.getHeapMemoryUsage().getUsed() - baseline) / (1024 * 1024));
+                    }
+                }
+            }
+            long elapsed = System.currentTimeMillis() - start;
+
+            System.out.printf("[BookingExportBenchmark] %s rows=%d time=%dms (%.0f rows/s) heap growth MB every %d rows=%s%n",
+                    accept, rows, elapsed, rows * 1_000.0 / elapsed, SAMPLE_EVERY_ROWS, growthMb);
+            assertThat(rows).isEqualTo(BOOKINGS);
+            // The first sample includes one-off costs (H2 page cache, buffers); after that the heap must stay flat
+            assertThat(growthMb).allMatch(growth -> growth < MAX_HEAP_GROWTH_MB);
+            assertThat(growthMb.get(growthMb.size() - 1) - growthMb.get(1)).isLessThan(MAX_HEAP_DRIFT_MB);
+        }
+    }
+}
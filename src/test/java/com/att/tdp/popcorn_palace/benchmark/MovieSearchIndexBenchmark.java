@@ -0,0 +1,96 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.index.MovieSearchIndex;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query latency of the in-memory search index at catalog sizes far above
+ * what the integration tests use. Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+class MovieSearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "dark", "knight", "return", "star", "war", "love", "story", "night", "city", "last",
+            "lost", "king", "queen", "shadow", "empire", "rising", "fall", "blood", "river", "mountain",
+            "secret", "garden", "ghost", "silent", "storm", "winter", "summer", "island", "journey", "legend",
+            "dragon", "hunter", "wild", "golden", "silver", "iron", "glass", "paper", "house", "street",
+            "midnight", "express", "galaxy", "planet", "ocean", "desert", "forest", "machine", "dream", "memory" };
+
+    private static final String[] GENRES = { "Action", "Drama", "Comedy", "Horror", "Romance", "Thriller",
+            "Animation", "Documentary", "Crime", "Fantasy" };
+
+    private static final int QUERIES = 2_000;
+
+    @ParameterizedTest(name = "{0} titles")
+    @ValueSource(ints = { 100_000, 1_000_000 })
+    void queryLatency(int titles) {
+        Random random = new Random(42);
+        MovieSearchIndex index = new MovieSearchIndex();
+
+        long buildStart = System.nanoTime();
+        for (int id = 1; id <= titles; id++) {
+            index.put(id, randomTitle(random) + " " + id, GENRES[random.nextInt(GENRES.length)]);
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            queries[i] = i % 3 == 0 ? typo(query, random) : query;
+        }
+
+        // Warm up the JIT before measuring
+        for (int i = 0; i < QUERIES; i++) {
+            index.search(queries[i], 20);
+        }
+
+        long[] latencies = new long[QUERIES];
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            hits += index.search(queries[i], 20).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("[MovieSearchIndexBenchmark] titles=%d build=%dms p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus%n",
+                titles, buildMillis,
+                latencies[QUERIES / 2] / 1_000.0,
+                latencies[QUERIES * 90 / 100] / 1_000.0,
+                latencies[QUERIES * 99 / 100] / 1_000.0,
+                latencies[QUERIES - 1] / 1_000.0);
+        assertThat(hits).isPositive();
+    }
+
+    private static String randomTitle(Random random) {
+        int words = 1 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return title.toString();
+    }
+
+    // Swap two adjacent letters somewhere in the query
+    private static String typo(String query, Random random) {
+        char[] chars = query.toCharArray();
+        int i = 1 + random.nextInt(chars.length - 2);
+        if (chars[i] != ' ' && chars[i + 1] != ' ') {
+            char c = chars[i];
+            chars[i] = chars[i + 1];
+            chars[i + 1] = c;
+        }
+        return new String(chars);
+    }
+}
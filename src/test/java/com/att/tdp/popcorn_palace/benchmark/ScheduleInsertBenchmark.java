@@ -0,0 +1,113 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk schedule insert throughput: pooled sequence IDs with JDBC batching
+ * (what Hibernate does now) vs one round trip per row that reads the ID back
+ * (what IDENTITY columns force). Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ScheduleInsertBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long movieId;
+
+    @BeforeEach
+    void setUp() {
+        showtimeRepository.deleteAll();
+        movieId = movieRepository.save(new Movie("Schedule Benchmark", "Drama", 120, 7.0, 2020)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        showtimeRepository.deleteAll();
+        movieRepository.deleteById(movieId);
+    }
+
+    @Test
+    void batchedVsRowByRow() {
+        // First round of each warms up the JIT and is not reported
+        for (int round = 0; round <= ROUNDS; round++) {
+            long batched = time(() -> transactionTemplate.executeWithoutResult(
+                    status -> showtimeRepository.saveAll(schedule())));
+            long rowByRow = time(() -> transactionTemplate.executeWithoutResult(
+                    status -> schedule().forEach(this::insertReturningKey)));
+
+            if (round > 0) {
+                System.out.printf("[ScheduleInsertBenchmark] rows=%d batched=%dms (%.0f rows/s) row-by-row=%dms (%.0f rows/s)%n",
+                        ROWS, batched, ROWS * 1_000.0 / batched, rowByRow, ROWS * 1_000.0 / rowByRow);
+            }
+        }
+        assertThat(showtimeRepository.count()).isEqualTo(2L * ROWS * (ROUNDS + 1));
+    }
+
+    private List<Showtime> schedule() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        List<Showtime> showtimes = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime slot = start.plusHours(3L * i);
+            showtimes.add(new Showtime(movieId, "Hall " + (i % 12), slot, slot.plusMinutes(150),
+                    new BigDecimal("12.50")));
+        }
+        return showtimes;
+    }
+
+    private void insertReturningKey(Showtime showtime) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO showtimes (movie_id, theater, start_time, end_time, price) VALUES (?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, showtime.getMovieId());
+            ps.setString(2, showtime.getTheater());
+            ps.setTimestamp(3, Timestamp.valueOf(showtime.getStartTime()));
+            ps.setTimestamp(4, Timestamp.valueOf(showtime.getEndTime()));
+            ps.setBigDecimal(5, showtime.getPrice());
+            return ps;
+        }, keyHolder);
+        showtime.setId(((Number) keyHolder.getKeys().get("id")).longValue());
+    }
+
+    private static long time(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
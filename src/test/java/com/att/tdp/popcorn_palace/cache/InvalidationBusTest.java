@@ -0,0 +1,219 @@
+package com.att.tdp.popcorn_palace.cache;
+
+import com.att.tdp.popcorn_palace.index.MovieSearchIndex;
+import com.att.tdp.popcorn_palace.index.MovieTitleIndex;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The application context is one node of a loopback network; the test
+ * plays a second node on the same network.
+ */
+@SpringBootTest(properties = {
+        "popcorn.cache.invalidation.bus=loopback",
+        "popcorn.seating.layouts[0].theater=Bus Hall",
+        "popcorn.seating.layouts[0].rows[0].section=Only",
+        "popcorn.seating.layouts[0].rows[0].seats=3",
+        "popcorn.seating.layouts[0].rows[0].quality=1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InvalidationBusTest {
+
+    private static final LoopbackInvalidationBus.Network NETWORK = new LoopbackInvalidationBus.Network();
+    private static final LoopbackInvalidationBus OTHER_NODE =
+            new LoopbackInvalidationBus(NETWORK, new SimpleMeterRegistry());
+    private static final List<Invalidation> RECEIVED_BY_OTHER_NODE = new CopyOnWriteArrayList<>();
+
+    static {
+        InvalidationListener recorder = new InvalidationListener() {
+            @Override
+            public void invalidate(Invalidation invalidation) {
+                RECEIVED_BY_OTHER_NODE.add(invalidation);
+            }
+
+            @Override
+            public void invalidateAll() {
+            }
+        };
+        OTHER_NODE.subscribe(UserBookingsCache.NAME, recorder);
+        OTHER_NODE.subscribe(SeatMaps.NAME, recorder);
+    }
+
+    @TestConfiguration
+    static class LoopbackNode {
+
+        @Bean
+        InvalidationBus invalidationBus(MeterRegistry meterRegistry) {
+            return new LoopbackInvalidationBus(NETWORK, meterRegistry);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private MovieTitleIndex titleIndex;
+
+    @Autowired
+    private MovieSearchIndex searchIndex;
+
+    private Long movieId;
+    private Long showtimeId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        movieId = movieRepository.save(new Movie("Bus Movie", "Drama", 100, 7.0, 2020)).getId();
+        showtimeId = showtimeRepository.save(new Showtime(movieId, "Bus Hall",
+                LocalDateTime.of(2031, 11, 1, 20, 0), LocalDateTime.of(2031, 11, 1, 22, 0),
+                new BigDecimal("9.00"))).getId();
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+        jdbcTemplate.update("DELETE FROM movies WHERE title = 'Written Elsewhere'");
+    }
+
+    @Test
+    @DisplayName("A movie written by another node is re-read into this node's indexes")
+    void shouldReloadMovieChangedElsewhere() {
+        long lagged = lag().count();
+        // Behind this node's back, like another node's write
+        jdbcTemplate.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Written Elsewhere', 'Mystery', 90, 6.5, 2021)");
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM movies WHERE title = 'Written Elsewhere'", Long.class);
+        assertThat(titleIndex.idOf("Written Elsewhere")).isNull();
+
+        OTHER_NODE.publish("movies", id.toString());
+        assertThat(titleIndex.idOf("Written Elsewhere")).isEqualTo(id);
+        assertThat(searchIndex.search("mystery", 10)).extracting(MovieSearchIndex.Hit::movieId).contains(id);
+
+        jdbcTemplate.update("DELETE FROM movies WHERE id = ?", id);
+        OTHER_NODE.publish("movies", id.toString());
+        assertThat(titleIndex.idOf("Written Elsewhere")).isNull();
+        assertThat(lag().count()).isEqualTo(lagged + 2);
+    }
+
+    @Test
+    @DisplayName("Booking history is invalidated on the other node after a booking here, and here after one there")
+    void shouldInvalidateHistoryAcrossNodes() throws Exception {
+        book(1);
+        assertThat(RECEIVED_BY_OTHER_NODE).extracting(Invalidation::key).contains(userId.toString());
+
+        mockMvc.perform(get("/users/" + userId + "/bookings"))
+                .andExpect(jsonPath("$.bookings.length()").value(1));
+        jdbcTemplate.update("INSERT INTO bookings (id, showtime_id, user_id, seat_number) VALUES (?, ?, ?, 2)",
+                UUID.randomUUID(), showtimeId, userId);
+        mockMvc.perform(get("/users/" + userId + "/bookings"))
+                .andExpect(jsonPath("$.bookings.length()").value(1));
+
+        OTHER_NODE.publish(UserBookingsCache.NAME, userId.toString());
+        mockMvc.perform(get("/users/" + userId + "/bookings"))
+                .andExpect(jsonPath("$.bookings.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("A seat cancelled on another node is searched again here after its invalidation, and vice versa")
+    void shouldFreeSeatsCancelledElsewhere() throws Exception {
+        bestAvailable(3).andExpect(status().isOk());
+        // Like a cancellation on another node: this node's seat map has not seen it
+        jdbcTemplate.update("DELETE FROM bookings WHERE showtime_id = ? AND seat_number = 2", showtimeId);
+        bestAvailable(1).andExpect(status().isConflict());
+
+        OTHER_NODE.publish(SeatMaps.NAME, showtimeId.toString());
+        bestAvailable(1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatNumbers[0]").value(2));
+
+        String bookingId = jdbcTemplate.queryForObject(
+                "SELECT CAST(id AS VARCHAR) FROM bookings WHERE showtime_id = ? AND seat_number = 1",
+                String.class, showtimeId);
+        String owner = jdbcTemplate.queryForObject(
+                "SELECT CAST(user_id AS VARCHAR) FROM bookings WHERE id = CAST(? AS UUID)", String.class, bookingId);
+        mockMvc.perform(delete("/bookings/" + bookingId).param("userId", owner))
+                .andExpect(status().isOk());
+        assertThat(RECEIVED_BY_OTHER_NODE)
+                .filteredOn(invalidation -> invalidation.cache().equals(SeatMaps.NAME))
+                .extracting(Invalidation::key)
+                .contains(showtimeId.toString());
+    }
+
+    @Test
+    @DisplayName("A message older than one already applied for the same key is dropped")
+    void shouldDropOutOfOrderMessages() throws Exception {
+        book(1);
+        mockMvc.perform(get("/users/" + userId + "/bookings"))
+                .andExpect(jsonPath("$.bookings.length()").value(1));
+        double dropped = meterRegistry.get("popcorn.cache.invalidation.dropped").tag("bus", "loopback")
+                .counter().count();
+
+        NETWORK.hold();
+        OTHER_NODE.publish(UserBookingsCache.NAME, userId.toString());
+        OTHER_NODE.publish(UserBookingsCache.NAME, userId.toString());
+        List<Invalidation> sent = NETWORK.release(List::reversed);
+
+        assertThat(sent).extracting(Invalidation::version).isSorted();
+        assertThat(meterRegistry.get("popcorn.cache.invalidation.dropped").tag("bus", "loopback")
+                .counter().count()).isEqualTo(dropped + 1);
+    }
+
+    private Timer lag() {
+        return meterRegistry.get("popcorn.cache.invalidation.lag").tag("bus", "loopback").timer();
+    }
+
+    private ResultActions bestAvailable(int count) throws Exception {
+        return mockMvc.perform(post("/showtimes/" + showtimeId + "/best-available")
+                .param("count", Integer.toString(count))
+                .param("userId", UUID.randomUUID().toString()));
+    }
+
+    private void book(int seat) throws Exception {
+        mockMvc.perform(post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "showtimeId": %d, "seatNumber": %d, "userId": "%s" }
+                        """.formatted(showtimeId, seat, userId)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,25 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.logging.SamplingTurboFilter;
+import com.att.tdp.popcorn_palace.model.PooledSequenceGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    @DisplayName("Reflectively created classes and the shard schema are registered for the native image")
+    void shouldRegisterHints() {
+        new NativeHintsConfig.Hints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(PooledSequenceGenerator.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(SamplingTurboFilter.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("shard-schema.sql")).accepts(hints);
+    }
+}
@@ -22,6 +22,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -165,6 +166,63 @@ class BookingControllerTest {
     }
   }
 
+  @Nested
+  @DisplayName("DELETE /bookings/{bookingId}")
+  class DeleteBookings {
+
+    private static final String OWNER = "00000000-0000-0000-0000-000000000001";
+
+    @Test
+    @DisplayName("Should cancel the booking and free the seat right away (200 OK)")
+    @Rollback
+    void shouldCancelAndFreeSeat() throws Exception {
+      Long showtimeId = insertValidShowtime();
+      UUID bookingId = bookingRepository.save(new Booking(showtimeId, UUID.fromString(OWNER), 10)).getId();
+
+      mockMvc.perform(delete("/bookings/" + bookingId).param("userId", OWNER))
+          .andExpect(status().isOk())
+          .andExpect(content().string(org.hamcrest.Matchers.containsString("Seat 10 of showtime " + showtimeId)));
+
+      // Someone else can take the seat now
+      String body = String.format("""
+              {
+                "showtimeId": %d,
+                "seatNumber": 10,
+                "userId": "%s"
+              }
+          """, showtimeId, UUID.randomUUID());
+      mockMvc.perform(post("/bookings")
+          .contentType(MediaType.APPLICATION_JSON)
+          .content(body))
+          .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should return 403 if the booking belongs to another user")
+    @Rollback
+    void shouldRejectOtherUser() throws Exception {
+      Long showtimeId = insertValidShowtime();
+      UUID bookingId = bookingRepository.save(new Booking(showtimeId, UUID.fromString(OWNER), 10)).getId();
+
+      mockMvc.perform(delete("/bookings/" + bookingId).param("userId", UUID.randomUUID().toString()))
+          .andExpect(status().isForbidden());
+      org.assertj.core.api.Assertions.assertThat(bookingRepository.existsById(bookingId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown booking and 400 for malformed ids")
+    void shouldRejectUnknownOrMalformedIds() throws Exception {
+      mockMvc.perform(delete("/bookings/" + UUID.randomUUID()).param("userId", OWNER))
+          .andExpect(status().isNotFound());
+      mockMvc.perform(delete("/bookings/not-a-uuid").param("userId", OWNER))
+          .andExpect(status().isBadRequest())
+          .andExpect(content().string("Invalid bookingId: must be a valid UUID"));
+      mockMvc.perform(delete("/bookings/" + UUID.randomUUID()).param("userId", "not-a-uuid"))
+          .andExpect(status().isBadRequest())
+          .andExpect(content().string("Invalid userId: must be a valid UUID"));
+    }
+  }
+
   // Helper method to insert a valid showtime
   private Long insertValidShowtime() {
     Movie movie = new Movie("Booking Test Movie", "Action", 120, 7.5, 2025);
@@ -2,6 +2,9 @@ package com.att.tdp.popcorn_palace.controller;
 
 import com.att.tdp.popcorn_palace.model.movie.Movie;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -13,6 +16,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import jakarta.transaction.Transactional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -92,7 +96,7 @@ class MovieControllerTest {
         @DisplayName("Should return 409 if title already exists")
         @Rollback
         void shouldReturnConflictWhenTitleExists() throws Exception {
-            movieRepository.save(new Movie("DupTitle", "SciFi", 120, 8.0, 2010));
+            movieRepository.saveAndFlush(new Movie("DupTitle", "SciFi", 120, 8.0, 2010));
 
             String body = """
                         {
@@ -230,4 +234,222 @@ class MovieControllerTest {
                     .andExpect(content().string(org.hamcrest.Matchers.containsString("No movie found with title")));
         }
     }
+
+    @Nested
+    @DisplayName("ID-based routes /movies/id/{movieId}")
+    class MovieById {
+
+        @Test
+        @DisplayName("Should fetch a movie by ID and return 404 for unknown IDs")
+        @Rollback
+        void shouldGetById() throws Exception {
+            Movie saved = movieRepository.save(new Movie("ById", "Drama", 110, 7.0, 2012));
+
+            mockMvc.perform(get("/movies/id/" + saved.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title").value("ById"));
+
+            mockMvc.perform(get("/movies/id/" + (saved.getId() + 1000)))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should update by ID and keep title lookups in sync")
+        @Rollback
+        void shouldUpdateById() throws Exception {
+            Movie saved = movieRepository.save(new Movie("BeforeRename", "Drama", 110, 7.0, 2012));
+
+            String body = """
+                        {
+                          "title": "AfterRename",
+                          "genre": "Drama",
+                          "duration": 111,
+                          "rating": 7.1,
+                          "releaseYear": 2012
+                        }
+                    """;
+
+            mockMvc.perform(post("/movies/update/id/" + saved.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isOk());
+
+            // The old title is gone, the new one resolves to the same movie
+            mockMvc.perform(delete("/movies/BeforeRename"))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(delete("/movies/AfterRename"))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should delete by ID and return 404 afterwards")
+        @Rollback
+        void shouldDeleteById() throws Exception {
+            Movie saved = movieRepository.save(new Movie("DeleteById", "Drama", 110, 7.0, 2012));
+
+            mockMvc.perform(delete("/movies/id/" + saved.getId()))
+                    .andExpect(status().isOk());
+            mockMvc.perform(delete("/movies/id/" + saved.getId()))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should keep titles that differ only by case apart")
+        @Rollback
+        void shouldKeepCaseVariantsApart() throws Exception {
+            Movie original = movieRepository.saveAndFlush(new Movie("Case Title", "Drama", 110, 7.0, 2012));
+
+            String body = """
+                        {
+                          "title": "case title",
+                          "genre": "Drama",
+                          "duration": 110,
+                          "rating": 7.0,
+                          "releaseYear": 2012
+                        }
+                    """;
+
+            mockMvc.perform(post("/movies")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isOk());
+            mockMvc.perform(delete("/movies/case title"))
+                    .andExpect(status().isOk());
+
+            assertThat(movieRepository.existsById(original.getId())).isTrue();
+            assertThat(movieRepository.existsByTitle("case title")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /movies/search")
+    class SearchMovies {
+
+        @Test
+        @DisplayName("Should find movies by misspelled title, best match first")
+        @Rollback
+        void shouldFindByFuzzyTitle() throws Exception {
+            movieRepository.saveAndFlush(new Movie("Searchable Heist", "Thriller", 120, 8.0, 2010));
+            movieRepository.saveAndFlush(new Movie("Another Heist Story", "Drama", 100, 7.0, 2011));
+
+            mockMvc.perform(get("/movies/search").param("q", "serchable heist"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].title").value("Searchable Heist"))
+                    .andExpect(jsonPath("$[1].title").value("Another Heist Story"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a blank query")
+        void shouldRejectBlankQuery() throws Exception {
+            mockMvc.perform(get("/movies/search").param("q", " "))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /movies/import")
+    class ImportMovies {
+
+        @Test
+        @DisplayName("Should import NDJSON rows and report duplicates and invalid rows")
+        @Rollback
+        void shouldImportNdjson() throws Exception {
+            movieRepository.save(new Movie("Already There", "Drama", 100, 7.0, 2000));
+
+            String body = """
+                    {"title":"Imported One","genre":"Action","duration":100,"rating":7.5,"releaseYear":2005}
+                    {"title":"Imported Two","genre":"Drama","duration":90,"rating":6.5,"releaseYear":2006}
+                    {"title":"Already There","genre":"Drama","duration":100,"rating":7.0,"releaseYear":2000}
+                    {"title":"Imported One","genre":"Action","duration":100,"rating":7.5,"releaseYear":2005}
+                    {"title":"Bad Rating","genre":"Action","duration":100,"rating":15.0,"releaseYear":2005}
+                    not json
+                    """;
+
+            mockMvc.perform(post("/movies/import")
+                    .contentType("application/x-ndjson")
+                    .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalRows").value(6))
+                    .andExpect(jsonPath("$.imported").value(2))
+                    .andExpect(jsonPath("$.duplicates").value(2))
+                    .andExpect(jsonPath("$.rejected").value(2))
+                    .andExpect(jsonPath("$.errors[?(@.row == 5)].message")
+                            .value(org.hamcrest.Matchers.hasItem(
+                                    org.hamcrest.Matchers.containsString("Rating must be at most 10.0"))));
+
+            // Imported rows are visible to title lookups and search right away
+            mockMvc.perform(get("/movies/search").param("q", "imported two"))
+                    .andExpect(jsonPath("$[0].title").value("Imported Two"));
+        }
+
+        @Test
+        @DisplayName("Should import CSV rows with a header and quoted fields")
+        @Rollback
+        void shouldImportCsv() throws Exception {
+            String body = """
+                    title,genre,duration,rating,releaseYear
+                    "Csv, The Movie",Comedy,95,6.0,2012
+                    Csv Sequel,Comedy,97,5.5,2014
+                    Broken Row,Comedy,abc,5.5,2014
+                    """;
+
+            mockMvc.perform(post("/movies/import")
+                    .contentType("text/csv")
+                    .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalRows").value(3))
+                    .andExpect(jsonPath("$.imported").value(2))
+                    .andExpect(jsonPath("$.rejected").value(1));
+
+            mockMvc.perform(delete("/movies/Csv, The Movie"))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should import the first row of a CSV without a header, even if its title starts with 'title'")
+        @Rollback
+        void shouldImportHeaderlessCsv() throws Exception {
+            String body = """
+                    Titanic,Drama,194,7.9,1997
+                    Title Fight,Action,88,5.0,2001
+                    """;
+
+            mockMvc.perform(post("/movies/import")
+                    .contentType("text/csv")
+                    .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalRows").value(2))
+                    .andExpect(jsonPath("$.imported").value(2));
+
+            assertThat(movieRepository.findByTitle("Titanic")).isPresent();
+        }
+    }
+
+    @Nested
+    @DisplayName("Binary response formats")
+    class BinaryFormats {
+
+        @Test
+        @DisplayName("Should return the movie list as Smile or CBOR when asked, JSON otherwise")
+        void shouldNegotiateBinaryFormats() throws Exception {
+            movieRepository.save(new Movie("Binary Movie", "Drama", 101, 7.5, 2011));
+
+            byte[] smile = mockMvc.perform(get("/movies/all").accept("application/x-jackson-smile"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertThat(new ObjectMapper(new SmileFactory()).readTree(smile).get(0).get("title").asText())
+                    .isEqualTo("Binary Movie");
+
+            byte[] cbor = mockMvc.perform(get("/movies/all").accept("application/cbor"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("application/cbor"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor).get(0).get("rating").asDouble())
+                    .isEqualTo(7.5);
+
+            mockMvc.perform(get("/movies/all"))
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long movieId;
+    private Long showtimeId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        movieId = movieRepository.save(new Movie("Export, \"The\" Movie", "Drama", 100, 7.0, 2020)).getId();
+        showtimeId = showtimeRepository.save(new Showtime(movieId, "Export Hall",
+                LocalDateTime.of(2031, 6, 1, 20, 0), LocalDateTime.of(2031, 6, 1, 22, 0),
+                new BigDecimal("12.50"))).getId();
+        userId = UUID.randomUUID();
+        bookingRepository.save(new Booking(showtimeId, userId, 1));
+        bookingRepository.save(new Booking(showtimeId, userId, 2));
+        // Outside the exported range
+        bookingRepository.save(new Booking(showtimeId, userId, 3));
+        jdbcTemplate.update("UPDATE bookings SET booking_time = ? WHERE showtime_id = ? AND seat_number = 3",
+                LocalDateTime.of(2020, 1, 1, 12, 0), showtimeId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+    }
+
+    @Nested
+    @DisplayName("GET /reports/bookings/export")
+    class ExportBookings {
+
+        @Test
+        @DisplayName("Should stream CSV with a header and quoted fields by default")
+        void shouldExportCsv() throws Exception {
+            String csv = mockMvc.perform(get("/reports/bookings/export")
+                    .param("from", LocalDate.now().minusDays(1).toString())
+                    .param("to", LocalDate.now().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                    .andExpect(header().string("Content-Disposition", containsString(".csv")))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = csv.split("\n");
+            assertThat(lines[0]).startsWith("booking_id,booking_time,user_id,seat_number,showtime_id");
+            assertThat(csv).contains("," + userId + ",1," + showtimeId + ",Export Hall,2031-06-01T20:00,"
+                    + "2031-06-01T22:00,12.50," + movieId + ",\"Export, \"\"The\"\" Movie\",Drama");
+            assertThat(csv).contains("," + userId + ",2," + showtimeId + ",");
+            assertThat(csv).doesNotContain("," + userId + ",3,");
+        }
+
+        @Test
+        @DisplayName("Should stream one JSON object per line for application/x-ndjson")
+        void shouldExportNdjson() throws Exception {
+            String ndjson = mockMvc.perform(get("/reports/bookings/export")
+                    .param("from", "2020-01-01")
+                    .param("to", "2020-01-01")
+                    .accept("application/x-ndjson"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+
+            assertThat(ndjson.lines()).hasSize(1);
+            assertThat(ndjson).endsWith("}\n")
+                    .contains("\"userId\":\"" + userId + "\"", "\"seatNumber\":3", "\"price\":12.50",
+                            "\"movieTitle\":\"Export, \\\"The\\\" Movie\"", "\"bookingTime\":\"2020-01-01T12:00\"");
+        }
+
+        @Test
+        @DisplayName("Should return 400 if the range ends before it starts")
+        void shouldRejectReversedRange() throws Exception {
+            mockMvc.perform(get("/reports/bookings/export")
+                    .param("from", "2024-02-02")
+                    .param("to", "2024-02-01"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("before it starts")));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    private Long movieId;
+    private Long showtimeId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        movieId = movieRepository.save(new Movie("History Movie", "Drama", 100, 7.0, 2020)).getId();
+        showtimeId = showtimeRepository.save(new Showtime(movieId, "History Hall",
+                LocalDateTime.of(2031, 7, 1, 20, 0), LocalDateTime.of(2031, 7, 1, 22, 0),
+                new BigDecimal("9.00"))).getId();
+        userId = UUID.randomUUID();
+        for (int seat = 1; seat <= 5; seat++) {
+            book(seat, userId);
+        }
+        // Two share a booking time, so the page boundary has to break the tie on id
+        jdbcTemplate.update("UPDATE bookings SET booking_time = ? WHERE showtime_id = ? AND seat_number IN (2, 3)",
+                LocalDateTime.of(2025, 3, 1, 12, 0), showtimeId);
+        book(6, UUID.randomUUID()); // Someone else's
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+    }
+
+    @Nested
+    @DisplayName("GET /users/{userId}/bookings")
+    class GetBookings {
+
+        @Test
+        @DisplayName("Should page through the user's bookings newest first with showtime and movie details")
+        void shouldPageNewestFirst() throws Exception {
+            List<JsonNode> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                var request = get("/users/" + userId + "/bookings").param("limit", "2");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+                page.get("bookings").forEach(seen::add);
+                cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+                pages++;
+            } while (cursor != null);
+
+            assertThat(pages).isEqualTo(3);
+            assertThat(seen).extracting(booking -> booking.get("seatNumber").asInt())
+                    .containsExactlyInAnyOrder(1, 2, 3, 4, 5);
+            assertThat(seen).extracting(booking -> booking.get("bookingTime").asText())
+                    .isSortedAccordingTo((a, b) -> b.compareTo(a));
+            assertThat(seen.get(0).get("movieTitle").asText()).isEqualTo("History Movie");
+            assertThat(seen.get(0).get("theater").asText()).isEqualTo("History Hall");
+            assertThat(seen.get(0).get("price").decimalValue()).isEqualByComparingTo("9.00");
+        }
+
+        @Test
+        @DisplayName("Should serve the first page from the cache until the user books again")
+        void shouldInvalidateCacheOnBooking() throws Exception {
+            mockMvc.perform(get("/users/" + userId + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(5));
+
+            // Written behind the service's back, so the cached page does not know
+            bookingRepository.save(new Booking(showtimeId, userId, 7));
+            mockMvc.perform(get("/users/" + userId + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(5));
+
+            book(8, userId);
+            mockMvc.perform(get("/users/" + userId + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(7))
+                    .andExpect(jsonPath("$.nextCursor").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should drop a cancelled booking from the cached page and the sales totals")
+        void shouldReleaseCancelledBooking() throws Exception {
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get("/users/" + userId + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(5))
+                    .andReturn().getResponse().getContentAsString());
+            String bookingId = page.get("bookings").get(0).get("bookingId").asText();
+            long seatsSold = salesRollups.forShowtime(showtimeId).seats();
+
+            mockMvc.perform(delete("/bookings/" + bookingId).param("userId", userId.toString()))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/users/" + userId + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(4))
+                    .andExpect(jsonPath("$.bookings[*].bookingId", not(hasItem(bookingId))));
+            assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(seatsSold - 1);
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a malformed userId, limit or cursor")
+        void shouldRejectBadParameters() throws Exception {
+            mockMvc.perform(get("/users/not-a-uuid/bookings"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/users/" + userId + "/bookings").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/users/" + userId + "/bookings").param("limit", "101"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/users/" + userId + "/bookings").param("cursor", "garbage!"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private void book(int seat, UUID user) throws Exception {
+        mockMvc.perform(post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "showtimeId": %d, "seatNumber": %d, "userId": "%s" }
+                        """.formatted(showtimeId, seat, user)))
+                .andExpect(status().isOk());
+    }
+}
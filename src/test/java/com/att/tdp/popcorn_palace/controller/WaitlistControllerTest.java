@@ -0,0 +1,223 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The scheduled sweep and flush are pushed out of the way, so the tests
+ * run them when they need to.
+ */
+@SpringBootTest(properties = {
+        "popcorn.waitlist.offer-ttl=2s",
+        "popcorn.waitlist.sweep-interval=1h",
+        "popcorn.waitlist.flush-interval=1h" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WaitlistControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Waitlists waitlists;
+
+    private Long movieId;
+    private Long showtimeId;
+    private UUID owner;
+    private String bookingId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        movieId = movieRepository.save(new Movie("Waitlist Movie", "Drama", 100, 7.0, 2020)).getId();
+        showtimeId = showtimeRepository.save(new Showtime(movieId, "Waitlist Hall",
+                LocalDateTime.of(2031, 8, 1, 20, 0), LocalDateTime.of(2031, 8, 1, 22, 0),
+                new BigDecimal("9.00"))).getId();
+        owner = UUID.randomUUID();
+        String response = book(5, owner).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bookingId = response.substring(response.lastIndexOf(' ') + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+        jdbcTemplate.update("DELETE FROM waitlist_entries WHERE showtime_id = ?", showtimeId);
+    }
+
+    @Nested
+    @DisplayName("/showtimes/{showtimeId}/waitlist")
+    class Waitlist {
+
+        @Test
+        @DisplayName("Should offer a cancelled seat to the first waiter only, and let them book it")
+        void shouldOfferReleasedSeatInOrder() throws Exception {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            join(first).andExpect(status().isOk()).andExpect(jsonPath("$.ahead").value(0));
+            join(second).andExpect(status().isOk()).andExpect(jsonPath("$.ahead").value(1));
+            join(first).andExpect(status().isConflict());
+
+            cancel();
+
+            mockMvc.perform(get(waitlist()).param("userId", first.toString()))
+                    .andExpect(jsonPath("$.status").value("OFFERED"))
+                    .andExpect(jsonPath("$.seatNumber").value(5));
+            mockMvc.perform(get(waitlist()).param("userId", second.toString()))
+                    .andExpect(jsonPath("$.status").value("WAITING"));
+            book(5, UUID.randomUUID()).andExpect(status().isConflict());
+            accept(second).andExpect(status().isNotFound());
+
+            accept(first).andExpect(status().isOk());
+            mockMvc.perform(get(waitlist()).param("userId", first.toString()))
+                    .andExpect(status().isNotFound());
+            assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM bookings WHERE showtime_id = ? "
+                    + "AND seat_number = 5", UUID.class, showtimeId)).isEqualTo(first);
+
+            waitlists.flush();
+            assertThat(statusOf(first)).isEqualTo("ACCEPTED");
+            assertThat(statusOf(second)).isEqualTo("WAITING");
+        }
+
+        @Test
+        @DisplayName("Should pass an expired offer to the next waiter, and free the seat when nobody is left")
+        void shouldPassOnExpiredOffer() throws Exception {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            UUID gone = UUID.randomUUID();
+            join(first);
+            join(gone);
+            join(second);
+            mockMvc.perform(delete(waitlist()).param("userId", gone.toString()))
+                    .andExpect(status().isOk());
+
+            cancel();
+            Thread.sleep(2100);
+            waitlists.expireOffers();
+
+            accept(first).andExpect(status().isNotFound());
+            mockMvc.perform(get(waitlist()).param("userId", second.toString()))
+                    .andExpect(jsonPath("$.status").value("OFFERED"));
+
+            mockMvc.perform(delete(waitlist()).param("userId", second.toString()))
+                    .andExpect(status().isOk());
+            book(5, UUID.randomUUID()).andExpect(status().isOk());
+
+            waitlists.flush();
+            assertThat(statusOf(first)).isEqualTo("EXPIRED");
+            assertThat(statusOf(gone)).isEqualTo("LEFT");
+            assertThat(statusOf(second)).isEqualTo("LEFT");
+        }
+
+        @Test
+        @DisplayName("Should end the waitlist and cancel the bookings, history and outbox included, with the showtime")
+        void shouldCancelEverythingWithShowtime() throws Exception {
+            UUID first = UUID.randomUUID();
+            join(first);
+            mockMvc.perform(get("/users/" + owner + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(1)); // Now cached
+
+            mockMvc.perform(delete("/showtimes/" + showtimeId))
+                    .andExpect(status().isOk());
+
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE showtime_id = ?",
+                    Integer.class, showtimeId)).isZero();
+            mockMvc.perform(get("/users/" + owner + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(0));
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox WHERE booking_id = ? "
+                    + "AND event_type = 'CANCELLED'", Integer.class, UUID.fromString(bookingId))).isOne();
+            mockMvc.perform(get(waitlist()).param("userId", first.toString()))
+                    .andExpect(status().isNotFound());
+
+            waitlists.flush();
+            assertThat(statusOf(first)).isEqualTo("EXPIRED"); // Not offered the released seat
+        }
+
+        @Test
+        @DisplayName("Should cancel the bookings of its showtimes the same way with the movie")
+        void shouldCancelEverythingWithMovie() throws Exception {
+            UUID first = UUID.randomUUID();
+            join(first);
+            mockMvc.perform(get("/users/" + owner + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(1)); // Now cached
+
+            mockMvc.perform(delete("/movies/id/" + movieId))
+                    .andExpect(status().isOk());
+
+            assertThat(showtimeRepository.existsById(showtimeId)).isFalse();
+            mockMvc.perform(get("/users/" + owner + "/bookings"))
+                    .andExpect(jsonPath("$.bookings.length()").value(0));
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox WHERE booking_id = ? "
+                    + "AND event_type = 'CANCELLED'", Integer.class, UUID.fromString(bookingId))).isOne();
+            mockMvc.perform(get(waitlist()).param("userId", first.toString()))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown showtime and 400 for a malformed userId")
+        void shouldRejectBadRequests() throws Exception {
+            mockMvc.perform(post("/showtimes/999999/waitlist").param("userId", UUID.randomUUID().toString()))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(post(waitlist()).param("userId", "not-a-uuid"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private String waitlist() {
+        return "/showtimes/" + showtimeId + "/waitlist";
+    }
+
+    private ResultActions join(UUID user) throws Exception {
+        return mockMvc.perform(post(waitlist()).param("userId", user.toString()));
+    }
+
+    private ResultActions accept(UUID user) throws Exception {
+        return mockMvc.perform(post(waitlist() + "/accept").param("userId", user.toString()));
+    }
+
+    private void cancel() throws Exception {
+        mockMvc.perform(delete("/bookings/" + bookingId).param("userId", owner.toString()))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions book(int seat, UUID user) throws Exception {
+        return mockMvc.perform(post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "showtimeId": %d, "seatNumber": %d, "userId": "%s" }
+                        """.formatted(showtimeId, seat, user)));
+    }
+
+    private String statusOf(UUID user) {
+        return jdbcTemplate.queryForObject("SELECT status FROM waitlist_entries WHERE showtime_id = ? "
+                + "AND user_id = ?", String.class, showtimeId, user);
+    }
+}
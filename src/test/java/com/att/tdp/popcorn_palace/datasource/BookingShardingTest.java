@@ -0,0 +1,216 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Three in-memory H2 databases act as booking shards next to the main one,
+ * which keeps movies and showtimes.
+ */
+@SpringBootTest(properties = {
+        "popcorn.sharding.shards[0].url=" + BookingShardingTest.SHARD_URL + "0" + BookingShardingTest.SHARD_OPTIONS,
+        "popcorn.sharding.shards[0].username=sa",
+        "popcorn.sharding.shards[0].password=password",
+        "popcorn.sharding.shards[1].url=" + BookingShardingTest.SHARD_URL + "1" + BookingShardingTest.SHARD_OPTIONS,
+        "popcorn.sharding.shards[1].username=sa",
+        "popcorn.sharding.shards[1].password=password",
+        "popcorn.sharding.shards[2].url=" + BookingShardingTest.SHARD_URL + "2" + BookingShardingTest.SHARD_OPTIONS,
+        "popcorn.sharding.shards[2].username=sa",
+        "popcorn.sharding.shards[2].password=password" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingShardingTest {
+
+    static final String SHARD_URL = "jdbc:h2:mem:shard";
+    static final String SHARD_OPTIONS = ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private static final int SHARDS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ShardMap shardMap = new ShardMap(SHARDS);
+    private final List<Long> createdShowtimes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        showtimeRepository.deleteAllById(createdShowtimes);
+    }
+
+    @Test
+    @DisplayName("A booking is stored on its showtime's shard only, and the seat check runs there")
+    void shouldBookOnShowtimeShard() throws Exception {
+        Long showtimeId = createShowtime(0);
+        String body = """
+                { "showtimeId": %d, "seatNumber": 9, "userId": "%s" }
+                """.formatted(showtimeId, UUID.randomUUID());
+
+        mockMvc.perform(post("/bookings").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/bookings").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+
+        int home = shardMap.shardFor(showtimeId);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertThat(countBookings(shard, showtimeId)).isEqualTo(shard == home ? 1 : 0);
+        }
+        assertThat(bookingRepository.existsByShowtimeIdAndSeatNumber(showtimeId, 9)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Queries by userId fan out to every shard and merge the results")
+    void shouldFindUserBookingsAcrossShards() {
+        UUID userId = UUID.randomUUID();
+        Map<Integer, Long> showtimePerShard = new HashMap<>();
+        for (int i = 0; showtimePerShard.size() < SHARDS; i++) {
+            Long showtimeId = createShowtime(i);
+            showtimePerShard.putIfAbsent(shardMap.shardFor(showtimeId), showtimeId);
+        }
+        showtimePerShard.values().forEach(showtimeId ->
+                bookingRepository.save(new Booking(showtimeId, userId, 1)));
+
+        assertThat(bookingRepository.findByUserId(userId))
+                .extracting(Booking::getShowtimeId)
+                .containsExactlyInAnyOrderElementsOf(showtimePerShard.values());
+        assertThat(bookingRepository.count()).isEqualTo(SHARDS);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertThat(countBookings(shard, showtimePerShard.get(shard))).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("A user's booking history is collected from every shard and keyset-paged")
+    void shouldPageUserHistoryAcrossShards() throws Exception {
+        UUID userId = UUID.randomUUID();
+        Map<Integer, Long> showtimePerShard = new HashMap<>();
+        for (int i = 0; showtimePerShard.size() < SHARDS; i++) {
+            Long showtimeId = createShowtime(i);
+            showtimePerShard.putIfAbsent(shardMap.shardFor(showtimeId), showtimeId);
+        }
+        showtimePerShard.values().forEach(showtimeId ->
+                bookingRepository.save(new Booking(showtimeId, userId, 1)));
+
+        String firstPage = mockMvc.perform(get("/users/" + userId + "/bookings").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings.length()").value(2))
+                .andExpect(jsonPath("$.bookings[0].theater").value("Shard Hall"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(get("/users/" + userId + "/bookings").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deleting a showtime removes its bookings from the shard")
+    void shouldDeleteBookingsWithShowtime() throws Exception {
+        Long showtimeId = createShowtime(0);
+        bookingRepository.save(new Booking(showtimeId, UUID.randomUUID(), 3));
+
+        mockMvc.perform(delete("/showtimes/" + showtimeId))
+                .andExpect(status().isOk());
+
+        assertThat(countBookings(shardMap.shardFor(showtimeId), showtimeId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deleting a movie removes the bookings of its showtimes from their shards")
+    void shouldDeleteBookingsWithMovie() throws Exception {
+        Long movieId = movieRepository.save(new Movie("Shard Movie", "Drama", 100, 7.0, 2020)).getId();
+        Long showtimeId = createShowtime(0);
+        Showtime showtime = showtimeRepository.findById(showtimeId).orElseThrow();
+        showtime.setMovieId(movieId);
+        showtimeRepository.save(showtime);
+        bookingRepository.save(new Booking(showtimeId, UUID.randomUUID(), 3));
+
+        mockMvc.perform(delete("/movies/id/" + movieId))
+                .andExpect(status().isOk());
+
+        assertThat(movieRepository.existsById(movieId)).isFalse();
+        assertThat(countBookings(shardMap.shardFor(showtimeId), showtimeId)).isZero();
+    }
+
+    @Test
+    @DisplayName("A batch spanning several shards is rejected")
+    void shouldRejectCrossShardBatch() {
+        Long first = createShowtime(0);
+        Long second = first;
+        for (int i = 1; shardMap.shardFor(second) == shardMap.shardFor(first); i++) {
+            second = createShowtime(i);
+        }
+        List<Booking> batch = List.of(new Booking(first, UUID.randomUUID(), 1),
+                new Booking(second, UUID.randomUUID(), 1));
+
+        assertThatThrownBy(() -> bookingRepository.saveAll(batch))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Every shard pool reports its connection metrics")
+    void shouldReportShardPoolMetrics() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "shard-" + shard).gauge())
+                    .as("shard-" + shard).isNotNull();
+        }
+    }
+
+    private Long createShowtime(int offsetDays) {
+        Showtime showtime = new Showtime();
+        showtime.setMovieId(movieRepository.findAll().get(0).getId());
+        showtime.setTheater("Shard Hall");
+        showtime.setStartTime(LocalDateTime.of(2030, 1, 1, 10, 0).plusDays(offsetDays));
+        showtime.setEndTime(LocalDateTime.of(2030, 1, 1, 12, 0).plusDays(offsetDays));
+        showtime.setPrice(BigDecimal.TEN);
+        Long id = showtimeRepository.save(showtime).getId();
+        createdShowtimes.add(id);
+        return id;
+    }
+
+    private int countBookings(int shard, Long showtimeId) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                SHARD_URL + shard + SHARD_OPTIONS, "sa", "password"));
+        return jdbc.queryForObject("SELECT COUNT(*) FROM bookings WHERE showtime_id = ?", Integer.class, showtimeId);
+    }
+}
@@ -0,0 +1,168 @@
+package com.att.tdp.popcorn_palace.datasource;
+
+import com.att.tdp.popcorn_palace.cache.InvalidationBus;
+import com.att.tdp.popcorn_palace.cache.LoopbackInvalidationBus;
+import com.att.tdp.popcorn_palace.index.MovieIndexes;
+import com.att.tdp.popcorn_palace.index.MovieTitleIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * A second in-memory H2 stands in for a replica. It gets the schema and seed
+ * data but never receives replicated writes, so every write made in a test
+ * is "lagging" and only visible on the primary. The application is one node
+ * of a loopback cache invalidation network, and the test plays another.
+ */
+@SpringBootTest(properties = {
+        "popcorn.cache.invalidation.bus=loopback",
+        "popcorn.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "popcorn.datasource.replicas[0].username=sa",
+        "popcorn.datasource.replicas[0].password=password",
+        "popcorn.datasource.initialize-replicas=true",
+        "popcorn.datasource.replica-lag=30s" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica0;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private static final LoopbackInvalidationBus.Network NETWORK = new LoopbackInvalidationBus.Network();
+    private static final LoopbackInvalidationBus OTHER_NODE =
+            new LoopbackInvalidationBus(NETWORK, new SimpleMeterRegistry());
+
+    @TestConfiguration
+    static class LoopbackNode {
+
+        @Bean
+        InvalidationBus invalidationBus(MeterRegistry meterRegistry) {
+            return new LoopbackInvalidationBus(NETWORK, meterRegistry);
+        }
+    }
+
+    private static final String BODY = """
+            {
+              "title": "Replica Lag Movie",
+              "genre": "Drama",
+              "duration": 100,
+              "rating": 7.0,
+              "releaseYear": 2020
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MovieTitleIndex titleIndex;
+
+    @Autowired
+    private MovieIndexes movieIndexes;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"));
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mockMvc.perform(delete("/movies/Replica Lag Movie"));
+        for (JdbcTemplate db : new JdbcTemplate[] { jdbcTemplate, replica }) {
+            db.update("DELETE FROM movies WHERE title LIKE 'Renamed Elsewhere%'");
+        }
+    }
+
+    @Test
+    @DisplayName("Reads go to the replica unless the client presents a fresh consistency token")
+    void shouldReadYourWritesWithToken() throws Exception {
+        MvcResult created = mockMvc.perform(post("/movies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ConsistencyTokenFilter.HEADER))
+                .andReturn();
+        String token = created.getResponse().getHeader(ConsistencyTokenFilter.HEADER);
+
+        // Replica: seed data only
+        mockMvc.perform(get("/movies/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", hasItem("Inception")))
+                .andExpect(jsonPath("$[*].title", not(hasItem("Replica Lag Movie"))));
+
+        // Primary while the token is fresh
+        mockMvc.perform(get("/movies/all").header(ConsistencyTokenFilter.HEADER, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", hasItem("Replica Lag Movie")));
+
+        // Expired tokens fall back to the replica
+        mockMvc.perform(get("/movies/all").header(ConsistencyTokenFilter.HEADER, "1"))
+                .andExpect(jsonPath("$[*].title", not(hasItem("Replica Lag Movie"))));
+
+        // So do tokens from the future, beyond clock skew
+        String future = Long.toString(System.currentTimeMillis() + Duration.ofHours(1).toMillis());
+        mockMvc.perform(get("/movies/all").header(ConsistencyTokenFilter.HEADER, future))
+                .andExpect(jsonPath("$[*].title", not(hasItem("Replica Lag Movie"))));
+    }
+
+    @Test
+    @DisplayName("Read requests do not get a token")
+    void shouldNotIssueTokenOnReads() throws Exception {
+        mockMvc.perform(get("/movies/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ConsistencyTokenFilter.HEADER));
+    }
+
+    @Test
+    @DisplayName("The primary and replica pools report their connection metrics")
+    void shouldReportPoolMetrics() throws Exception {
+        mockMvc.perform(get("/movies/all")).andExpect(status().isOk());
+
+        for (String pool : new String[] { "primary", "replica-0" }) {
+            assertThat(meterRegistry.find("hikaricp.connections").tag("pool", pool).gauge()).as(pool).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("A movie renamed on another node is re-read from the primary, not the lagging replica")
+    void shouldReindexFromPrimary() {
+        jdbcTemplate.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES ('Renamed Elsewhere', 'Drama', 90, 6.5, 2021)");
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM movies WHERE title = 'Renamed Elsewhere'", Long.class);
+        replica.update("INSERT INTO movies (id, title, genre, duration, rating, release_year) "
+                + "VALUES (?, 'Renamed Elsewhere', 'Drama', 90, 6.5, 2021)", id);
+
+        // The rename has reached the primary only
+        jdbcTemplate.update("UPDATE movies SET title = 'Renamed Elsewhere Twice' WHERE id = ?", id);
+        OTHER_NODE.publish("movies", id.toString());
+        assertThat(titleIndex.idOf("Renamed Elsewhere Twice")).isEqualTo(id);
+        assertThat(titleIndex.idOf("Renamed Elsewhere")).isNull();
+
+        // Same for the full resync after missed messages
+        jdbcTemplate.update("UPDATE movies SET title = 'Renamed Elsewhere Thrice' WHERE id = ?", id);
+        movieIndexes.invalidateAll();
+        assertThat(titleIndex.idOf("Renamed Elsewhere Thrice")).isEqualTo(id);
+        assertThat(titleIndex.idOf("Renamed Elsewhere Twice")).isNull();
+    }
+}
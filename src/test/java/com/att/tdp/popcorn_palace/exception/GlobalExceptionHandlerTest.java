@@ -0,0 +1,62 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    @DisplayName("A unique violation on the title constraint is a 409 about the title")
+    void shouldMapTitleUniqueViolation() {
+        ResponseEntity<String> response = handler.handleDataIntegrityErrors(
+                violation("duplicate key", SqlStates.UNIQUE_VIOLATION, "UQ_MOVIES_TITLE"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).contains("Another movie already has this title");
+    }
+
+    @Test
+    @DisplayName("A unique violation is a 409 even when the constraint is unknown")
+    void shouldMapUniqueViolationBySqlState() {
+        ResponseEntity<String> response = handler.handleDataIntegrityErrors(new DataIntegrityViolationException(
+                "batch failed", new SQLException("uq_movies_title mentioned only in the text", "23505")));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).doesNotContain("movie");
+    }
+
+    @Test
+    @DisplayName("The rating check constraint gets a friendly 400")
+    void shouldMapRatingCheckViolation() {
+        ResponseEntity<String> response = handler.handleDataIntegrityErrors(
+                violation("check failed", SqlStates.CHECK_VIOLATION, "movies_rating_check"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("Rating must be 10.0 or less");
+    }
+
+    @Test
+    @DisplayName("Other violations are a 400 naming the constraint")
+    void shouldMapOtherViolations() {
+        ResponseEntity<String> response = handler.handleDataIntegrityErrors(
+                violation("fk failed", SqlStates.FOREIGN_KEY_VIOLATION, "fk_movie"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Database constraint violated: fk_movie");
+    }
+
+    private static DataIntegrityViolationException violation(String message, String sqlState, String constraint) {
+        SQLException sql = new SQLException(message, sqlState);
+        return new DataIntegrityViolationException(message,
+                new ConstraintViolationException(message, sql, "insert", constraint));
+    }
+}
@@ -0,0 +1,85 @@
+package com.att.tdp.popcorn_palace.index;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovieSearchIndexTest {
+
+    private MovieSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MovieSearchIndex();
+        index.put(1, "The Dark Knight", "Action");
+        index.put(2, "Inception", "Sci-Fi");
+        index.put(3, "Interstellar", "Sci-Fi");
+        index.put(4, "The Godfather", "Crime");
+        index.put(5, "Dark Waters", "Drama");
+    }
+
+    @Test
+    @DisplayName("Should rank movies matching every token first")
+    void shouldRankFullMatchesFirst() {
+        List<MovieSearchIndex.Hit> hits = index.search("dark knight", 10);
+
+        assertThat(hits).extracting(MovieSearchIndex.Hit::movieId).startsWith(1L).contains(5L);
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos in query tokens")
+    void shouldTolerateTypos() {
+        assertThat(index.search("incepton", 10)).extracting(MovieSearchIndex.Hit::movieId).containsExactly(2L);
+        assertThat(index.search("godfahter", 10)).extracting(MovieSearchIndex.Hit::movieId).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should match prefixes and genres")
+    void shouldMatchPrefixesAndGenres() {
+        assertThat(index.search("inter", 10)).extracting(MovieSearchIndex.Hit::movieId).containsExactly(3L);
+        assertThat(index.search("sci fi", 10)).extracting(MovieSearchIndex.Hit::movieId)
+                .containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals incrementally")
+    void shouldUpdateIncrementally() {
+        index.put(2, "Memento", "Thriller");
+        assertThat(index.search("inception", 10)).isEmpty();
+        assertThat(index.search("memento", 10)).extracting(MovieSearchIndex.Hit::movieId).containsExactly(2L);
+
+        index.remove(2);
+        assertThat(index.search("memento", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should stay correct across compaction")
+    void shouldCompact() {
+        for (long id = 100; id < 10_000; id++) {
+            index.put(id, "Filler Movie " + id, "Drama");
+        }
+        for (long id = 100; id < 10_000; id++) {
+            index.remove(id);
+        }
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.search("filler", 10)).isEmpty();
+        assertThat(index.search("the dark knight", 1)).extracting(MovieSearchIndex.Hit::movieId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should compact tombstones left by re-indexing the same movie")
+    void shouldCompactRepeatedUpdates() {
+        for (int i = 0; i < 20_000; i++) {
+            index.put(2, "Inception " + (i % 2 == 0 ? "Redux" : "Again"), "Sci-Fi");
+        }
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.documentCount()).isLessThanOrEqualTo(MovieSearchIndex.COMPACTION_THRESHOLD + 2 * 5);
+        assertThat(index.search("inception again", 1)).extracting(MovieSearchIndex.Hit::movieId)
+                .containsExactly(2L);
+    }
+}
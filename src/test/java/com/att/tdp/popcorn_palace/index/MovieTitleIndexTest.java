@@ -0,0 +1,68 @@
+package com.att.tdp.popcorn_palace.index;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MovieTitleIndexTest {
+
+    @Autowired
+    private MovieTitleIndex titleIndex;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Should resolve titles exactly as stored, like the unique constraint")
+    void shouldResolveExactTitles() {
+        Movie saved = movieRepository.save(new Movie("Index Resolve", "Drama", 100, 6.0, 2001));
+        try {
+            assertThat(titleIndex.resolve("Index Resolve")).get()
+                    .extracting(Movie::getId).isEqualTo(saved.getId());
+            assertThat(titleIndex.resolve("INDEX RESOLVE")).isEmpty();
+            assertThat(titleIndex.isTitleTaken("Index Resolve", null)).isTrue();
+            assertThat(titleIndex.isTitleTaken("Index Resolve", saved.getId())).isFalse();
+            assertThat(titleIndex.isTitleTaken("index resolve", null)).isFalse();
+        } finally {
+            movieRepository.deleteById(saved.getId());
+        }
+        assertThat(titleIndex.isTitleTaken("Index Resolve", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should undo index changes when the transaction rolls back")
+    void shouldUndoOnRollback() {
+        transactionTemplate.executeWithoutResult(status -> {
+            movieRepository.saveAndFlush(new Movie("Rolled Back", "Drama", 100, 6.0, 2001));
+            assertThat(titleIndex.isTitleTaken("Rolled Back", null)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        assertThat(titleIndex.isTitleTaken("Rolled Back", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the DB for titles written outside of JPA")
+    void shouldFallBackToDatabase() {
+        Movie saved = movieRepository.save(new Movie("Out Of Band", "Drama", 100, 6.0, 2001));
+        try {
+            titleIndex.remove(saved.getId());
+
+            assertThat(titleIndex.resolve("Out Of Band")).isPresent();
+            assertThat(titleIndex.isTitleTaken("Out Of Band", null)).isTrue();
+        } finally {
+            movieRepository.deleteById(saved.getId());
+        }
+    }
+}
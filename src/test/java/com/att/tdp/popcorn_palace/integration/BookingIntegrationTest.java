@@ -5,27 +5,52 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.att.tdp.popcorn_palace.cache.UserBookingsCache;
+import com.att.tdp.popcorn_palace.model.booking.SeatReleased;
 import com.att.tdp.popcorn_palace.model.movie.Movie;
 import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.model.waitlist.WaitlistOutcome;
 import com.att.tdp.popcorn_palace.repository.BookingRepository;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.seating.SeatLayouts;
+import com.att.tdp.popcorn_palace.seating.SeatMap;
+import com.att.tdp.popcorn_palace.seating.SeatMaps;
+import com.att.tdp.popcorn_palace.waitlist.Waitlists;
 
 import java.math.BigDecimal;
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        BookingIntegrationTest.LAYOUT_THEATER, BookingIntegrationTest.LAYOUT_SEATS,
+        BookingIntegrationTest.OFFER_TTL, BookingIntegrationTest.SWEEP_INTERVAL })
 @ActiveProfiles("test")
 class BookingIntegrationTest {
 
+    static final String THEATER = "Integration Theater";
+    static final String LAYOUT_THEATER = "popcorn.seating.layouts[0].theater=" + THEATER;
+    static final String LAYOUT_SEATS = "popcorn.seating.layouts[0].rows[0].seats=20";
+    // Offers expire at once, but only when a test runs the sweep
+    static final String OFFER_TTL = "popcorn.waitlist.offer-ttl=0s";
+    static final String SWEEP_INTERVAL = "popcorn.waitlist.sweep-interval=1h";
+
     @LocalServerPort
     int port;
 
@@ -38,6 +63,21 @@ class BookingIntegrationTest {
     @Autowired
     ShowtimeRepository showtimeRepository;
 
+    @Autowired
+    Waitlists waitlists;
+
+    @Autowired
+    UserBookingsCache userBookingsCache;
+
+    @Autowired
+    SeatMaps seatMaps;
+
+    @Autowired
+    SeatLayouts seatLayouts;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     private RestTemplate restTemplate;
 
     @BeforeEach
@@ -48,6 +88,14 @@ class BookingIntegrationTest {
         movieRepository.deleteAll();
     }
 
+    @AfterEach
+    void tearDown() {
+        // Cached contexts share the database and can hand out the same IDs, so leave no rows behind
+        bookingRepository.deleteAll();
+        showtimeRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
     @Test
     @DisplayName("Should create booking, then fail on seat conflict")
     void testCreateAndConflict() {
@@ -110,6 +158,151 @@ class BookingIntegrationTest {
         }
     }
 
+    @Test
+    @DisplayName("Concurrent bookings of one seat: exactly one wins, the others get 409")
+    void testSeatRace() throws Exception {
+        var createUri = URI.create("http://localhost:" + port + "/bookings");
+        Long showtimeId = insertValidShowtime();
+        int contenders = 8;
+
+        List<Callable<HttpStatusCode>> attempts = new ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            String body = String.format("""
+                        {
+                          "showtimeId": %d,
+                          "seatNumber": 7,
+                          "userId": "%s"
+                        }
+                    """, showtimeId, UUID.randomUUID());
+            attempts.add(() -> {
+                try {
+                    return restTemplate.postForEntity(createUri, new HttpEntity<>(body, jsonHeaders()), String.class)
+                            .getStatusCode();
+                } catch (HttpClientErrorException e) {
+                    return e.getStatusCode();
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        try {
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> status : executor.invokeAll(attempts)) {
+                statuses.add(status.get());
+            }
+            assertThat(statuses).filteredOn(HttpStatus.OK::equals).hasSize(1);
+            assertThat(statuses).filteredOn(HttpStatus.CONFLICT::equals).hasSize(contenders - 1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a seat offered to a waiter for them, and drop the booker's cached history")
+    void testWaitlistHoldAndHistory() {
+        var createUri = URI.create("http://localhost:" + port + "/bookings");
+        Long showtimeId = insertValidShowtime();
+        UUID waiter = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        waitlists.join(showtimeId, waiter);
+        waitlists.onSeatReleased(new SeatReleased(UUID.randomUUID(), showtimeId, 9, UUID.randomUUID(),
+                LocalDateTime.now(), 1100L));
+
+        try {
+            restTemplate.postForEntity(createUri, new HttpEntity<>(seatBody(showtimeId, 9, other), jsonHeaders()),
+                    String.class);
+            fail("Expected HttpClientErrorException");
+        } catch (HttpClientErrorException e) {
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        }
+
+        AtomicInteger loads = new AtomicInteger();
+        userBookingsCache.get(waiter, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        ResponseEntity<String> resp = restTemplate.postForEntity(createUri,
+                new HttpEntity<>(seatBody(showtimeId, 9, waiter), jsonHeaders()), String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        userBookingsCache.get(waiter, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertThat(loads).hasValue(2);
+        assertThat(waitlists.lookup(showtimeId, waiter)).isInstanceOf(WaitlistOutcome.NotWaiting.class);
+    }
+
+    @Test
+    @DisplayName("An offered seat booked through POST /bookings is not passed on when the offer runs out")
+    void testOfferBookedDirectly() {
+        var createUri = URI.create("http://localhost:" + port + "/bookings");
+        Long showtimeId = insertValidShowtime();
+        SeatMap seatMap = seatMaps.forShowtime(showtimeId, seatLayouts.forTheater(THEATER));
+        UUID waiter = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+        waitlists.join(showtimeId, waiter);
+        waitlists.join(showtimeId, next);
+        waitlists.onSeatReleased(new SeatReleased(UUID.randomUUID(), showtimeId, 9, UUID.randomUUID(),
+                LocalDateTime.now(), 1100L));
+
+        ResponseEntity<String> resp = restTemplate.postForEntity(createUri,
+                new HttpEntity<>(seatBody(showtimeId, 9, waiter), jsonHeaders()), String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        waitlists.expireOffers(); // Offers expire at once here
+        assertThat(waitlists.lookup(showtimeId, next)).isInstanceOf(WaitlistOutcome.Waiting.class);
+        assertThat(seatMap.isTaken(8)).isTrue();
+
+        waitlists.leave(showtimeId, next);
+        waitlists.expireOffers();
+        assertThat(seatMap.isTaken(8)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deleting a showtime, or its movie, cancels its bookings and ends its waitlist")
+    void testDeletesCancelBookings() {
+        var createUri = URI.create("http://localhost:" + port + "/bookings");
+        Long showtimeId = insertValidShowtime();
+        Long movieId = showtimeRepository.findById(showtimeId).orElseThrow().getMovieId();
+        UUID waiter = UUID.randomUUID();
+        restTemplate.postForEntity(createUri, new HttpEntity<>(seatBody(showtimeId, 3, UUID.randomUUID()),
+                jsonHeaders()), String.class);
+        waitlists.join(showtimeId, waiter);
+
+        restTemplate.delete(URI.create("http://localhost:" + port + "/showtimes/" + showtimeId));
+
+        assertThat(bookingRepository.count()).isZero();
+        assertThat(cancellations(showtimeId)).isOne();
+        assertThat(waitlists.lookup(showtimeId, waiter)).isInstanceOf(WaitlistOutcome.NotWaiting.class);
+
+        showtimeId = showtimeRepository.save(new Showtime(movieId, THEATER, LocalDateTime.of(2025, 4, 2, 17, 0),
+                LocalDateTime.of(2025, 4, 2, 19, 0), BigDecimal.valueOf(11.0))).getId();
+        restTemplate.postForEntity(createUri, new HttpEntity<>(seatBody(showtimeId, 4, UUID.randomUUID()),
+                jsonHeaders()), String.class);
+
+        restTemplate.delete(URI.create("http://localhost:" + port + "/movies/Integration%20Movie"));
+
+        assertThat(movieRepository.existsById(movieId)).isFalse();
+        assertThat(showtimeRepository.existsById(showtimeId)).isFalse();
+        assertThat(bookingRepository.count()).isZero();
+        assertThat(cancellations(showtimeId)).isOne();
+    }
+
+    private Integer cancellations(Long showtimeId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox WHERE showtime_id = ? "
+                + "AND event_type = 'CANCELLED'", Integer.class, showtimeId);
+    }
+
+    private String seatBody(Long showtimeId, int seatNumber, UUID userId) {
+        return String.format("""
+                    {
+                      "showtimeId": %d,
+                      "seatNumber": %d,
+                      "userId": "%s"
+                    }
+                """, showtimeId, seatNumber, userId);
+    }
+
     private HttpHeaders jsonHeaders() {
         HttpHeaders h = new HttpHeaders();
         h.setContentType(MediaType.APPLICATION_JSON);
@@ -123,7 +316,7 @@ class BookingIntegrationTest {
 
         Showtime showtime = new Showtime(
                 movie.getId(),
-                "Integration Theater",
+                THEATER,
                 LocalDateTime.of(2025, 4, 1, 17, 0),
                 LocalDateTime.of(2025, 4, 1, 19, 0),
                 BigDecimal.valueOf(11.0));
@@ -0,0 +1,15 @@
+package com.att.tdp.popcorn_palace.integration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * BookingIntegrationTest against the reactive profile (WebFlux + R2DBC).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.main.web-application-type=reactive", BookingIntegrationTest.LAYOUT_THEATER,
+                BookingIntegrationTest.LAYOUT_SEATS, BookingIntegrationTest.OFFER_TTL,
+                BookingIntegrationTest.SWEEP_INTERVAL })
+@ActiveProfiles("reactive")
+class ReactiveBookingIntegrationTest extends BookingIntegrationTest {
+}
@@ -0,0 +1,13 @@
+package com.att.tdp.popcorn_palace.integration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * ShowtimeIntegrationTest against the reactive profile (WebFlux + R2DBC).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+class ReactiveShowtimeIntegrationTest extends ShowtimeIntegrationTest {
+}
@@ -0,0 +1,175 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+import com.att.tdp.popcorn_palace.loadtest.LoadGenerator.Endpoint;
+import com.att.tdp.popcorn_palace.loadtest.LoadGenerator.EndpointStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Release-night spike replay: many users booking the few hottest showtimes
+ * while others browse. Run with: ./mvnw test -Ploadtest
+ *
+ * Tunable with system properties (defaults in brackets):
+ *  - loadtest.rate: requests per second [300]
+ *  - loadtest.duration: seconds [30]
+ *  - loadtest.warmup: seconds of unreported warm-up on separate showtimes [10]
+ *  - loadtest.showtimes: showtimes on sale [200]
+ *  - loadtest.zipf: popularity skew exponent [1.1]
+ *  - loadtest.seats: seats per showtime [150]
+ *  - loadtest.mix: percentage of bookings/showtime reads/movie list reads [40/40/20]
+ *  - loadtest.max-in-flight: outstanding requests before arrivals are dropped [2000]
+ *  - loadtest.report: report file [target/loadtest-report.json]
+ *
+ * The report is written as JSON with fixed keys so runs can be compared.
+ * {@link ReactiveFlashSaleLoadTest} replays the same spike against the
+ * reactive profile into target/loadtest-report-reactive.json.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "logging.level.root=WARN", "spring.jpa.show-sql=false" })
+@ActiveProfiles("test")
+class FlashSaleLoadTest {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flashSale() throws Exception {
+        int showtimeCount = Integer.getInteger("loadtest.showtimes", 200);
+        String[] mix = System.getProperty("loadtest.mix", "40/40/20").split("/");
+        LoadGenerator.Profile profile = new LoadGenerator.Profile(
+                Double.parseDouble(System.getProperty("loadtest.rate", "300")),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 30)),
+                Double.parseDouble(System.getProperty("loadtest.zipf", "1.1")),
+                Integer.getInteger("loadtest.seats", 150),
+                Integer.parseInt(mix[0]), Integer.parseInt(mix[1]), Integer.parseInt(mix[2]),
+                Integer.getInteger("loadtest.max-in-flight", 2000));
+
+        String baseUrl = "http://localhost:" + port;
+
+        // Warm up the JIT and pools on throwaway showtimes so the measured run starts with all seats free
+        long warmupSeconds = Long.getLong("loadtest.warmup", 10);
+        if (warmupSeconds > 0) {
+            LoadGenerator.Profile warmup = new LoadGenerator.Profile(profile.ratePerSecond(),
+                    Duration.ofSeconds(warmupSeconds), profile.zipfExponent(), profile.seatsPerShowtime(),
+                    profile.bookWeight(), profile.showtimeWeight(), profile.moviesWeight(), profile.maxInFlight());
+            new LoadGenerator(baseUrl, seedShowtimes("Warm-up Screening", showtimeCount), warmup).run();
+        }
+
+        LoadGenerator generator = new LoadGenerator(baseUrl, seedShowtimes("Flash Sale Premiere", showtimeCount),
+                profile);
+        generator.run();
+
+        Map<String, Object> report = report(profile, showtimeCount, generator);
+        Path reportFile = Path.of(System.getProperty("loadtest.report", defaultReportFile()));
+        writeReport(reportFile, report);
+        System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        long requests = generator.getStats().values().stream().mapToLong(EndpointStats::total).sum();
+        assertThat(requests).isPositive();
+    }
+
+    String defaultReportFile() {
+        return "target/loadtest-report.json";
+    }
+
+    private List<Long> seedShowtimes(String title, int count) {
+        jdbcTemplate.update("INSERT INTO movies (title, genre, duration, rating, release_year) "
+                + "VALUES (?, 'Action', 150, 8.5, 2030)", title);
+        Long movieId = jdbcTemplate.queryForObject("SELECT id FROM movies WHERE title = ?", Long.class, title);
+
+        LocalDateTime first = LocalDateTime.of(2030, 6, 1, 12, 0);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = first.plusHours(3L * i);
+            rows.add(new Object[] { movieId, title + " Hall " + i, Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusMinutes(150)), 25.00 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO showtimes (movie_id, theater, start_time, end_time, price) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM showtimes WHERE movie_id = ? ORDER BY start_time", Long.class, movieId);
+    }
+
+    private static Map<String, Object> report(LoadGenerator.Profile profile, int showtimes,
+            LoadGenerator generator) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("ratePerSecond", profile.ratePerSecond());
+        config.put("durationSeconds", profile.duration().toSeconds());
+        config.put("warmupSeconds", Long.getLong("loadtest.warmup", 10));
+        config.put("showtimes", showtimes);
+        config.put("zipfExponent", profile.zipfExponent());
+        config.put("seatsPerShowtime", profile.seatsPerShowtime());
+        config.put("mix", profile.bookWeight() + "/" + profile.showtimeWeight() + "/" + profile.moviesWeight());
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : generator.getStats().entrySet()) {
+            EndpointStats stats = entry.getValue();
+            Histogram latency = stats.latencyMicros;
+            total += stats.total();
+
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", stats.total());
+            endpoint.put("ok", stats.ok.sum());
+            endpoint.put("conflict409", stats.conflict.sum());
+            endpoint.put("otherClientErrors", stats.otherClientError.sum());
+            endpoint.put("serverErrors5xx", stats.serverError.sum());
+            endpoint.put("ioErrors", stats.ioError.sum());
+            endpoint.put("errorRate", rate(stats.serverError.sum() + stats.ioError.sum(), stats.total()));
+            endpoint.put("conflictRate", rate(stats.conflict.sum(), stats.total()));
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double p : PERCENTILES) {
+                percentiles.put("p" + p, latency.getValueAtPercentile(p) / 1_000.0);
+            }
+            percentiles.put("max", latency.getMaxValue() / 1_000.0);
+            endpoint.put("latencyMillis", percentiles);
+            endpoints.put(entry.getKey().label, endpoint);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", config);
+        report.put("achievedRatePerSecond", total / (double) profile.duration().toSeconds());
+        report.put("droppedArrivals", generator.getDropped());
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0 : count / (double) total;
+    }
+
+    private static void writeReport(Path file, Map<String, Object> report) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+}
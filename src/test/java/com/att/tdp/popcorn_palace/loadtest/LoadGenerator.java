@@ -0,0 +1,181 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator.
+ *
+ * Requests are started on a fixed schedule (Poisson arrivals at the
+ * configured rate) no matter how fast the server answers, and latency is
+ * measured from the scheduled start. A slow server therefore shows up as
+ * higher latency instead of silently lowering the offered load (no
+ * coordinated omission).
+ */
+class LoadGenerator {
+
+    /**
+     * Endpoints driven by the generator.
+     */
+    enum Endpoint {
+        BOOK("POST /bookings"), GET_SHOWTIME("GET /showtimes/{id}"), GET_MOVIES("GET /movies/all");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Load shape. Mix weights are relative, e.g. 20/50/30.
+     */
+    record Profile(double ratePerSecond, Duration duration, double zipfExponent, int seatsPerShowtime,
+            int bookWeight, int showtimeWeight, int moviesWeight, int maxInFlight) {
+    }
+
+    /**
+     * Latency (microseconds) and status counts for one endpoint.
+     */
+    static class EndpointStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder conflict = new LongAdder();
+        final LongAdder otherClientError = new LongAdder();
+        final LongAdder serverError = new LongAdder();
+        final LongAdder ioError = new LongAdder();
+
+        long total() {
+            return ok.sum() + conflict.sum() + otherClientError.sum() + serverError.sum() + ioError.sum();
+        }
+    }
+
+    private final String baseUrl;
+    private final List<Long> showtimeIds;
+    private final Profile profile;
+    private final HttpClient client;
+    private final Map<Endpoint, EndpointStats> stats = new LinkedHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    LoadGenerator(String baseUrl, List<Long> showtimeIds, Profile profile) {
+        this.baseUrl = baseUrl;
+        this.showtimeIds = showtimeIds;
+        this.profile = profile;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    Map<Endpoint, EndpointStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * Arrivals that were skipped because maxInFlight requests were outstanding.
+     */
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    void run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(7);
+        ZipfSampler popularity = new ZipfSampler(showtimeIds.size(), profile.zipfExponent());
+        Semaphore inFlight = new Semaphore(profile.maxInFlight());
+        int totalWeight = profile.bookWeight() + profile.showtimeWeight() + profile.moviesWeight();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long end = start + profile.duration().toNanos();
+            double next = start;
+            while (next < end) {
+                long intendedStart = (long) next;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                int pick = random.nextInt(totalWeight);
+                Endpoint endpoint = pick < profile.bookWeight() ? Endpoint.BOOK
+                        : pick < profile.bookWeight() + profile.showtimeWeight() ? Endpoint.GET_SHOWTIME
+                        : Endpoint.GET_MOVIES;
+                HttpRequest request = request(endpoint, showtimeIds.get(popularity.next(random)), random);
+
+                if (inFlight.tryAcquire()) {
+                    workers.execute(() -> {
+                        try {
+                            send(endpoint, request, intendedStart);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } else {
+                    dropped.increment();
+                }
+
+                // Exponential gaps give Poisson arrivals at the configured mean rate
+                next += -Math.log(1 - random.nextDouble()) * meanGapNanos;
+            }
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint, long showtimeId, SplittableRandom random) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        return switch (endpoint) {
+            case BOOK -> builder.uri(URI.create(baseUrl + "/bookings"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"showtimeId\":" + showtimeId
+                            + ",\"seatNumber\":" + (1 + random.nextInt(profile.seatsPerShowtime()))
+                            + ",\"userId\":\"" + UUID.randomUUID() + "\"}"))
+                    .build();
+            case GET_SHOWTIME -> builder.uri(URI.create(baseUrl + "/showtimes/" + showtimeId)).GET().build();
+            case GET_MOVIES -> builder.uri(URI.create(baseUrl + "/movies/all")).GET().build();
+        };
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request, long intendedStart) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status == 409) {
+                endpointStats.conflict.increment();
+            } else if (status >= 500) {
+                endpointStats.serverError.increment();
+            } else if (status >= 400) {
+                endpointStats.otherClientError.increment();
+            } else {
+                endpointStats.ok.increment();
+            }
+        } catch (IOException e) {
+            endpointStats.ioError.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        Histogram histogram = endpointStats.latencyMicros;
+        histogram.recordValue(Math.min(Math.max(micros, 1), histogram.getHighestTrackableValue()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.att.tdp.popcorn_palace.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link FlashSaleLoadTest} against the reactive profile (WebFlux on Netty +
+ * R2DBC), for a side-by-side comparison with the servlet report.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "logging.level.root=WARN", "spring.jpa.show-sql=false",
+                "spring.main.web-application-type=reactive" })
+@ActiveProfiles("reactive")
+class ReactiveFlashSaleLoadTest extends FlashSaleLoadTest {
+
+    @Override
+    String defaultReportFile() {
+        return "target/loadtest-report-reactive.json";
+    }
+}
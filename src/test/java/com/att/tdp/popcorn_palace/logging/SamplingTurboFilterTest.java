@@ -0,0 +1,43 @@
+package com.att.tdp.popcorn_palace.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger("test");
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setRate(10);
+    }
+
+    @Test
+    @DisplayName("Should keep roughly 1 in rate of the SAMPLED INFO events")
+    void shouldSampleMarkedInfo() {
+        int kept = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.decide(LogSampling.SAMPLED, logger, Level.INFO, "msg", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertThat(kept).isBetween(9_000, 11_000);
+    }
+
+    @Test
+    @DisplayName("Should never sample unmarked events or WARN and above")
+    void shouldPassUnmarkedAndWarnings() {
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.decide(null, logger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(LogSampling.SAMPLED, logger, Level.WARN, "msg", null, null))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+}
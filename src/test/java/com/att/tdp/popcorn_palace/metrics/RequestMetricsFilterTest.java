@@ -0,0 +1,81 @@
+package com.att.tdp.popcorn_palace.metrics;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability // Tests disable metrics export by default
+@ActiveProfiles("test")
+class RequestMetricsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private Long movieId;
+
+    @BeforeEach
+    void setUp() {
+        movieId = movieRepository.save(new Movie("Metrics Movie", "Drama", 100, 7.0, 2015)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+    }
+
+    @Test
+    @DisplayName("Should record JDBC statements and time per method and URI pattern")
+    void shouldRecordStatementsPerEndpoint() throws Exception {
+        mockMvc.perform(get("/movies/id/" + movieId)).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find(RequestMetricsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/movies/id/{movieId}")
+                .summary();
+        Timer time = meterRegistry.find(RequestMetricsFilter.TIME_METRIC)
+                .tags("method", "GET", "uri", "/movies/id/{movieId}")
+                .timer();
+
+        assertThat(statements).isNotNull();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+        assertThat(time).isNotNull();
+        assertThat(time.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should expose request, JDBC and Hikari metrics in Prometheus format")
+    void shouldExposePrometheusScrape() throws Exception {
+        mockMvc.perform(get("/movies/all")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("popcorn_jdbc_statements_count")))
+                .andExpect(content().string(containsString("popcorn_jdbc_time_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+}
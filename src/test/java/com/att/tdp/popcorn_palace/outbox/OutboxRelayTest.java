@@ -0,0 +1,172 @@
+package com.att.tdp.popcorn_palace.outbox;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Booking events through the outbox to the file publisher. The relay only
+ * runs when a test calls it, with small batches so a drain takes several.
+ */
+@SpringBootTest(properties = {
+        "popcorn.outbox.publisher=file",
+        "popcorn.outbox.file=" + OutboxRelayTest.FILE,
+        "popcorn.outbox.batch-size=2" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    static final String FILE = "target/outbox-relay-test.ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    private Long movieId;
+    private Long showtimeId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.deleteIfExists(Path.of(FILE));
+        movieId = movieRepository.save(new Movie("Outbox Movie", "Drama", 100, 7.0, 2020)).getId();
+        showtimeId = showtimeRepository.save(new Showtime(movieId, "Outbox Hall",
+                LocalDateTime.of(2031, 9, 1, 20, 0), LocalDateTime.of(2031, 9, 1, 22, 0),
+                new BigDecimal("9.00"))).getId();
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+    }
+
+    @Test
+    @DisplayName("Should publish committed bookings and cancellations in order, then delete them from the outbox")
+    void shouldPublishInOrder() throws Exception {
+        String first = bookingId(book(1).andExpect(status().isOk()));
+        String second = bookingId(book(2).andExpect(status().isOk()));
+        book(1).andExpect(status().isConflict()); // Nothing to publish
+        mockMvc.perform(delete("/bookings/" + second).param("userId", userId.toString()))
+                .andExpect(status().isOk());
+
+        assertThat(outboxRelay.relay()).isGreaterThanOrEqualTo(3);
+
+        List<JsonNode> events = published();
+        assertThat(events).extracting(event -> event.get("type").asText())
+                .containsExactly("BOOKED", "BOOKED", "CANCELLED");
+        assertThat(events).extracting(event -> event.get("bookingId").asText())
+                .containsExactly(first, second, second);
+        assertThat(events.get(0).get("seatNumber").asInt()).isEqualTo(1);
+        assertThat(events.get(0).get("priceCents").asLong()).isEqualTo(900);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox", Integer.class)).isZero();
+        assertThat(outboxRelay.relay()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should skip events another relay has locked, and publish them once they are released")
+    void shouldSkipLockedEvents() throws Exception {
+        String locked = bookingId(book(1).andExpect(status().isOk()));
+        String free = bookingId(book(2).andExpect(status().isOk()));
+
+        CountDownLatch lockTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherRelay = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT id FROM booking_outbox WHERE booking_id = ? FOR UPDATE",
+                            UUID.fromString(locked));
+                    lockTaken.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(lockTaken.await(10, TimeUnit.SECONDS)).isTrue();
+
+        outboxRelay.relay();
+        assertThat(published()).extracting(event -> event.get("bookingId").asText()).containsExactly(free);
+
+        release.countDown();
+        otherRelay.get(10, TimeUnit.SECONDS);
+        outboxRelay.relay();
+        assertThat(published()).extracting(event -> event.get("bookingId").asText()).containsExactly(free, locked);
+    }
+
+    private ResultActions book(int seat) throws Exception {
+        return mockMvc.perform(post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "showtimeId": %d, "seatNumber": %d, "userId": "%s" }
+                        """.formatted(showtimeId, seat, userId)));
+    }
+
+    private static String bookingId(ResultActions result) throws Exception {
+        String body = result.andReturn().getResponse().getContentAsString();
+        return body.substring(body.lastIndexOf(' ') + 1);
+    }
+
+    /**
+     * This test's events in the file; events left over by other test classes
+     * are published too.
+     */
+    private List<JsonNode> published() throws Exception {
+        List<JsonNode> events = new ArrayList<>();
+        Path path = Path.of(FILE);
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path)) {
+                JsonNode event = objectMapper.readTree(line);
+                if (event.get("showtimeId").asLong() == showtimeId) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,115 @@
+package com.att.tdp.popcorn_palace.pricing;
+
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.report.SalesRollups;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "popcorn.pricing.capacity=4",
+        "popcorn.pricing.occupancy[0].from-percent=50",
+        "popcorn.pricing.occupancy[0].adjust-percent=20",
+        "popcorn.rollups.flush-interval=1h" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PricingEngineTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("The occupancy and lead-time rules that apply are added up, within the bounds")
+    void shouldCombineRules() {
+        PricingProperties properties = new PricingProperties();
+        properties.setOccupancy(List.of(occupancy(50, 10), occupancy(90, 40)));
+        properties.setLeadTime(List.of(leadTime(Duration.ofDays(1), -5), leadTime(Duration.ofHours(1), 20)));
+        properties.setMaxPercent(150);
+        PricingEngine engine = new PricingEngine(properties);
+        long day = Duration.ofDays(1).toSeconds();
+
+        assertThat(engine.quoteCents(1000, 0, 100, 30 * day)).isEqualTo(1000); // No rule applies
+        assertThat(engine.quoteCents(1000, 49, 100, 30 * day)).isEqualTo(1000);
+        assertThat(engine.quoteCents(1000, 50, 100, 30 * day)).isEqualTo(1100);
+        assertThat(engine.quoteCents(1000, 95, 100, day)).isEqualTo(1350);
+        assertThat(engine.quoteCents(1000, 95, 100, 600)).isEqualTo(1500); // 160% capped at 150%
+        assertThat(engine.quoteCents(1000, 500, 100, -600)).isEqualTo(1500); // Oversold, already started
+        assertThat(engine.quoteCents(1250, 0, 100, day)).isEqualTo(1188); // 11.875 rounds half up
+    }
+
+    @Test
+    @DisplayName("A booking stores the price quoted from the seats sold so far")
+    void shouldStoreQuotedPrice() throws Exception {
+        Long movieId = movieRepository.save(new Movie("Pricing Movie", "Drama", 100, 7.0, 2020)).getId();
+        Long showtimeId = showtimeRepository.save(new Showtime(movieId, "Pricing Hall",
+                LocalDateTime.of(2031, 9, 1, 20, 0), LocalDateTime.of(2031, 9, 1, 22, 0),
+                new BigDecimal("10.00"))).getId();
+        try {
+            for (int seat = 1; seat <= 3; seat++) {
+                mockMvc.perform(post("/bookings")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        { "showtimeId": %d, "seatNumber": %d, "userId": "%s" }
+                                        """.formatted(showtimeId, seat, UUID.randomUUID())))
+                        .andExpect(status().isOk());
+            }
+
+            // Half of the 4 seats were sold before the third booking
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT price_cents FROM bookings WHERE showtime_id = ? ORDER BY seat_number",
+                    Long.class, showtimeId)).containsExactly(1000L, 1000L, 1200L);
+            assertThat(salesRollups.seatsSold(showtimeId)).isEqualTo(3);
+            assertThat(salesRollups.forShowtime(showtimeId).revenue()).isEqualByComparingTo("32.00");
+
+            salesRollups.reconcile();
+            assertThat(salesRollups.forShowtime(showtimeId).revenue()).isEqualByComparingTo("32.00");
+        } finally {
+            movieRepository.deleteById(movieId);
+            salesRollups.reconcile();
+        }
+    }
+
+    private static PricingProperties.OccupancyRule occupancy(int fromPercent, int adjustPercent) {
+        PricingProperties.OccupancyRule rule = new PricingProperties.OccupancyRule();
+        rule.setFromPercent(fromPercent);
+        rule.setAdjustPercent(adjustPercent);
+        return rule;
+    }
+
+    private static PricingProperties.LeadTimeRule leadTime(Duration within, int adjustPercent) {
+        PricingProperties.LeadTimeRule rule = new PricingProperties.LeadTimeRule();
+        rule.setWithin(within);
+        rule.setAdjustPercent(adjustPercent);
+        return rule;
+    }
+}
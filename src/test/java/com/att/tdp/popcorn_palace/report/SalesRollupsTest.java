@@ -0,0 +1,217 @@
+package com.att.tdp.popcorn_palace.report;
+
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "popcorn.rollups.flush-interval=1h") // Flushed by the tests
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SalesRollupsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long movieId;
+    private Long showtimeId;
+
+    @BeforeEach
+    void setUp() {
+        movieId = movieRepository.save(new Movie("Rollup Movie", "Drama", 100, 7.0, 2020)).getId();
+        showtimeId = showtimeRepository.save(new Showtime(movieId, "Rollup Hall",
+                LocalDateTime.of(2031, 5, 1, 20, 0), LocalDateTime.of(2031, 5, 1, 22, 0),
+                new BigDecimal("12.50"))).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+        salesRollups.reconcile();
+    }
+
+    @Test
+    @DisplayName("Bookings are counted per showtime, movie and day, and flushed to the rollup table")
+    void shouldCountBookings() throws Exception {
+        long soldToday = salesRollups.forDay(LocalDate.now()).seats();
+        for (int seat = 1; seat <= 3; seat++) {
+            book(seat).andExpect(status().isOk());
+        }
+        book(1).andExpect(status().isConflict());
+
+        mockMvc.perform(get("/reports/sales/showtimes/" + showtimeId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seats").value(3))
+                .andExpect(jsonPath("$.revenue").value(37.5));
+        mockMvc.perform(get("/reports/sales/movies/" + movieId))
+                .andExpect(jsonPath("$.seats").value(3));
+        mockMvc.perform(get("/reports/sales/days/" + LocalDate.now()))
+                .andExpect(jsonPath("$.seats").value(soldToday + 3));
+
+        salesRollups.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT revenue_cents FROM sales_rollups "
+                + "WHERE dimension = 'SHOWTIME' AND rollup_key = ?", Long.class, showtimeId.toString()))
+                .isEqualTo(3750L);
+        assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Reconciliation recounts bookings the counters missed")
+    void shouldReconcileDrift() throws Exception {
+        book(1).andExpect(status().isOk());
+        // Written behind the counters' back
+        bookingRepository.save(new Booking(showtimeId, UUID.randomUUID(), 2));
+        assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(1);
+
+        salesRollups.reconcile();
+
+        assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(2);
+        assertThat(salesRollups.forShowtime(showtimeId).revenue()).isEqualByComparingTo("25.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT seats FROM sales_rollups "
+                + "WHERE dimension = 'MOVIE' AND rollup_key = ?", Long.class, movieId.toString()))
+                .isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("After a price change, sold seats keep their quoted price and unquoted ones count at the new one")
+    void shouldApplyPriceChange() throws Exception {
+        book(1).andExpect(status().isOk());
+        bookingRepository.save(new Booking(showtimeId, UUID.randomUUID(), 2)); // No quote
+        salesRollups.reconcile();
+
+        Showtime showtime = showtimeRepository.findById(showtimeId).orElseThrow();
+        showtime.setPrice(new BigDecimal("20.00"));
+        showtimeRepository.save(showtime);
+        assertThat(salesRollups.isReconcileRequested()).isFalse(); // Adjusted, not recounted
+        salesRollups.flush();
+
+        assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(2);
+        assertThat(salesRollups.forShowtime(showtimeId).revenue()).isEqualByComparingTo("32.50");
+        assertThat(salesRollups.forMovie(movieId).revenue()).isEqualByComparingTo("32.50");
+    }
+
+    @Test
+    @DisplayName("A flush picks up what other instances added to the rollup table")
+    void shouldRefreshFromTable() throws Exception {
+        salesRollups.reconcile(); // Not at the flushes below, which would recount the table away
+        book(1).andExpect(status().isOk());
+        salesRollups.flush();
+
+        // Another instance flushes two seats
+        jdbcTemplate.update("UPDATE sales_rollups SET seats = seats + 2, revenue_cents = revenue_cents + 2500 "
+                + "WHERE dimension = 'SHOWTIME' AND rollup_key = ?", showtimeId.toString());
+        book(2).andExpect(status().isOk());
+        assertThat(salesRollups.seatsSold(showtimeId)).isEqualTo(2);
+
+        salesRollups.flush();
+
+        assertThat(salesRollups.seatsSold(showtimeId)).isEqualTo(4);
+        assertThat(salesRollups.forShowtime(showtimeId).revenue()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    @DisplayName("A flush drops the deltas that another instance's reconciliation already recounted")
+    void shouldDropDeltasOfOlderGeneration() throws Exception {
+        salesRollups.reconcile();
+        book(1).andExpect(status().isOk());
+
+        // Another instance reconciles, counting the booking
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE sales_rollup_locks SET generation = generation + 1 WHERE name = 'FLUSH'");
+            jdbcTemplate.update("INSERT INTO sales_rollups (dimension, rollup_key, seats, revenue_cents) "
+                    + "VALUES ('SHOWTIME', ?, 1, 1250)", showtimeId.toString());
+        });
+        salesRollups.flush();
+
+        assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT seats FROM sales_rollups "
+                + "WHERE dimension = 'SHOWTIME' AND rollup_key = ?", Long.class, showtimeId.toString()))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Reconciliation is skipped while another instance is reconciling")
+    void shouldReconcileOnOneInstance() throws Exception {
+        book(1).andExpect(status().isOk());
+        bookingRepository.save(new Booking(showtimeId, UUID.randomUUID(), 2)); // Behind the counters' back
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherInstance = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT generation FROM sales_rollup_locks "
+                            + "WHERE name = 'RECONCILE' FOR UPDATE", Long.class);
+                    locked.countDown();
+                    await(release);
+                }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            salesRollups.reconcile();
+            assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            otherInstance.get(10, TimeUnit.SECONDS);
+        }
+
+        salesRollups.reconcile();
+        assertThat(salesRollups.forShowtime(showtimeId).seats()).isEqualTo(2);
+    }
+
+    private ResultActions book(int seat) throws Exception {
+        return mockMvc.perform(post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "showtimeId": %d, "seatNumber": %d, "userId": "%s" }
+                        """.formatted(showtimeId, seat, UUID.randomUUID())));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import com.att.tdp.popcorn_palace.model.booking.BookingOutcome;
+import com.att.tdp.popcorn_palace.model.booking.BookingRequest;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import com.att.tdp.popcorn_palace.service.BookingService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The in-JVM stand-in for the advisory locks, through the booking path.
+ */
+@SpringBootTest(properties = "popcorn.seat-locks.mode=in-jvm")
+@ActiveProfiles("test")
+class SeatLocksTest {
+
+    @Autowired
+    private SeatLocks seatLocks;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long movieId;
+    private Long showtimeId;
+
+    @BeforeEach
+    void setUp() {
+        movieId = movieRepository.save(new Movie("Lock Movie", "Drama", 100, 7.0, 2020)).getId();
+        showtimeId = showtimeRepository.save(new Showtime(movieId, "Lock Hall",
+                LocalDateTime.of(2031, 10, 1, 20, 0), LocalDateTime.of(2031, 10, 1, 22, 0),
+                new BigDecimal("9.00"))).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+    }
+
+    @Test
+    @DisplayName("A booking waits for the transaction holding its seat, then finds the seat taken")
+    void shouldQueueBehindSeatHolder() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    seatLocks.lockSeat(showtimeId, 7);
+                    bookingRepository.insertIfSeatFree(UUID.randomUUID(), showtimeId, UUID.randomUUID(), 7, 900,
+                            LocalDateTime.now());
+                    locked.countDown();
+                    await(commit);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<BookingOutcome> contender = CompletableFuture.supplyAsync(() ->
+                bookingService.book(new BookingRequest(showtimeId, 7, UUID.randomUUID().toString())));
+        BookingOutcome otherSeat = bookingService.book(new BookingRequest(showtimeId, 8, UUID.randomUUID().toString()));
+
+        assertThat(otherSeat).isInstanceOf(BookingOutcome.Booked.class);
+        Thread.sleep(200);
+        assertThat(contender).isNotDone();
+
+        commit.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        assertThat(contender.get(10, TimeUnit.SECONDS)).isInstanceOf(BookingOutcome.SeatTaken.class);
+    }
+
+    @Test
+    @DisplayName("A showtime lock waits for every seat lock of the showtime")
+    void shouldExcludeSeatsWhileShowtimeLocked() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> block = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    seatLocks.lockShowtime(showtimeId);
+                    locked.countDown();
+                    await(commit);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<BookingOutcome> single = CompletableFuture.supplyAsync(() ->
+                bookingService.book(new BookingRequest(showtimeId, 3, UUID.randomUUID().toString())));
+        Thread.sleep(200);
+        assertThat(single).isNotDone();
+
+        commit.countDown();
+        block.get(10, TimeUnit.SECONDS);
+        assertThat(single.get(10, TimeUnit.SECONDS)).isInstanceOf(BookingOutcome.Booked.class);
+    }
+
+    @Test
+    @DisplayName("Locking outside a transaction is rejected, since nothing would release the lock")
+    void shouldRequireTransaction() {
+        assertThatThrownBy(() -> seatLocks.lockSeat(showtimeId, 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.att.tdp.popcorn_palace.seating;
+
+import com.att.tdp.popcorn_palace.model.booking.Booking;
+import com.att.tdp.popcorn_palace.model.movie.Movie;
+import com.att.tdp.popcorn_palace.model.showtime.Showtime;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The middle row's stretch between its aisles is 64 seats that straddle two
+ * words of the bitmap.
+ */
+@SpringBootTest(properties = {
+        "popcorn.seating.layouts[0].theater=Seat Map Hall",
+        "popcorn.seating.layouts[0].rows[0].section=Front",
+        "popcorn.seating.layouts[0].rows[0].seats=10",
+        "popcorn.seating.layouts[0].rows[0].quality=1",
+        "popcorn.seating.layouts[0].rows[0].aisles-after=5",
+        "popcorn.seating.layouts[0].rows[1].section=Middle",
+        "popcorn.seating.layouts[0].rows[1].seats=70",
+        "popcorn.seating.layouts[0].rows[1].quality=5",
+        "popcorn.seating.layouts[0].rows[1].aisles-after=3,67",
+        "popcorn.seating.layouts[0].rows[2].section=Back",
+        "popcorn.seating.layouts[0].rows[2].seats=6",
+        "popcorn.seating.layouts[0].rows[2].quality=3",
+        "popcorn.seating.layouts[1].theater=Tiny Hall",
+        "popcorn.seating.layouts[1].rows[0].section=Only",
+        "popcorn.seating.layouts[1].rows[0].seats=3",
+        "popcorn.seating.layouts[1].rows[0].quality=1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SeatMapTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Long movieId;
+
+    @BeforeEach
+    void setUp() {
+        movieId = movieRepository.save(new Movie("Seat Map Movie", "Drama", 100, 7.0, 2020)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteById(movieId);
+    }
+
+    @Test
+    @DisplayName("Blocks go to the best row's center, then outwards, ties to the lower seat number")
+    void shouldBookBestBlocks() throws Exception {
+        Long showtimeId = createShowtime("Seat Map Hall");
+
+        bestAvailable(showtimeId, 4)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatNumbers").value(org.hamcrest.Matchers.contains(44, 45, 46, 47)))
+                .andExpect(jsonPath("$.row").value(2))
+                .andExpect(jsonPath("$.section").value("Middle"))
+                .andExpect(jsonPath("$.bookingIds.length()").value(4));
+        bestAvailable(showtimeId, 4)
+                .andExpect(jsonPath("$.seatNumbers").value(org.hamcrest.Matchers.contains(40, 41, 42, 43)));
+
+        assertThat(bookingRepository.findSeatNumbersByShowtimeId(showtimeId))
+                .containsExactlyInAnyOrder(40, 41, 42, 43, 44, 45, 46, 47);
+    }
+
+    @Test
+    @DisplayName("A seat booked behind the map's back is skipped after the insert conflicts")
+    void shouldSearchAgainAfterConflict() throws Exception {
+        Long showtimeId = createShowtime("Seat Map Hall");
+        bestAvailable(showtimeId, 1).andExpect(jsonPath("$.seatNumbers[0]").value(45));
+
+        // Like a booking on another node: the seat map has not seen it
+        bookingRepository.save(new Booking(showtimeId, UUID.randomUUID(), 46));
+
+        bestAvailable(showtimeId, 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatNumbers").value(org.hamcrest.Matchers.contains(43, 44)));
+        assertThat(bookingRepository.findSeatNumbersByShowtimeId(showtimeId))
+                .containsExactlyInAnyOrder(43, 44, 45, 46);
+    }
+
+    @Test
+    @DisplayName("Single bookings and cancellations are reflected, and a full theater returns 409")
+    void shouldTrackSingleBookingsAndCancellations() throws Exception {
+        Long showtimeId = createShowtime("Tiny Hall");
+        bestAvailable(showtimeId, 1).andExpect(jsonPath("$.seatNumbers[0]").value(2));
+
+        mockMvc.perform(post("/bookings")
+                        .contentType("application/json")
+                        .content("""
+                                { "showtimeId": %d, "seatNumber": 1, "userId": "%s" }
+                                """.formatted(showtimeId, UUID.randomUUID())))
+                .andExpect(status().isOk());
+        bestAvailable(showtimeId, 2).andExpect(status().isConflict());
+
+        Booking middle = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getShowtimeId().equals(showtimeId) && booking.getSeatNumber() == 2)
+                .findFirst().orElseThrow();
+        mockMvc.perform(delete("/bookings/" + middle.getId()).param("userId", middle.getUserId().toString()))
+                .andExpect(status().isOk());
+
+        bestAvailable(showtimeId, 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatNumbers").value(org.hamcrest.Matchers.contains(2, 3)));
+        bestAvailable(showtimeId, 1).andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown showtime, a theater without layout and a bad count or userId")
+    void shouldRejectBadRequests() throws Exception {
+        Long showtimeId = createShowtime("Seat Map Hall");
+        Long withoutLayout = createShowtime("Plain Hall");
+
+        bestAvailable(Long.MAX_VALUE, 2).andExpect(status().isNotFound());
+        bestAvailable(withoutLayout, 2).andExpect(status().isBadRequest());
+        bestAvailable(showtimeId, 0).andExpect(status().isBadRequest());
+        bestAvailable(showtimeId, 65).andExpect(status().isBadRequest());
+        mockMvc.perform(post("/showtimes/" + showtimeId + "/best-available")
+                        .param("count", "2")
+                        .param("userId", "not-a-uuid"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("runStarts finds every position that starts a run of free seats")
+    void shouldFindRunStarts() {
+        assertThat(SeatMap.runStarts(0b0111_0110L, 2)).isEqualTo(0b0011_0010L);
+        assertThat(SeatMap.runStarts(0b0111_0110L, 3)).isEqualTo(0b0001_0000L);
+        assertThat(SeatMap.runStarts(-1L, 64)).isEqualTo(1L);
+        assertThat(SeatMap.runStarts(-1L >>> 1, 64)).isZero();
+    }
+
+    private ResultActions bestAvailable(Long showtimeId, int count) throws Exception {
+        return mockMvc.perform(post("/showtimes/" + showtimeId + "/best-available")
+                .param("count", Integer.toString(count))
+                .param("userId", UUID.randomUUID().toString()));
+    }
+
+    private Long createShowtime(String theater) {
+        int existing = (int) showtimeRepository.count();
+        return showtimeRepository.save(new Showtime(movieId, theater,
+                LocalDateTime.of(2032, 1, 1, 10, 0).plusDays(existing), LocalDateTime.of(2032, 1, 1, 12, 0)
+                .plusDays(existing), new BigDecimal("10.00"))).getId();
+    }
+}
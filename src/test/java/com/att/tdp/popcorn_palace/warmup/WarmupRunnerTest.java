@@ -0,0 +1,53 @@
+package com.att.tdp.popcorn_palace.warmup;
+
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "popcorn.warmup.enabled=true",
+        "popcorn.warmup.iterations=250",
+        "management.endpoint.health.probes.enabled=true" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WarmupRunnerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Test
+    @DisplayName("Warm-up runs the configured iterations and leaves no data behind")
+    void shouldRollBackWarmupTraffic() {
+        assertThat(warmupRunner.getCompletedIterations()).isEqualTo(250);
+        assertThat(showtimeRepository.findAll())
+                .noneMatch(showtime -> "__warmup__".equals(showtime.getTheater()));
+        assertThat(bookingRepository.findAll())
+                .allMatch(booking -> showtimeRepository.existsById(booking.getShowtimeId()));
+    }
+
+    @Test
+    @DisplayName("Readiness is UP once the warm-up is done")
+    void shouldReportReadyAfterWarmup() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}